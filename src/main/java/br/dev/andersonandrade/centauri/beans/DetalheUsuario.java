@@ -2,20 +2,28 @@ package br.dev.andersonandrade.centauri.beans;
 
 import br.dev.andersonandrade.centauri.entity.Usuario;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
 
 public class DetalheUsuario implements UserDetails {
+    public static final String PAPEL_ADMINISTRADOR = "ADMINISTRADOR";
+
     private final Usuario usuario;
+    private final boolean administrador;
 
-    public DetalheUsuario(Usuario usuario) {
+    public DetalheUsuario(Usuario usuario, boolean administrador) {
         this.usuario = usuario;
+        this.administrador = administrador;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (administrador) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + PAPEL_ADMINISTRADOR));
+        }
         return List.of();
     }
 
@@ -0,0 +1,273 @@
+package br.dev.andersonandrade.centauri.beans;
+
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Classe JanelaMensagens
+ * <p>
+ * Janela limitada das mensagens mais recentes de uma conversa, ordenada pela data de
+ * envio e sem duplicatas. Uma mensagem é considerada duplicada quando tem a mesma data
+ * de envio, com precisão de microssegundos, o mesmo título e o mesmo conteúdo; assim a
+ * cópia recebida em memória e a cópia lida da base de dados ocupam uma única posição.
+ * <p>
+ * As mensagens ficam em um vetor preenchido da esquerda para a direita: acrescentar a
+ * mensagem mais recente, o caso comum, apenas ocupa a próxima posição, e o trecho ainda
+ * válido é copiado para um novo vetor quando o atual chega ao fim. Ao ultrapassar a capacidade, as mensagens mais antigas
+ * são descartadas. Mensagens fora de ordem reconstroem o vetor uma única vez ao final
+ * da operação.
+ * <p>
+ * As escritas são serializadas por janela, de modo que conversas diferentes não disputam
+ * o mesmo bloqueio. A leitura não usa bloqueio e não copia as mensagens: devolve uma visão
+ * imutável do trecho ocupado do vetor, publicada a cada alteração. Posições já publicadas
+ * não são reutilizadas; somente a troca de uma mensagem pela cópia com id da base de dados
+ * é feita no próprio lugar.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+public class JanelaMensagens {
+
+    private static final int TAMANHO_MINIMO = 8;
+    private static final Comparator<ChaveMensagem> ORDEM = Comparator
+            .comparing(ChaveMensagem::dataEnvio, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ChaveMensagem::titulo, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ChaveMensagem::conteudo, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final int capacidade;
+    private final TreeMap<ChaveMensagem, Entrada> indice = new TreeMap<>(ORDEM);
+    private Mensagem[] itens = new Mensagem[TAMANHO_MINIMO];
+    private long base;
+    private int inicio;
+    private int fim;
+    private boolean desordenada;
+    private boolean alterada;
+    private volatile List<Mensagem> instantaneo = List.of();
+
+    /**
+     * Construtor que inicializa a janela com a capacidade informada.
+     *
+     * @param capacidade Quantidade máxima de mensagens mantidas na janela.
+     */
+    public JanelaMensagens(int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade da janela deve ser maior que zero");
+        }
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Adiciona uma mensagem à janela.
+     * <p>
+     * Se a mensagem já estiver na janela, ela só é substituída quando a nova cópia
+     * traz o id da base de dados.
+     *
+     * @param mensagem A mensagem a ser adicionada.
+     * @return true se a mensagem não estava na janela.
+     */
+    public synchronized boolean adicionar(@NotNull Mensagem mensagem) {
+        boolean adicionada = incluir(mensagem);
+        publicar();
+        return adicionada;
+    }
+
+    /**
+     * Adiciona várias mensagens à janela.
+     *
+     * @param novas As mensagens a serem adicionadas.
+     * @return A quantidade de mensagens que não estavam na janela.
+     */
+    public synchronized int adicionarTodas(@NotNull Collection<? extends Mensagem> novas) {
+        int adicionadas = 0;
+        for (Mensagem mensagem : novas) {
+            if (incluir(mensagem)) {
+                adicionadas++;
+            }
+        }
+        publicar();
+        return adicionadas;
+    }
+
+    /**
+     * Retorna as mensagens da janela em ordem cronológica.
+     *
+     * @return Uma lista imutável com as mensagens.
+     */
+    public List<Mensagem> mensagens() {
+        return instantaneo;
+    }
+
+    /**
+     * Retorna a quantidade de mensagens na janela.
+     *
+     * @return A quantidade de mensagens.
+     */
+    public int tamanho() {
+        return instantaneo.size();
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Remove todas as mensagens da janela.
+     */
+    public synchronized void limpar() {
+        indice.clear();
+        itens = new Mensagem[TAMANHO_MINIMO];
+        base = 0;
+        inicio = 0;
+        fim = 0;
+        desordenada = false;
+        alterada = false;
+        instantaneo = List.of();
+    }
+
+    private boolean incluir(Mensagem mensagem) {
+        Objects.requireNonNull(mensagem, "A mensagem não pode ser nula");
+        ChaveMensagem chave = ChaveMensagem.de(mensagem);
+        Entrada existente = indice.get(chave);
+        if (existente != null) {
+            if (temId(mensagem) && !temId(existente.mensagem)) {
+                existente.mensagem = mensagem;
+                if (!desordenada) {
+                    itens[(int) (existente.sequencia - base)] = mensagem;
+                }
+                alterada = true;
+            }
+            return false;
+        }
+        if (indice.size() >= capacidade && ORDEM.compare(chave, indice.firstKey()) < 0) {
+            return false;
+        }
+
+        if (!desordenada && (indice.isEmpty() || ORDEM.compare(chave, indice.lastKey()) > 0)) {
+            if (fim == itens.length) {
+                compactar();
+            }
+            itens[fim] = mensagem;
+            indice.put(chave, new Entrada(mensagem, base + fim));
+            fim++;
+        } else {
+            indice.put(chave, new Entrada(mensagem, 0));
+            desordenada = true;
+        }
+        while (indice.size() > capacidade) {
+            indice.pollFirstEntry();
+            if (!desordenada) {
+                inicio++;
+            }
+        }
+        alterada = true;
+        return true;
+    }
+
+    /**
+     * Move o trecho ocupado para o começo de um novo vetor com folga para novas mensagens.
+     * O vetor anterior continua intacto para as visões já publicadas.
+     */
+    private void compactar() {
+        int ocupadas = fim - inicio;
+        Mensagem[] novo = new Mensagem[Math.max(TAMANHO_MINIMO, 2 * ocupadas)];
+        System.arraycopy(itens, inicio, novo, 0, ocupadas);
+        base += inicio;
+        itens = novo;
+        inicio = 0;
+        fim = ocupadas;
+    }
+
+    /**
+     * Recria o vetor a partir do índice, depois de mensagens incluídas fora de ordem.
+     */
+    private void reconstruir() {
+        Mensagem[] novo = new Mensagem[Math.max(TAMANHO_MINIMO, 2 * indice.size())];
+        int posicao = 0;
+        for (Entrada entrada : indice.values()) {
+            entrada.sequencia = posicao;
+            novo[posicao++] = entrada.mensagem;
+        }
+        itens = novo;
+        base = 0;
+        inicio = 0;
+        fim = posicao;
+        desordenada = false;
+    }
+
+    private void publicar() {
+        if (!alterada) {
+            return;
+        }
+        if (desordenada) {
+            reconstruir();
+        }
+        instantaneo = inicio == fim ? List.of() : new Visao(itens, inicio, fim);
+        alterada = false;
+    }
+
+    private static boolean temId(Mensagem mensagem) {
+        return mensagem instanceof MensagemBean bean && bean.getId() != null;
+    }
+
+    /**
+     * Identidade de uma mensagem dentro da janela.
+     */
+    private record ChaveMensagem(LocalDateTime dataEnvio, String titulo, String conteudo) {
+
+        private static ChaveMensagem de(Mensagem mensagem) {
+            LocalDateTime dataEnvio = mensagem.getDataEnvio();
+            return new ChaveMensagem(dataEnvio == null ? null : dataEnvio.truncatedTo(ChronoUnit.MICROS),
+                    mensagem.getTitulo(), mensagem.getConteudo());
+        }
+    }
+
+    /**
+     * Mensagem guardada na janela e a sua posição no vetor.
+     */
+    private static final class Entrada {
+        private Mensagem mensagem;
+        private long sequencia;
+
+        private Entrada(Mensagem mensagem, long sequencia) {
+            this.mensagem = mensagem;
+            this.sequencia = sequencia;
+        }
+    }
+
+    /**
+     * Visão imutável de um trecho do vetor de mensagens.
+     */
+    private static final class Visao extends AbstractList<Mensagem> implements RandomAccess {
+        private final Mensagem[] itens;
+        private final int inicio;
+        private final int tamanho;
+
+        private Visao(Mensagem[] itens, int inicio, int fim) {
+            this.itens = itens;
+            this.inicio = inicio;
+            this.tamanho = fim - inicio;
+        }
+
+        @Override
+        public Mensagem get(int indice) {
+            Objects.checkIndex(indice, tamanho);
+            return itens[inicio + indice];
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package br.dev.andersonandrade.centauri.configuracao;
 
 import br.dev.andersonandrade.centauri.beans.DetalheUsuario;
 import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.repository.AdministradorRepository;
 import br.dev.andersonandrade.centauri.repository.UsuarioRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -11,9 +12,12 @@ import org.springframework.stereotype.Service;
 @Service
 public class DetalhesUsuarioService implements UserDetailsService {
     private final UsuarioRepository usuarioRepository;
+    private final AdministradorRepository administradorRepository;
 
-    public DetalhesUsuarioService(UsuarioRepository usuarioRepository) {
+    public DetalhesUsuarioService(UsuarioRepository usuarioRepository,
+                                  AdministradorRepository administradorRepository) {
         this.usuarioRepository = usuarioRepository;
+        this.administradorRepository = administradorRepository;
     }
 
 
@@ -23,7 +27,7 @@ public class DetalhesUsuarioService implements UserDetailsService {
         if (usuario == null) {
             throw new UsernameNotFoundException("Usuário não encontrado!");
         }
-        return new DetalheUsuario(usuario);
+        return new DetalheUsuario(usuario, administradorRepository.existsByLogin_Email(username));
     }
 
 }
@@ -1,5 +1,7 @@
 package br.dev.andersonandrade.centauri.configuracao;
 
+import br.dev.andersonandrade.centauri.beans.DetalheUsuario;
+import br.dev.andersonandrade.centauri.repository.AdministradorRepository;
 import br.dev.andersonandrade.centauri.repository.UsuarioRepository;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -22,12 +24,13 @@ public class WebSecurityConfig {
                         .requestMatchers(PathRequest
                                 .toStaticResources()
                                 .atCommonLocations()).permitAll()
-                        .requestMatchers("/").permitAll()
+                        .requestMatchers("/", "/publicacoes").permitAll()
 
                         .requestMatchers("/dislike/**", "/like/**").permitAll()
                         .requestMatchers("/imagens/publicacao/**").permitAll()
                         .requestMatchers("/static/**", "/css/**", "/js/**", "/fontaweasome/**").permitAll()
                         .requestMatchers("/cadastro", "/cadastro/ativar", "cadastro/verificarNomeUsuario").permitAll()
+                        .requestMatchers("/adminstracao/**").hasRole(DetalheUsuario.PAPEL_ADMINISTRADOR)
                         .anyRequest().authenticated()
                 )
                 .formLogin(form -> form.loginPage("/login")
@@ -44,8 +47,9 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public DetalhesUsuarioService detalhesUsuarioService(UsuarioRepository usuarioRepository) {
-        return new DetalhesUsuarioService(usuarioRepository);
+    public DetalhesUsuarioService detalhesUsuarioService(UsuarioRepository usuarioRepository,
+                                                         AdministradorRepository administradorRepository) {
+        return new DetalhesUsuarioService(usuarioRepository, administradorRepository);
     }
 
 }
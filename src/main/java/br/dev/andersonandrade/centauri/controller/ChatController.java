@@ -4,22 +4,29 @@ package br.dev.andersonandrade.centauri.controller;
 import br.dev.andersonandrade.centauri.beans.MensagemBean;
 import br.dev.andersonandrade.centauri.exceptions.UsuarioNaoEncontradoException;
 import br.dev.andersonandrade.centauri.interfaces.Destinatario;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
 import br.dev.andersonandrade.centauri.interfaces.Remetente;
 import br.dev.andersonandrade.centauri.model.ChatModel;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
 import br.dev.andersonandrade.centauri.record.ChatMensagemRecord;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
 import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
 import br.dev.andersonandrade.centauri.record.MensagemRecord;
 import br.dev.andersonandrade.centauri.record.MostarMensagemChat;
+import br.dev.andersonandrade.centauri.service.CanalChat;
 import br.dev.andersonandrade.centauri.service.RemetenteDestinatarioService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -31,14 +38,18 @@ import java.util.Objects;
 @RequestMapping("/chat")
 public class ChatController {
 
+    private static final int LIMITE_MAXIMO_MENSAGENS = 200;
+
     private final Logger logger = LoggerFactory.getLogger(ChatController.class);
     private final ChatModel chatModel;
     private final RemetenteDestinatarioService service;
+    private final CanalChat canalChat;
 
-    public ChatController(ChatModel chatModel, RemetenteDestinatarioService service) {
+    public ChatController(ChatModel chatModel, RemetenteDestinatarioService service, CanalChat canalChat) {
 
         this.chatModel = chatModel;
         this.service = service;
+        this.canalChat = canalChat;
 
     }
 
@@ -75,6 +86,11 @@ public class ChatController {
                 .forEach(mensagem -> mensagensChat.add(new MostarMensagemChat(mensagem, true)));
 
         mensagensChat.sort(Comparator.comparing(m -> m.mensagem().getDataEnvio()));
+        if (!mensagensChat.isEmpty()) {
+            Mensagem maisAntiga = mensagensChat.get(0).mensagem();
+            model.addAttribute("historicoDataEnvio", maisAntiga.getDataEnvio().toString());
+            model.addAttribute("historicoId", maisAntiga instanceof MensagemBean bean ? bean.getId() : null);
+        }
         model.addAttribute("mensagensChat", mensagensChat);
         model.addAttribute("remetente", remetente);
         model.addAttribute("destinatarios", destinatarios);
@@ -82,6 +98,57 @@ public class ChatController {
         return "chat";
     }
 
+    /**
+     * Retorna, em JSON, as mensagens da conversa enviadas depois da última mensagem exibida.
+     * <p>
+     * O cursor é a data de envio e, se a mensagem já foi armazenada, o id da última
+     * mensagem exibida. Somente as mensagens novas são consultadas.
+     *
+     * @param destinatario   O destinatário da conversa.
+     * @param dataEnvio      Data de envio da última mensagem exibida.
+     * @param id             Id da última mensagem exibida, se houver.
+     * @param limite         Quantidade máxima de mensagens, limitada entre 1 e {@value #LIMITE_MAXIMO_MENSAGENS}.
+     * @param authentication O usuário autenticado.
+     * @return As mensagens novas em ordem cronológica.
+     */
+    @GetMapping("/mensagens/novas")
+    @ResponseBody
+    public List<MostarMensagemChat> mensagensNovas(DestinatarioRecord destinatario,
+                                                   @RequestParam("dataEnvio")
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataEnvio,
+                                                   @RequestParam(value = "id", required = false) Long id,
+                                                   @RequestParam(value = "limite", defaultValue = "50") int limite,
+                                                   Authentication authentication) {
+        return chatModel.mensagensPosteriores(authentication.getName(), destinatario,
+                new CursorMensagemRecord(dataEnvio, id), Math.max(1, Math.min(limite, LIMITE_MAXIMO_MENSAGENS)));
+    }
+
+    /**
+     * Retorna, em JSON, uma página do histórico da conversa anterior à mensagem mais antiga exibida.
+     * <p>
+     * Sem cursor, retorna as mensagens mais recentes da conversa. A página de mensagens
+     * consulta este endereço quando o usuário rola o chat até o topo.
+     *
+     * @param destinatario   O destinatário da conversa.
+     * @param dataEnvio      Data de envio da mensagem mais antiga exibida, se houver.
+     * @param id             Id da mensagem mais antiga exibida, se houver.
+     * @param limite         Quantidade máxima de mensagens, limitada entre 1 e {@value #LIMITE_MAXIMO_MENSAGENS}.
+     * @param authentication O usuário autenticado.
+     * @return As mensagens da página em ordem cronológica.
+     */
+    @GetMapping("/mensagens/anteriores")
+    @ResponseBody
+    public List<MostarMensagemChat> mensagensAnteriores(DestinatarioRecord destinatario,
+                                                        @RequestParam(value = "dataEnvio", required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataEnvio,
+                                                        @RequestParam(value = "id", required = false) Long id,
+                                                        @RequestParam(value = "limite", defaultValue = "50") int limite,
+                                                        Authentication authentication) {
+        CursorMensagemRecord cursor = dataEnvio == null ? null : new CursorMensagemRecord(dataEnvio, id);
+        return chatModel.mensagensAnteriores(authentication.getName(), destinatario, cursor,
+                Math.max(1, Math.min(limite, LIMITE_MAXIMO_MENSAGENS)));
+    }
+
     @PostMapping("/enviar")
     public ResponseEntity<HttpStatus> enviarMensagem(@RequestBody MensagemRecord mensagemRecord,
                                                      Authentication authentication) {
@@ -105,6 +172,26 @@ public class ChatController {
         }
     }
 
+    /**
+     * Abre o canal de eventos da conversa com o destinatário.
+     * <p>
+     * As mensagens que o destinatário enviar ao usuário autenticado são entregues pelo
+     * canal assim que forem enviadas, sem que o navegador precise consultar o servidor.
+     *
+     * @param destinatario   O destinatário da conversa aberta.
+     * @param authentication O usuário autenticado.
+     * @return O emissor de eventos da conversa.
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(DestinatarioRecord destinatario, Authentication authentication) {
+        Objects.requireNonNull(destinatario.endereco(), "Verifique o endereço do destinatario não pode ser nulo!");
+
+        logger.info("Remetente: {} assinando as mensagens do Destinatario: {}",
+                authentication.getName(), destinatario.endereco());
+
+        return canalChat.assinar(new ChaveConversaRecord(destinatario.endereco(), authentication.getName()));
+    }
+
     @GetMapping("destinatario")
     public String formCadastroRemetente(Authentication authentication,
                                         DestinatarioRecord destinatarioRecord, Model model) {
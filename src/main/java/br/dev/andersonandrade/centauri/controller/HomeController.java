@@ -1,47 +1,121 @@
 package br.dev.andersonandrade.centauri.controller;
 
-import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.enumeradores.OrdemPublicacoes;
 import br.dev.andersonandrade.centauri.model.MensagemModel;
 import br.dev.andersonandrade.centauri.model.PublicacaoModel;
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.FragmentoRenderizadoRecord;
+import br.dev.andersonandrade.centauri.record.PaginaPublicacoesRecord;
+import br.dev.andersonandrade.centauri.service.CachePaginaInicial;
 import br.dev.andersonandrade.centauri.service.EmailService;
 import br.dev.andersonandrade.centauri.service.UsuarioService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 
 @Controller
 @RequestMapping(path = "/")
 public class HomeController {
 
+    static final int TAMANHO_PAGINA = 12;
+    static final int LIMITE_MAXIMO_PUBLICACOES = 60;
+
     private final PublicacaoModel publicacaoModel;
     private final MensagemModel mensagemModel;
     private final UsuarioService usuarioService;
+    private final CachePaginaInicial cachePaginaInicial;
 
 
     @Autowired
     public HomeController(UsuarioService usuarioService, MensagemModel mensagemModel,
-                          PublicacaoModel publicacaoModel, EmailService email) {
+                          PublicacaoModel publicacaoModel, EmailService email,
+                          CachePaginaInicial cachePaginaInicial) {
         this.usuarioService = usuarioService;
         this.mensagemModel = mensagemModel;
         this.publicacaoModel = publicacaoModel;
+        this.cachePaginaInicial = cachePaginaInicial;
     }
 
+    /**
+     * Exibe a página inicial com a primeira página das publicações mais curtidas.
+     * <p>
+     * Os cartões das publicações vêm do {@link CachePaginaInicial} e só são renderizados
+     * novamente quando a versão do ranking muda. A resposta leva ETag e Last-Modified, e
+     * requisições condicionais de uma versão já conhecida recebem 304 sem corpo.
+     *
+     * @param requisicao A requisição, usada para verificar os cabeçalhos condicionais.
+     * @param resposta   A resposta, que recebe o cabeçalho de cache.
+     * @param model      O modelo da página.
+     * @return O template da página inicial, ou null se o navegador já tem a versão atual.
+     */
     @GetMapping
-    public String paginaInicial(Model model) {
-        List<Publicacao> publicacoesBanco = publicacaoModel.listaRank();
+    public String paginaInicial(WebRequest requisicao, HttpServletResponse resposta, Model model) {
+        FragmentoRenderizadoRecord cartoes = cachePaginaInicial.cartoes(publicacaoModel.versaoRanking(), () -> {
+            PaginaPublicacoesRecord pagina = publicacaoModel.pagina(OrdemPublicacoes.CURTIDAS, null, TAMANHO_PAGINA);
+            return variaveisPagina(pagina);
+        });
+        resposta.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePublic().getHeaderValue());
+        if (requisicao.checkNotModified(cartoes.etag(), cartoes.ultimaAlteracao())) {
+            return null;
+        }
 
         model.addAttribute("pageTitle", "Blog");
         model.addAttribute("texto", "página principal");
-        model.addAttribute("listaPublicacao", publicacoesBanco);
+        model.addAttribute("ordem", OrdemPublicacoes.CURTIDAS);
+        model.addAttribute("cartoes", cartoes.html());
         return "index";
 
     }
 
+    /**
+     * Retorna o fragmento com os cartões da próxima página do feed, carregado pela
+     * rolagem infinita da página inicial.
+     * <p>
+     * Sem cursor, retorna a primeira página da ordem escolhida.
+     *
+     * @param ordem          A ordem do feed.
+     * @param dataPublicacao Data da última publicação exibida, exigida no feed das mais recentes.
+     * @param likes          Likes da última publicação exibida.
+     * @param id             Id da última publicação exibida, se houver.
+     * @param limite         Quantidade máxima de publicações.
+     * @param model          O modelo da página.
+     * @return O fragmento dos cartões.
+     */
+    @GetMapping("publicacoes")
+    public String publicacoes(@RequestParam(value = "ordem", defaultValue = "CURTIDAS") OrdemPublicacoes ordem,
+                              @RequestParam(value = "dataPublicacao", required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dataPublicacao,
+                              @RequestParam(value = "likes", defaultValue = "0") int likes,
+                              @RequestParam(value = "id", required = false) Long id,
+                              @RequestParam(value = "limite", defaultValue = "12") int limite,
+                              Model model) {
+        CursorPublicacaoRecord cursor = id == null ? null : new CursorPublicacaoRecord(dataPublicacao, likes, id);
+        PaginaPublicacoesRecord pagina = publicacaoModel.pagina(ordem, cursor,
+                Math.max(1, Math.min(limite, LIMITE_MAXIMO_PUBLICACOES)));
+        model.addAllAttributes(variaveisPagina(pagina));
+        return CachePaginaInicial.TEMPLATE_CARTOES;
+    }
+
+    private static Map<String, Object> variaveisPagina(PaginaPublicacoesRecord pagina) {
+        Map<String, Object> variaveis = new HashMap<>();
+        variaveis.put("listaPublicacao", pagina.publicacoes());
+        variaveis.put("proximaPagina", pagina.proxima());
+        return variaveis;
+    }
+
     @GetMapping("login")
     public String formLogin() {
         return "login";
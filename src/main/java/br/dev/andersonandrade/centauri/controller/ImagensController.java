@@ -1,12 +1,12 @@
 package br.dev.andersonandrade.centauri.controller;
 
-import br.dev.andersonandrade.centauri.entity.Publicacao;
 import br.dev.andersonandrade.centauri.model.ImagemModel;
 import br.dev.andersonandrade.centauri.model.PublicacaoModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @Controller
 @RequestMapping(path = "imagens", method = RequestMethod.GET)
@@ -22,9 +22,11 @@ public class ImagensController {
 
     @ResponseBody
     @GetMapping("publicacao/{id}")
-    public ResponseEntity<?> publicacaoImagem(@PathVariable Long id) {
-        Publicacao publicacao = publicacaoModel.buscaId(id);
-        return imagemModel.imagemPublicacao(publicacao);
+    public ResponseEntity<?> publicacaoImagem(@PathVariable Long id,
+                                              @RequestParam(name = "w", required = false) Integer largura,
+                                              ServletWebRequest requisicao) {
+        return imagemModel.imagemPublicacao(id, largura, () -> publicacaoModel.buscaImagem(id).orElse(null),
+                requisicao);
     }
 
 
@@ -1,16 +1,15 @@
 package br.dev.andersonandrade.centauri.controller;
 
-import br.dev.andersonandrade.centauri.beans.LikePublicacao;
-import br.dev.andersonandrade.centauri.entity.Usuario;
-import br.dev.andersonandrade.centauri.model.MensagemModel;
-import br.dev.andersonandrade.centauri.model.PublicacaoModel;
-import br.dev.andersonandrade.centauri.service.UsuarioService;
+import br.dev.andersonandrade.centauri.model.PainelUsuarioModel;
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PainelUsuarioRecord;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.Optional;
 
@@ -19,41 +18,39 @@ import java.util.Optional;
 public class LoginController {
 
 
-    private final MensagemModel mensagemModel;
-    private final PublicacaoModel publicacaoModel;
-    private final UsuarioService usuarioService;
+    private final PainelUsuarioModel painelUsuarioModel;
 
 
     @Autowired
-    public LoginController(MensagemModel mensagemModel,
-                           UsuarioService usuarioService,
-                           PublicacaoModel publicacaoModel) {
-        this.mensagemModel = mensagemModel;
-        this.publicacaoModel = publicacaoModel;
-        this.usuarioService = usuarioService;
+    public LoginController(PainelUsuarioModel painelUsuarioModel) {
+        this.painelUsuarioModel = painelUsuarioModel;
     }
 
     @PostMapping("minha-pagina")
-    public String paginaUsuario(Authentication authentication, Model model) {
+    public String paginaUsuario(Authentication authentication,
+                                @RequestParam(value = "likes", required = false) Integer likes,
+                                @RequestParam(value = "id", required = false) Long id,
+                                Model model) {
 
         if (authentication != null) {
-            informacaoUsuario(model, authentication.getName(), usuarioService,
-                    mensagemModel, publicacaoModel);
+            CursorPublicacaoRecord cursor = id == null ? null
+                    : new CursorPublicacaoRecord(null, likes == null ? 0 : likes, id);
+            informacaoUsuario(model, authentication.getName(), painelUsuarioModel, cursor);
             return "usuario";
         }
         return "redirect:/";
     }
 
     @NotNull
-    static void informacaoUsuario(Model model, String userName,
-                                  UsuarioService usuarioService, MensagemModel mensagemModel,
-                                  PublicacaoModel publicacaoModel) {
-        Optional<Usuario> usuario = usuarioService.buscaPorEmail(userName);
-        if (usuario.isPresent()) {
-            LikePublicacao likePublicacao = publicacaoModel.rankComLike(usuario.get());
-            model.addAttribute("usuario", usuario.get());
-            model.addAttribute("caixaDeMensagem", mensagemModel.criaCaixaMensagem(usuario.get()));
-            model.addAttribute("publicacaoLikes", likePublicacao.getLikesPublicacoes());
+    static void informacaoUsuario(Model model, String userName, PainelUsuarioModel painelUsuarioModel,
+                                  CursorPublicacaoRecord cursor) {
+        Optional<PainelUsuarioRecord> painel = painelUsuarioModel.carregar(userName, cursor);
+        if (painel.isPresent()) {
+            model.addAttribute("usuario", painel.get().usuario());
+            model.addAttribute("caixaDeMensagem", painel.get().caixaDeMensagem());
+            model.addAttribute("publicacaoLikes", painel.get().publicacoes().publicacoes());
+            model.addAttribute("proximasPublicacoes", painel.get().publicacoes().proxima());
+            model.addAttribute("quantidadePublicacoes", painel.get().quantidade());
         }
     }
 }
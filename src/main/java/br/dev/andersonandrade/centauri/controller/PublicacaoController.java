@@ -3,6 +3,7 @@ package br.dev.andersonandrade.centauri.controller;
 import br.dev.andersonandrade.centauri.entity.Publicacao;
 import br.dev.andersonandrade.centauri.entity.Usuario;
 import br.dev.andersonandrade.centauri.model.MensagemModel;
+import br.dev.andersonandrade.centauri.model.PainelUsuarioModel;
 import br.dev.andersonandrade.centauri.model.PublicacaoModel;
 import br.dev.andersonandrade.centauri.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,13 +28,16 @@ public class PublicacaoController {
     private final PublicacaoModel publicacaoModel;
     private final UsuarioService usuarioService;
     private final MensagemModel mensagemModel;
+    private final PainelUsuarioModel painelUsuarioModel;
 
     @Autowired
     public PublicacaoController(PublicacaoModel publicacaoModel,
-                                UsuarioService usuarioService, MensagemModel mensagemModel) {
+                                UsuarioService usuarioService, MensagemModel mensagemModel,
+                                PainelUsuarioModel painelUsuarioModel) {
         this.publicacaoModel = publicacaoModel;
         this.usuarioService = usuarioService;
         this.mensagemModel = mensagemModel;
+        this.painelUsuarioModel = painelUsuarioModel;
     }
 
     @PostMapping("publicacao")
@@ -41,7 +45,7 @@ public class PublicacaoController {
         if (authentication == null) {
             return "redirect:/";
         }
-        informacaoUsuario(model, authentication.getName(), usuarioService, mensagemModel, publicacaoModel);
+        informacaoUsuario(model, authentication.getName(), painelUsuarioModel, null);
         return "cria-publicacao";
     }
 
@@ -7,6 +7,11 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.Objects;
 
+/**
+ * Registro de likes de uma publicação, usado até os contadores passarem para a própria
+ * {@link Publicacao}. A tabela não é mais atualizada e é mantida somente como origem da
+ * migração feita por {@link br.dev.andersonandrade.centauri.service.MigracaoContadoresLikes}.
+ */
 @Entity
 public class Likes implements Serializable {
     @Serial
@@ -15,7 +20,7 @@ public class Likes implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private Publicacao publicacao;
 
     private int qtdPositivo = 0;
@@ -1,7 +1,9 @@
 package br.dev.andersonandrade.centauri.entity;
 
+import br.dev.andersonandrade.centauri.uteis.ArmazenamentoImagemUtil;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -9,6 +11,12 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_publicacao_ativa_data", columnList = "ativa, dataPublicacao, id"),
+        @Index(name = "idx_publicacao_usuario_ativa", columnList = "usuario_id, ativa, id"),
+        @Index(name = "idx_publicacao_ativa_likes", columnList = "ativa, qtdPositivo, id"),
+        @Index(name = "idx_publicacao_hash_imagem", columnList = "hashImagem, ativa")
+})
 public class Publicacao implements Serializable {
 
     @Serial
@@ -18,6 +26,10 @@ public class Publicacao implements Serializable {
     private Long id;
     @Column(length = 255)
     private String urlImagem;
+    @Column(length = 100)
+    private String tipoImagem;
+    @Column(length = 64)
+    private String hashImagem;
     @Column(length = 300, nullable = false)
     private String titulo;
     @Column(length = 5000, nullable = false)
@@ -26,6 +38,17 @@ public class Publicacao implements Serializable {
     private boolean ativa = true;
     @ManyToOne(cascade = CascadeType.ALL)
     private Usuario usuario;
+    /**
+     * Os contadores só são alterados pelo {@link br.dev.andersonandrade.centauri.repository.LikeLoteRepository};
+     * a gravação da entidade não os regrava, para não desfazer os saldos gravados depois
+     * que ela foi carregada.
+     */
+    @ColumnDefault("0")
+    @Column(insertable = true, updatable = false)
+    private int qtdPositivo = 0;
+    @ColumnDefault("0")
+    @Column(insertable = true, updatable = false)
+    private int qtdNegativo = 0;
 
     @Deprecated
     protected Publicacao() {
@@ -35,6 +58,7 @@ public class Publicacao implements Serializable {
     public Publicacao(Usuario usuario, String urlImagem, String texto, LocalDateTime dataPublicacao, boolean ativa) {
         this.usuario = usuario;
         this.urlImagem = urlImagem;
+        this.hashImagem = ArmazenamentoImagemUtil.hash(urlImagem);
         this.titulo = devolverTitulo(texto);
         this.texto = removeTitulo(texto);
         this.dataPublicacao = dataPublicacao;
@@ -55,6 +79,23 @@ public class Publicacao implements Serializable {
 
     public void setUrlImagem(String urlImagem) {
         this.urlImagem = urlImagem;
+        this.hashImagem = ArmazenamentoImagemUtil.hash(urlImagem);
+    }
+
+    /**
+     * Retorna o hash do conteúdo da imagem, definido junto com o caminho da imagem, ou null
+     * nas imagens gravadas antes do armazenamento por conteúdo.
+     */
+    public String getHashImagem() {
+        return hashImagem;
+    }
+
+    public String getTipoImagem() {
+        return tipoImagem;
+    }
+
+    public void setTipoImagem(String tipoImagem) {
+        this.tipoImagem = tipoImagem;
     }
 
     public String getTitulo() {
@@ -97,6 +138,22 @@ public class Publicacao implements Serializable {
         this.usuario = usuario;
     }
 
+    public int getQtdPositivo() {
+        return qtdPositivo;
+    }
+
+    public void setQtdPositivo(int qtdPositivo) {
+        this.qtdPositivo = qtdPositivo;
+    }
+
+    public int getQtdNegativo() {
+        return qtdNegativo;
+    }
+
+    public void setQtdNegativo(int qtdNegativo) {
+        this.qtdNegativo = qtdNegativo;
+    }
+
     private String devolverTitulo(@NotNull String texto) {
         String titulo = texto.split("\n")[0];
         if (titulo == null || titulo.isEmpty()) {
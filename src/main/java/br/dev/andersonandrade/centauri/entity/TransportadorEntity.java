@@ -9,6 +9,12 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transportador_remetente_destinatario_data",
+                columnList = "enderecoRemetente, enderecoDestinatario, dataEnvio"),
+        @Index(name = "idx_transportador_destinatario_data",
+                columnList = "enderecoDestinatario, dataEnvio")
+})
 public class TransportadorEntity implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
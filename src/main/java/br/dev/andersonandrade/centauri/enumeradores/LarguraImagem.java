@@ -0,0 +1,57 @@
+package br.dev.andersonandrade.centauri.enumeradores;
+
+import java.nio.file.Path;
+
+/**
+ * Larguras, em pixels, das cópias reduzidas geradas para cada imagem de publicação.
+ * <p>
+ * {@code MINIATURA} atende às listas do painel do usuário, {@code CARTAO} aos cartões da
+ * página inicial e {@code COMPLETA} à imagem ampliada e às telas de alta densidade. Cada
+ * cópia fica ao lado da imagem original, com a largura no nome do arquivo.
+ */
+public enum LarguraImagem {
+    MINIATURA(240),
+    CARTAO(480),
+    COMPLETA(1080);
+    private final int largura;
+
+    LarguraImagem(int largura) {
+        this.largura = largura;
+    }
+
+    public int getLargura() {
+        return largura;
+    }
+
+    /**
+     * Retorna a menor cópia com pelo menos a largura pedida, ou a maior cópia se a largura
+     * pedida passar dela.
+     *
+     * @param largura A largura pedida, em pixels.
+     * @return A cópia que atende à largura, ou null se nenhuma largura for pedida.
+     */
+    public static LarguraImagem para(Integer largura) {
+        if (largura == null) {
+            return null;
+        }
+        for (LarguraImagem tamanho : values()) {
+            if (tamanho.largura >= largura) {
+                return tamanho;
+            }
+        }
+        return COMPLETA;
+    }
+
+    /**
+     * Retorna o arquivo desta cópia, ao lado da imagem original.
+     *
+     * @param original O arquivo da imagem original.
+     * @return O arquivo da cópia, por exemplo {@code codigo-480.jpg} para {@code codigo.jpg}.
+     */
+    public Path caminho(Path original) {
+        String nome = original.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        String derivada = ponto < 0 ? nome + "-" + largura : nome.substring(0, ponto) + "-" + largura + nome.substring(ponto);
+        return original.resolveSibling(derivada);
+    }
+}
@@ -0,0 +1,11 @@
+package br.dev.andersonandrade.centauri.enumeradores;
+
+/**
+ * Ordem do feed de publicações da página inicial.
+ * <p>
+ * {@code CURTIDAS} ordena pela quantidade de likes, da mais curtida para a menos curtida,
+ * e {@code RECENTES} pela data da publicação, da mais nova para a mais antiga.
+ */
+public enum OrdemPublicacoes {
+    CURTIDAS, RECENTES
+}
@@ -0,0 +1,12 @@
+package br.dev.andersonandrade.centauri.enumeradores;
+
+/**
+ * Define o comportamento do correio quando a fila de uma prioridade está cheia.
+ * <p>
+ * {@code REJEITAR} recusa a mensagem imediatamente, {@code BLOQUEAR} aguarda espaço
+ * na fila por um tempo limitado e {@code ESCOAR} faz o próprio remetente gravar um
+ * lote da fila no armazém antes de tentar novamente.
+ */
+public enum PoliticaSaturacao {
+    REJEITAR, BLOQUEAR, ESCOAR
+}
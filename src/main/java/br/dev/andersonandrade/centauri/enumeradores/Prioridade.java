@@ -1,16 +1,36 @@
 package br.dev.andersonandrade.centauri.enumeradores;
 
+/**
+ * Prioridade de entrega das mensagens do correio.
+ * <p>
+ * Cada prioridade define os valores padrão do escoamento da sua fila: a mensagem é
+ * gravada assim que o lote atinge {@code lotePadrao} mensagens ou quando a mais antiga
+ * do lote completa {@code latenciaMaximaPadraoMs} milissegundos de espera, o que
+ * ocorrer primeiro.
+ */
 public enum Prioridade {
-    URGENTE("URGENTE"),
-    NORMAL("NORMAL"),
-    BAIXA("BAIXA");
+    URGENTE("URGENTE", 100, 50),
+    NORMAL("NORMAL", 500, 2_000),
+    BAIXA("BAIXA", 1_000, 10_000);
     private final String prioridade;
+    private final int lotePadrao;
+    private final long latenciaMaximaPadraoMs;
 
-    Prioridade(String prioridade) {
+    Prioridade(String prioridade, int lotePadrao, long latenciaMaximaPadraoMs) {
         this.prioridade = prioridade;
+        this.lotePadrao = lotePadrao;
+        this.latenciaMaximaPadraoMs = latenciaMaximaPadraoMs;
     }
 
     public String getPrioridade() {
         return this.prioridade;
     }
+
+    public int getLotePadrao() {
+        return lotePadrao;
+    }
+
+    public long getLatenciaMaximaPadraoMs() {
+        return latenciaMaximaPadraoMs;
+    }
 }
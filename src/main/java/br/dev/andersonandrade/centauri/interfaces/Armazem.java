@@ -1,5 +1,6 @@
 package br.dev.andersonandrade.centauri.interfaces;
 
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
@@ -29,6 +30,17 @@ public interface Armazem {
      */
     void armazenar(@NotNull @NotEmpty List<Transportador> transportadores);
 
+    /**
+     * Verifica se a mensagem do transportador já foi armazenada.
+     * <p>
+     * Usado ao reprocessar o diário de mensagens, para não gravar novamente uma
+     * mensagem cuja confirmação se perdeu.
+     *
+     * @param transportador O transportador da mensagem.
+     * @return true se a mesma mensagem, da mesma conversa e com a mesma data de envio, já estiver armazenada.
+     */
+    boolean contem(@NotNull Transportador transportador);
+
     /**
      * Recupera todas as mensagens associadas a um destinatário específico.
      * <p>
@@ -62,4 +74,36 @@ public interface Armazem {
      * @return Uma lista de mensagens associadas ao remetente e destinatario, ou uma lista vazia se não houver mensagens.
      */
     List<Mensagem> mensagens(Remetente remetente,Destinatario destinatario);
+
+    /**
+     * Recupera uma página de mensagens enviadas por um remetente a um destinatário,
+     * anteriores ao cursor informado.
+     * <p>
+     * A paginação é feita por chave (data de envio e id), portanto o custo de cada
+     * página é proporcional ao seu tamanho e não ao total de mensagens da conversa.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais antiga já lida, ou null para começar pelas mais recentes.
+     * @param limite       Quantidade máxima de mensagens da página.
+     * @return As mensagens da página em ordem cronológica, ou uma lista vazia se não houver mensagens.
+     */
+    List<Mensagem> mensagensAnteriores(Remetente remetente, Destinatario destinatario,
+                                       CursorMensagemRecord cursor, int limite);
+
+    /**
+     * Recupera uma página de mensagens enviadas por um remetente a um destinatário,
+     * posteriores ao cursor informado.
+     * <p>
+     * Usado para buscar somente as mensagens novas de uma conversa já exibida; o custo
+     * é proporcional à quantidade de mensagens novas e não ao histórico da conversa.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais recente já lida.
+     * @param limite       Quantidade máxima de mensagens da página.
+     * @return As mensagens da página em ordem cronológica, ou uma lista vazia se não houver mensagens.
+     */
+    List<Mensagem> mensagensPosteriores(Remetente remetente, Destinatario destinatario,
+                                        @NotNull CursorMensagemRecord cursor, int limite);
 }
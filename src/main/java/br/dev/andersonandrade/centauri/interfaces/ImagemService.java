@@ -1,9 +1,12 @@
 package br.dev.andersonandrade.centauri.interfaces;
 
-import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.function.Supplier;
+
 /**
  * @author Anderson Andrade Dev
  * @Data de Criação 29/09/2024
@@ -22,8 +25,13 @@ public interface ImagemService {
     /**
      * Retorna a imagem associada a uma publicação.
      *
-     * @param publicacao Publicacao que contém a URL da imagem.
-     * @return ResponseEntity com a imagem ou uma mensagem de erro.
+     * @param idPublicacao O id da publicação.
+     * @param largura      A largura pedida, em pixels, ou null para a imagem original.
+     * @param buscar       A consulta do local e do tipo da imagem da publicação.
+     * @param requisicao   A requisição, usada nas verificações condicionais.
+     * @return ResponseEntity com a imagem ou uma mensagem de erro, ou null se a resposta
+     * 304 já foi preparada.
      */
-    ResponseEntity<?> imagemPublicacao(Publicacao publicacao);
+    ResponseEntity<?> imagemPublicacao(Long idPublicacao, Integer largura, Supplier<ImagemPublicacaoRecord> buscar,
+                                       ServletWebRequest requisicao);
 }
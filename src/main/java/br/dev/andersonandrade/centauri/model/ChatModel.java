@@ -1,15 +1,19 @@
 package br.dev.andersonandrade.centauri.model;
 
-import br.dev.andersonandrade.centauri.beans.SalaChat;
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
 import br.dev.andersonandrade.centauri.entity.Usuario;
 import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
 import br.dev.andersonandrade.centauri.exceptions.RemetenteNaoEncotradoException;
 import br.dev.andersonandrade.centauri.interfaces.Destinatario;
 import br.dev.andersonandrade.centauri.interfaces.Mensagem;
 import br.dev.andersonandrade.centauri.interfaces.Remetente;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
 import br.dev.andersonandrade.centauri.record.ChatMensagemRecord;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
 import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.MostarMensagemChat;
 import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.service.CanalChat;
 import br.dev.andersonandrade.centauri.service.CorreioMensagem;
 import br.dev.andersonandrade.centauri.service.RemetenteDestinatarioService;
 import br.dev.andersonandrade.centauri.service.UsuarioService;
@@ -18,12 +22,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.ApplicationScope;
 
 import java.util.*;
+import java.util.function.BiFunction;
 
 /**
  * Classe ChatModel
  * <p>
  * Esta classe gerencia a lógica de envio e recebimento de mensagens entre usuários em salas de chat.
- * Utiliza a classe SalaChat para armazenar e recuperar mensagens.
+ * As mensagens recentes de cada conversa são lidas das janelas do cache de conversas do
+ * {@link CorreioMensagem}, que recebe cada mensagem enviada.
  *
  * @author Anderson Andrade Dev
  * @date 28/09/2024
@@ -31,27 +37,38 @@ import java.util.*;
  */
 @Component
 public class ChatModel {
+
+    private static final Comparator<MostarMensagemChat> ORDEM_CONVERSA = Comparator
+            .comparing((MostarMensagemChat chat) -> chat.mensagem().getDataEnvio())
+            .thenComparing(chat -> chat.mensagem() instanceof MensagemBean bean ? bean.getId() : null,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final CorreioMensagem correio;
     private final UsuarioService usuarioService;
     private final RemetenteDestinatarioService remetenteDestinatarioService;
+    private final CanalChat canalChat;
 
     /**
      * Construtor que inicializa a classe ChatModel.
      *
      * @param correio        O serviço responsável pelo envio e recebimento de mensagens.
      * @param usuarioService O modelo de usuário utilizado para gerenciar os usuários do sistema.
+     * @param canalChat      O canal que entrega as novas mensagens aos navegadores com a conversa aberta.
      */
-    public ChatModel(CorreioMensagem correio, UsuarioService usuarioService, RemetenteDestinatarioService remetenteDestinatarioService) {
+    public ChatModel(CorreioMensagem correio, UsuarioService usuarioService,
+                     RemetenteDestinatarioService remetenteDestinatarioService, CanalChat canalChat) {
         this.correio = correio;
         this.usuarioService = usuarioService;
         this.remetenteDestinatarioService = remetenteDestinatarioService;
+        this.canalChat = canalChat;
     }
 
     /**
      * Envia uma mensagem de um remetente para um destinatário.
      * <p>
      * Este método verifica se o remetente, destinatário e mensagem são válidos.
-     * Caso a mensagem esteja vazia, uma exceção é lançada.
+     * Caso a mensagem esteja vazia, uma exceção é lançada. Após ser entregue ao correio,
+     * a mensagem é publicada no {@link CanalChat} para o destinatário que está com a conversa aberta.
      *
      * @param remetente    O remetente da mensagem.
      * @param destinatario O destinatário da mensagem.
@@ -61,8 +78,8 @@ public class ChatModel {
     public void enviar(@NotNull Remetente remetente, @NotNull Destinatario destinatario, @NotNull Mensagem mensagem) {
         Objects.requireNonNull(remetente, "Remetente não pode ser nulo!");
         Objects.requireNonNull(destinatario, "Destinatario não pode ser nulo");
-        SalaChat salaChat = SalaChat.abrir(remetente, destinatario).adicionarMensagemDestinatario(mensagem);
         correio.recebeMensagem(destinatario, remetente, mensagem, Prioridade.URGENTE);
+        canalChat.publicar(ChaveConversaRecord.de(remetente, destinatario), mensagem);
     }
 
     /**
@@ -87,7 +104,7 @@ public class ChatModel {
      * Responde a uma mensagem de um remetente para um destinatário.
      * <p>
      * Este método verifica se o remetente, destinatário e mensagem são válidos
-     * antes de adicionar a mensagem à sala de chat.
+     * antes de entregar a mensagem ao correio.
      *
      * @param remetente    O remetente da mensagem.
      * @param destinatario O destinatário da mensagem.
@@ -99,8 +116,8 @@ public class ChatModel {
             throw new IllegalArgumentException("Remetente, destinatário e mensagem não podem ser nulos.");
         }
 
-        SalaChat salaChat = SalaChat.abrir(remetente, destinatario).adicionarMensagemRemetente(mensagem);
         correio.recebeMensagem(destinatario, remetente, mensagem, Prioridade.URGENTE);
+        canalChat.publicar(ChaveConversaRecord.de(remetente, destinatario), mensagem);
     }
 
     /**
@@ -127,29 +144,55 @@ public class ChatModel {
         if (usuario.isPresent()) {
 
             RemetenteRecord remetente = new RemetenteRecord(usuario.get().getNome(), usuario.get().getLogin().getEmail());
-            SalaChat salaChat = SalaChat.abrir(remetente, destinatario);
-
-            // Recupera mensagens enviadas e recebidas
-            correio.mensagens(remetente, destinatario).forEach(salaChat::adicionarMensagemRemetente);
-            correio.mensagens(new RemetenteRecord(destinatario.nome(), destinatario.endereco()),
-                              new DestinatarioRecord(remetente.nome(), remetente.endereco()))
-                    .forEach(salaChat::adicionarMensagemDestinatario);
-
-            // Ordena as mensagens por data de envio
-            List<Mensagem> mensagensOrdenadasRemetente = new ArrayList<>(Set.copyOf(salaChat.getMensagensRemetente()));
-            List<Mensagem> mensagensOrdenadasDestinatario = new ArrayList<>(Set.copyOf(salaChat.getMensagensDestinatario()));
-
-            mensagensOrdenadasRemetente.sort(Comparator.comparing(Mensagem::getDataEnvio));
-            mensagensOrdenadasDestinatario.sort(Comparator.comparing(Mensagem::getDataEnvio));
 
-            return new ChatMensagemRecord(List.copyOf(mensagensOrdenadasRemetente),
-                    List.copyOf(mensagensOrdenadasDestinatario));
+            // As janelas do correio já estão em ordem cronológica e são devolvidas sem cópia
+            return new ChatMensagemRecord(correio.mensagens(remetente, destinatario),
+                    correio.mensagens(new RemetenteRecord(destinatario.nome(), destinatario.endereco()),
+                            new DestinatarioRecord(remetente.nome(), remetente.endereco())));
 
         }
 
         return new ChatMensagemRecord(List.of(), List.of());
     }
 
+    /**
+     * Recupera as mensagens da conversa entre um usuário e um destinatário enviadas depois do cursor.
+     * <p>
+     * As mensagens dos dois sentidos da conversa são consultadas por intervalo a partir do
+     * cursor, de modo que o custo é proporcional à quantidade de mensagens novas e não ao
+     * histórico da conversa.
+     *
+     * @param email        O e-mail do usuário que deseja recuperar as mensagens.
+     * @param destinatario O destinatário da conversa.
+     * @param cursor       Posição da mensagem mais recente já exibida.
+     * @param limite       Quantidade máxima de mensagens.
+     * @return As mensagens mais antigas posteriores ao cursor, em ordem cronológica, ou uma lista vazia
+     * se o usuário não for encontrado.
+     */
+    public List<MostarMensagemChat> mensagensPosteriores(@NotNull String email, @NotNull Destinatario destinatario,
+                                                         @NotNull CursorMensagemRecord cursor, int limite) {
+        Objects.requireNonNull(cursor, "O cursor não pode ser nulo!");
+        return conversa(email, destinatario, limite, false,
+                (remetente, destino) -> correio.mensagensPosteriores(remetente, destino, cursor, limite));
+    }
+
+    /**
+     * Recupera uma página do histórico da conversa entre um usuário e um destinatário,
+     * anterior ao cursor.
+     *
+     * @param email        O e-mail do usuário que deseja recuperar as mensagens.
+     * @param destinatario O destinatário da conversa.
+     * @param cursor       Posição da mensagem mais antiga já exibida, ou null para começar pelas mais recentes.
+     * @param limite       Quantidade máxima de mensagens.
+     * @return As mensagens mais recentes anteriores ao cursor, em ordem cronológica, ou uma lista vazia
+     * se o usuário não for encontrado.
+     */
+    public List<MostarMensagemChat> mensagensAnteriores(@NotNull String email, @NotNull Destinatario destinatario,
+                                                        CursorMensagemRecord cursor, int limite) {
+        return conversa(email, destinatario, limite, true,
+                (remetente, destino) -> correio.mensagensAnteriores(remetente, destino, cursor, limite));
+    }
+
     /**
      * Associa um remetente a um destinatário.
      * <p>
@@ -172,6 +215,47 @@ public class ChatModel {
         remetenteDestinatarioService.associar(remetente, destinatario);
     }
 
+    /**
+     * Consulta os dois sentidos da conversa e junta as mensagens em ordem cronológica,
+     * mantendo no máximo o limite informado.
+     *
+     * @param email        O e-mail do usuário.
+     * @param destinatario O destinatário da conversa.
+     * @param limite       Quantidade máxima de mensagens.
+     * @param recentes     true para manter as mensagens mais recentes, false para as mais antigas.
+     * @param consulta     A consulta de um sentido da conversa.
+     * @return As mensagens da conversa, ou uma lista vazia se o usuário não for encontrado.
+     */
+    private List<MostarMensagemChat> conversa(String email, Destinatario destinatario, int limite, boolean recentes,
+                                              BiFunction<Remetente, Destinatario, List<Mensagem>> consulta) {
+        validaEndereco(email, "email");
+        Objects.requireNonNull(destinatario, "Destinatario não pode ser nulo!");
+        validaEndereco(destinatario.endereco(), "destinatario");
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite de mensagens deve ser maior que zero!");
+        }
+
+        Optional<Usuario> usuario = usuarioService.buscaPorEmail(email);
+        if (usuario.isEmpty()) {
+            return List.of();
+        }
+
+        RemetenteRecord remetente = new RemetenteRecord(usuario.get().getNome(), usuario.get().getLogin().getEmail());
+        List<MostarMensagemChat> mensagens = new ArrayList<>();
+        consulta.apply(remetente, destinatario)
+                .forEach(mensagem -> mensagens.add(new MostarMensagemChat(mensagem, true)));
+        consulta.apply(new RemetenteRecord(destinatario.nome(), destinatario.endereco()),
+                        new DestinatarioRecord(remetente.nome(), remetente.endereco()))
+                .forEach(mensagem -> mensagens.add(new MostarMensagemChat(mensagem, false)));
+
+        mensagens.sort(ORDEM_CONVERSA);
+        if (mensagens.size() <= limite) {
+            return List.copyOf(mensagens);
+        }
+        return List.copyOf(recentes ? mensagens.subList(mensagens.size() - limite, mensagens.size())
+                : mensagens.subList(0, limite));
+    }
+
     /**
      * Este método verifica se o endereço não é nulo e se não contém apenas
      * espaços em branco. Se a validação falhar, uma exceção apropriada é lançada.
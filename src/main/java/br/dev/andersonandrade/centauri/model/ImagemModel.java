@@ -1,28 +1,46 @@
 package br.dev.andersonandrade.centauri.model;
 
-import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
 import br.dev.andersonandrade.centauri.interfaces.ImagemService;
-import br.dev.andersonandrade.centauri.uteis.CodigoUtil;
+import br.dev.andersonandrade.centauri.record.ImagemEmCacheRecord;
+import br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord;
+import br.dev.andersonandrade.centauri.service.CacheImagens;
+import br.dev.andersonandrade.centauri.service.ColetorImagensOrfas;
+import br.dev.andersonandrade.centauri.service.GeradorDerivadasImagem;
+import br.dev.andersonandrade.centauri.uteis.ArmazenamentoImagemUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Classe responsável por gerenciar o upload e o armazenamento de imagens associadas a publicações.
@@ -36,13 +54,33 @@ public class ImagemModel implements ImagemService {
 
     private static final Logger logger = LoggerFactory.getLogger(ImagemModel.class);
     private static final String[] SUPPORTED_EXTENSIONS = {"jpg", "jpeg", "png"};
+    private static final int TAMANHO_BLOCO = 8 * 1024;
+    private static final byte[] ASSINATURA_JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] ASSINATURA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
 
-    private final ResourceLoader resourceLoader;
+    /**
+     * Tamanho mínimo para enviar a imagem por sendfile, o mesmo usado pelo DefaultServlet
+     * do Tomcat; abaixo dele a cópia comum é mais barata que preparar o sendfile.
+     */
+    public static final long TAMANHO_MINIMO_SENDFILE = 48 * 1024;
+    public static final String SENDFILE_SUPORTADO = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+    private static final CacheControl CACHE_IMAGEM = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl CACHE_PROVISORIO = CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic();
+
+    private final CacheImagens cacheImagens;
+    private final GeradorDerivadasImagem geradorDerivadas;
+    private final long tamanhoMaximo;
     private final Path local;
 
     @Autowired
-    public ImagemModel(ResourceLoader resourceLoader) {
-        this.resourceLoader = resourceLoader;
+    public ImagemModel(CacheImagens cacheImagens, GeradorDerivadasImagem geradorDerivadas,
+                       @Value("${centauri.imagens.tamanho-maximo:10485760}") long tamanhoMaximo) {
+        this.cacheImagens = cacheImagens;
+        this.geradorDerivadas = geradorDerivadas;
+        this.tamanhoMaximo = tamanhoMaximo;
         this.local = getDefaultPath();
         criarPastas();
     }
@@ -53,12 +91,7 @@ public class ImagemModel implements ImagemService {
      * @return O caminho onde as imagens serão armazenadas.
      */
     public static Path getDefaultPath() {
-        Path pathDefault = Paths.get("/centauri-imagens/publicacao/");
-        if (Files.notExists(pathDefault, LinkOption.NOFOLLOW_LINKS)) {
-            String userHome = System.getProperty("user.home");
-            pathDefault = Paths.get(userHome, "/centauri-imagens/publicacao/");
-        }
-        return pathDefault;
+        return ArmazenamentoImagemUtil.pastaPadrao();
     }
 
     /**
@@ -75,68 +108,282 @@ public class ImagemModel implements ImagemService {
     }
 
     /**
-     * Faz o upload de uma imagem, verificando a extensão e o espaço disponível.
+     * Faz o upload de uma imagem, verificando a extensão e o espaço disponível, e agenda a
+     * geração das cópias reduzidas.
+     * <p>
+     * O arquivo é copiado em blocos para um arquivo temporário, sem carregar a imagem
+     * inteira na memória. Durante a cópia, o tamanho é limitado, o formato é conferido
+     * pelos primeiros bytes do conteúdo e o hash SHA-256 é calculado. Em seguida, as
+     * dimensões declaradas no cabeçalho são conferidas com o limite de pixels. O arquivo final é
+     * gravado pelo hash, conforme {@link ArmazenamentoImagemUtil}, por uma troca de nome
+     * atômica. Se a mesma imagem já foi enviada, por qualquer usuário ou na edição de uma
+     * publicação, o arquivo existente é reaproveitado e a sua data é renovada, para que o
+     * {@link ColetorImagensOrfas} não o remova antes de a publicação ser gravada.
      *
      * @param imagem Arquivo de imagem a ser enviado.
      * @return O caminho completo onde o arquivo foi salvo.
      */
     public String upload(MultipartFile imagem) {
-        final String codigo = CodigoUtil.gerarCodigo();
         String extensao = FilenameUtils.getExtension(imagem.getOriginalFilename()).toLowerCase();
 
         if (!isSupportedExtension(extensao)) {
             throw new RuntimeException("Formato de arquivo não suportado: " + extensao);
         }
 
+        if (imagem.getSize() > tamanhoMaximo) {
+            throw new RuntimeException("A imagem ultrapassa o tamanho máximo de " + tamanhoMaximo + " bytes.");
+        }
+
         if (!hasSufficientSpace(imagem.getSize())) {
             throw new RuntimeException("Espaço em disco insuficiente.");
         }
 
-        String caminhoData = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        Path diretorioPorData = local.resolve(caminhoData);
-        criarPastasDiretorio(diretorioPorData);
+        Path pastaTemporaria = local.resolve(ArmazenamentoImagemUtil.PASTA_TEMPORARIA);
+        criarPastasDiretorio(pastaTemporaria);
 
-        try (FileOutputStream output = new FileOutputStream(diretorioPorData + "/" + codigo + "." + extensao)) {
-            output.write(imagem.getBytes());
-            return diretorioPorData.toString().concat("/" + codigo + ".").concat(extensao);
+        Path temporario = null;
+        try (InputStream entrada = imagem.getInputStream()) {
+            temporario = Files.createTempFile(pastaTemporaria, "upload-", ".tmp");
+            String hash = gravar(entrada, extensao, temporario);
+            conferirDimensoes(temporario, extensao);
+            Path destino = ArmazenamentoImagemUtil.caminho(local, hash, extensao);
+            criarPastasDiretorio(destino.getParent());
+            if (!reaproveitar(destino)) {
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temporario = null;
+            }
+            geradorDerivadas.gerar(destino);
+            return destino.toString();
         } catch (IOException e) {
             throw new RuntimeException("Erro ao carregar imagem " + e);
+        } finally {
+            removerTemporario(temporario);
         }
     }
 
     /**
-     * Retorna a imagem associada a uma publicação, com tratamento de erros.
+     * Renova a data da imagem já gravada com o mesmo conteúdo. Se o
+     * {@link ColetorImagensOrfas} tirou o arquivo do lugar antes da renovação, a imagem
+     * não é reaproveitada, e o upload grava o seu próprio arquivo; se tirou depois, a data
+     * renovada faz o coletor devolvê-lo.
      *
-     * @param publicacao Publicacao que contém a URL da imagem.
-     * @return ResponseEntity com a imagem ou uma mensagem de erro.
+     * @return true se a imagem existente foi reaproveitada.
+     */
+    private static boolean reaproveitar(Path destino) throws IOException {
+        try {
+            Files.setLastModifiedTime(destino, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Copia o conteúdo para o arquivo em blocos de {@value #TAMANHO_BLOCO} bytes, conferindo
+     * o formato no primeiro bloco e o tamanho a cada bloco.
+     *
+     * @return O hash SHA-256 do conteúdo, em hexadecimal.
+     */
+    private String gravar(InputStream entrada, String extensao, Path destino) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] bloco = new byte[TAMANHO_BLOCO];
+        try (OutputStream saida = Files.newOutputStream(destino)) {
+            int lidos = entrada.readNBytes(bloco, 0, bloco.length);
+            if (!formatoConfere(bloco, lidos, extensao)) {
+                throw new RuntimeException("O conteúdo do arquivo não é uma imagem " + extensao);
+            }
+            long total = 0;
+            while (lidos > 0) {
+                total += lidos;
+                if (total > tamanhoMaximo) {
+                    throw new RuntimeException("A imagem ultrapassa o tamanho máximo de " + tamanhoMaximo + " bytes.");
+                }
+                digest.update(bloco, 0, lidos);
+                saida.write(bloco, 0, lidos);
+                lidos = entrada.read(bloco);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Confere, pelo cabeçalho e sem decodificar a imagem, se a largura vezes a altura está
+     * dentro do limite de pixels. Um arquivo pequeno e muito comprimido pode declarar
+     * dimensões cuja decodificação não caberia na memória.
      */
-    public ResponseEntity<?> imagemPublicacao(Publicacao publicacao) {
-        if (publicacao == null) {
+    private void conferirDimensoes(Path arquivo, String extensao) throws IOException {
+        long pixels = geradorDerivadas.pixels(arquivo);
+        if (pixels < 0) {
+            throw new RuntimeException("O conteúdo do arquivo não é uma imagem " + extensao);
+        }
+        if (pixels > geradorDerivadas.getMaximoPixels()) {
+            throw new RuntimeException("A imagem ultrapassa o máximo de " + geradorDerivadas.getMaximoPixels()
+                    + " pixels.");
+        }
+    }
+
+    /**
+     * Confere a assinatura do início do arquivo com o formato indicado pela extensão.
+     */
+    private static boolean formatoConfere(byte[] inicio, int tamanho, String extensao) {
+        byte[] assinatura = "png".equals(extensao) ? ASSINATURA_PNG : ASSINATURA_JPEG;
+        return tamanho >= assinatura.length
+                && Arrays.equals(inicio, 0, assinatura.length, assinatura, 0, assinatura.length);
+    }
+
+    private void removerTemporario(Path temporario) {
+        if (temporario == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}", temporario, e);
+        }
+    }
+
+    /**
+     * Retorna o tipo de conteúdo da imagem pela extensão do arquivo, já validada no upload,
+     * para ser gravado junto com a publicação em vez de descoberto a cada download.
+     *
+     * @param caminho O caminho do arquivo da imagem.
+     * @return O tipo de conteúdo da imagem.
+     */
+    public String tipoDaImagem(String caminho) {
+        return switch (FilenameUtils.getExtension(caminho).toLowerCase()) {
+            case "jpg", "jpeg" -> MediaType.IMAGE_JPEG_VALUE;
+            case "png" -> MediaType.IMAGE_PNG_VALUE;
+            default -> MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        };
+    }
+
+    /**
+     * Retorna a imagem de uma publicação, da memória ou do arquivo.
+     * <p>
+     * Quando uma largura é pedida, é servida a menor cópia reduzida que a atende, gerada
+     * pelo {@link GeradorDerivadasImagem}. Se a cópia ainda não existir, a original é
+     * servida com um cache curto no navegador e a geração da cópia é pedida novamente.
+     * <p>
+     * As imagens mais acessadas ficam no {@link CacheImagens}, e a leitura delas não consulta
+     * a base de dados nem o disco. Nas demais, o local da imagem é buscado na base de dados e
+     * o arquivo é lido; as imagens pequenas o bastante são guardadas no cache.
+     * <p>
+     * A imagem de uma publicação nunca muda, pois editar a publicação cria outra, então a
+     * resposta leva um ETag forte, o hash do conteúdo que dá nome ao arquivo ou, nas imagens
+     * gravadas antes do armazenamento por conteúdo, o tamanho e a data do arquivo, e pode ficar
+     * no cache do navegador por um ano. Requisições condicionais recebem 304 sem ler o
+     * arquivo e requisições com {@code Range} recebem somente o trecho pedido, montado pelo
+     * Spring a partir do recurso da resposta.
+     * <p>
+     * No Tomcat, os downloads completos a partir de {@value #TAMANHO_MINIMO_SENDFILE} bytes
+     * que não cabem no cache são entregues ao conector por sendfile, que copia o arquivo
+     * para o socket com {@code FileChannel.transferTo}, a partir do cache de páginas do
+     * sistema operacional, sem passar os bytes pela aplicação nem prender a thread da
+     * requisição.
+     *
+     * @param idPublicacao O id da publicação.
+     * @param largura      A largura pedida, em pixels, ou null para a imagem original.
+     * @param buscar       A consulta do local e do tipo da imagem, que retorna null se a
+     *                     publicação não existir.
+     * @param requisicao   A requisição, usada nas verificações condicionais e no sendfile.
+     * @return ResponseEntity com a imagem ou uma mensagem de erro, ou null se a resposta
+     * 304 já foi preparada.
+     */
+    public ResponseEntity<?> imagemPublicacao(Long idPublicacao, Integer largura,
+                                              Supplier<ImagemPublicacaoRecord> buscar, ServletWebRequest requisicao) {
+        LarguraImagem tamanho = LarguraImagem.para(largura);
+        ImagemEmCacheRecord emCache = cacheImagens.buscar(idPublicacao, tamanho);
+        if (emCache != null) {
+            return responder(emCache, CACHE_IMAGEM, requisicao);
+        }
+
+        ImagemPublicacaoRecord imagem = buscar.get();
+        if (imagem == null) {
             return ResponseEntity.badRequest().body("Publicacao não encontrada!.");
         }
 
-        String imagePath = "file://" + publicacao.getUrlImagem();
+        Path arquivo = Paths.get(imagem.urlImagem());
+        CacheControl cacheControl = CACHE_IMAGEM;
+        if (tamanho != null) {
+            Path derivada = tamanho.caminho(arquivo);
+            if (Files.exists(derivada)) {
+                arquivo = derivada;
+            } else {
+                geradorDerivadas.gerar(arquivo);
+                tamanho = null;
+                cacheControl = CACHE_PROVISORIO;
+            }
+        }
 
         try {
-            Resource file = resourceLoader.getResource(imagePath);
-            if (!file.exists()) {
-                return ResponseEntity.badRequest().body("Não foi possível encontrar a imagem.");
+            BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+            long tamanhoArquivo = atributos.size();
+            long ultimaAlteracao = atributos.lastModifiedTime().toMillis();
+            String identificador = ArmazenamentoImagemUtil.identificador(arquivo);
+            String etag = "\"" + (identificador != null ? identificador
+                    : Long.toHexString(ultimaAlteracao) + "-" + Long.toHexString(tamanhoArquivo)) + "\"";
+            String tipo = imagem.tipoImagem() != null ? imagem.tipoImagem() : tipoDaImagem(imagem.urlImagem());
+
+            if (cacheImagens.admite(tamanhoArquivo)) {
+                emCache = new ImagemEmCacheRecord(Files.readAllBytes(arquivo), tipo, etag, ultimaAlteracao);
+                cacheImagens.guardar(idPublicacao, tamanho, emCache);
+                return responder(emCache, cacheControl, requisicao);
             }
 
-            String contentType = Files.probeContentType(file.getFile().toPath());
-            if (contentType == null) {
-                contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            requisicao.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            if (requisicao.checkNotModified(etag, ultimaAlteracao)) {
+                return null;
             }
+            ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().contentType(MediaType.parseMediaType(tipo));
+            if (requisicao.getHeader(HttpHeaders.RANGE) == null && enviarPorSendfile(requisicao, arquivo, tamanhoArquivo)) {
+                return resposta.contentLength(tamanhoArquivo).build();
+            }
+            return resposta.body(new FileSystemResource(arquivo));
+        } catch (IOException e) {
+            logger.error("Erro ao carregar a imagem {}", arquivo, e);
+            return ResponseEntity.badRequest().body("Não foi possível encontrar a imagem.");
+        }
+    }
+
+    /**
+     * Remove a imagem da publicação do cache em memória.
+     *
+     * @param idPublicacao O id da publicação.
+     */
+    public void descartar(Long idPublicacao) {
+        cacheImagens.invalidar(idPublicacao);
+    }
 
-            return ResponseEntity.ok()
-                    .contentLength(file.contentLength())
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(new InputStreamResource(file.getInputStream()));
+    private ResponseEntity<?> responder(ImagemEmCacheRecord imagem, CacheControl cacheControl,
+                                        ServletWebRequest requisicao) {
+        requisicao.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (requisicao.checkNotModified(imagem.etag(), imagem.ultimaAlteracao())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(imagem.tipoImagem()))
+                .body(new ByteArrayResource(imagem.bytes()));
+    }
 
-        } catch (Exception e) {
-            logger.error("Erro ao carregar a imagem", e);
-            return ResponseEntity.badRequest().body("Não foi possível encontrar a imagem.");
+    /**
+     * Pede ao Tomcat que envie o arquivo inteiro por sendfile, quando o conector oferece
+     * o recurso e a requisição é um GET de arquivo grande o bastante.
+     */
+    private boolean enviarPorSendfile(ServletWebRequest requisicao, Path arquivo, long tamanho) {
+        HttpServletRequest request = requisicao.getRequest();
+        if (tamanho < TAMANHO_MINIMO_SENDFILE || !HttpMethod.GET.matches(request.getMethod())
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTADO))) {
+            return false;
         }
+        request.setAttribute(SENDFILE_ARQUIVO, arquivo.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_INICIO, 0L);
+        request.setAttribute(SENDFILE_FIM, tamanho);
+        return true;
     }
 
     /**
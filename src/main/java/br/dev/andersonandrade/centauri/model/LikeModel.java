@@ -1,78 +1,56 @@
 package br.dev.andersonandrade.centauri.model;
 
-import br.dev.andersonandrade.centauri.entity.Likes;
-import br.dev.andersonandrade.centauri.entity.Usuario;
-import br.dev.andersonandrade.centauri.repository.LikeRepository;
-import jakarta.transaction.Transactional;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
+import br.dev.andersonandrade.centauri.service.AgregadorLikes;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
 
 @Component
 public class LikeModel {
 
-    private final LikeRepository likeRepository;
+    private final AgregadorLikes agregadorLikes;
 
 
     @Autowired
-    public LikeModel(LikeRepository likeRepository) {
-        this.likeRepository = likeRepository;
+    public LikeModel(AgregadorLikes agregadorLikes) {
+        this.agregadorLikes = agregadorLikes;
     }
 
-    @Transactional
+    /**
+     * Soma um like à publicação.
+     * <p>
+     * O like é acumulado pelo {@link AgregadorLikes} e gravado em lote junto com os
+     * demais cliques do período, sem abrir uma transação por clique.
+     *
+     * @param idDaPublicacao O id da publicação.
+     * @throws RuntimeException se a publicação não existir.
+     */
     public void adicionarLike(Long idDaPublicacao) {
-        Optional<Likes> temLike = likeRepository.findAll().stream()
-                .filter(like -> Objects.equals(like.getPublicacao().getId(), idDaPublicacao))
-                .findFirst();
-        if (temLike.isPresent()) {
-            Likes likeExiste = temLike.get();
-            likeExiste.setQtdPositivo(likeExiste.likePostivo());
-            likeRepository.save(likeExiste);
-        } else {
-            throw new RuntimeException("Erro na função do like ");
-        }
+        agregadorLikes.registrarLike(idDaPublicacao);
     }
 
-
-    @Transactional
+    /**
+     * Registra um dislike na publicação, retirando um like sem deixar o número negativo.
+     * <p>
+     * Assim como o like, o dislike é acumulado e gravado em lote pelo {@link AgregadorLikes}.
+     *
+     * @param idDaPublicacao O id da publicação.
+     */
     public void dislike(Long idDaPublicacao) {
-        Optional<Likes> temLike = likeRepository.findAll().stream()
-                .filter(like -> Objects.equals(like.getPublicacao().getId(), idDaPublicacao))
-                .findFirst();
-
-        if (temLike.isPresent()) {
-            Likes likeExiste = temLike.get();
-            int novosLikes = likeExiste.getQtdPositivo() - 1;
-            if (novosLikes < 0) {
-                novosLikes = 0; // pro numero não ficar negativo na tabela likes
-            }
-            likeExiste.setQtdPositivo(novosLikes);
-            int novosDislikes = likeExiste.getQtdNegativo() + 1;
-            likeExiste.setQtdNegativo(novosDislikes);
-            likeRepository.save(likeExiste);
-        }
-    }
-
-    public List<Likes> listaRank() {
-        List<Likes> likes = likeRepository.findAllOrderByQtdPositivo();
-        if (likes.isEmpty()) {
-            return List.of();
-        }
-        return likes;
-    }
-
-    public List<Likes> buscaPorUsuario(Usuario usuario) {
-        List<Likes> likes = likeRepository.findByLikesPorUsuario(usuario);
-        if (likes.isEmpty()) {
-            return List.of();
-        }
-        return likes;
+        agregadorLikes.registrarDislike(idDaPublicacao);
     }
 
-    public void salvar(Likes likes) {
-        likeRepository.save(likes);
+    /**
+     * Soma às publicações lidas da base de dados os likes e dislikes ainda não gravados.
+     *
+     * @param publicacoes As publicações com os likes gravados.
+     * @return As publicações, na mesma ordem, com os cliques pendentes somados.
+     */
+    public List<PublicacaoUsuarioRecord> somarPendentes(List<PublicacaoUsuarioRecord> publicacoes) {
+        return publicacoes.stream()
+                .map(publicacao -> publicacao.comPendentes(agregadorLikes.pendente(publicacao.id())))
+                .toList();
     }
 }
@@ -4,6 +4,7 @@ import br.dev.andersonandrade.centauri.beans.CaixaMensagem;
 import br.dev.andersonandrade.centauri.entity.MensagemUsuario;
 import br.dev.andersonandrade.centauri.entity.Usuario;
 import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.repository.MensagemUsuarioRepository;
 import br.dev.andersonandrade.centauri.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -18,11 +19,13 @@ import java.util.Optional;
 public class MensagemModel {
 
     private final UsuarioService usuarioService;
+    private final MensagemUsuarioRepository mensagemUsuarioRepository;
 
 
     @Autowired
-    public MensagemModel(UsuarioService usuarioService) {
+    public MensagemModel(UsuarioService usuarioService, MensagemUsuarioRepository mensagemUsuarioRepository) {
         this.usuarioService = usuarioService;
+        this.mensagemUsuarioRepository = mensagemUsuarioRepository;
     }
 
     public void enviar(Usuario usuario, String mensagem) {
@@ -44,19 +47,19 @@ public class MensagemModel {
             return List.of(new MensagemUsuario(null, "Você não tem mensagens!"));
     }
 
+    /**
+     * Monta a caixa com as mensagens do sistema ainda não lidas pelo usuário, buscadas
+     * diretamente pelo id do usuário, sem carregar novamente o usuário e a sua lista
+     * completa de mensagens.
+     *
+     * @param usuario O usuário já carregado.
+     * @return A caixa de mensagens do usuário.
+     */
     @Transactional(propagation = Propagation.REQUIRED, readOnly = true, noRollbackFor = Exception.class)
     public CaixaMensagem criaCaixaMensagem(Usuario usuario) {
-        Optional<Usuario> usuarioBanco = usuarioService.buscarPorCodigo(usuario.getCodigo());
-
-        if(usuarioBanco.isPresent()) {
-
-            List<MensagemUsuario> mensagemSistema = usuarioBanco.get().getMessagesSystem();
-                  mensagemSistema.stream()
-                    .filter(m -> !m.isLida()).toList();
-
-            if (!mensagemSistema.isEmpty()) {
-                return new CaixaMensagem(List.copyOf(mensagemSistema), usuario);
-            }
+        List<MensagemUsuario> naoLidas = mensagemUsuarioRepository.findNaoLidas(usuario.getId());
+        if (!naoLidas.isEmpty()) {
+            return new CaixaMensagem(List.copyOf(naoLidas), usuario);
         }
         return new CaixaMensagem(List.of(new MensagemUsuario(null, "Você não tem mensagens!")), usuario);
     }
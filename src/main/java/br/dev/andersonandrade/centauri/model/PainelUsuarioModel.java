@@ -0,0 +1,72 @@
+package br.dev.andersonandrade.centauri.model;
+
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PainelUsuarioRecord;
+import br.dev.andersonandrade.centauri.repository.UsuarioRepository;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Classe PainelUsuarioModel
+ * <p>
+ * Carrega tudo o que a página do usuário exibe com um número fixo de consultas,
+ * independente da quantidade de publicações e mensagens: o usuário com o login e o
+ * histórico em um só SELECT, as mensagens do sistema não lidas, uma página das
+ * publicações com os likes em uma projeção e a quantidade de publicações do usuário.
+ * <p>
+ * As consultas rodam na mesma transação, para que o usuário de cada mensagem seja o
+ * mesmo já carregado no contexto de persistência, sem um SELECT a mais.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class PainelUsuarioModel {
+
+    private final UsuarioRepository usuarioRepository;
+    private final MensagemModel mensagemModel;
+    private final PublicacaoModel publicacaoModel;
+    private final int tamanhoPagina;
+
+    /**
+     * Construtor do painel do usuário.
+     *
+     * @param usuarioRepository O repositório dos usuários.
+     * @param mensagemModel     O model das mensagens do sistema.
+     * @param publicacaoModel   O model das publicações.
+     * @param tamanhoPagina     Quantidade de publicações exibidas por página.
+     */
+    @Autowired
+    public PainelUsuarioModel(UsuarioRepository usuarioRepository, MensagemModel mensagemModel,
+                              PublicacaoModel publicacaoModel,
+                              @Value("${centauri.painel.tamanho-pagina:20}") int tamanhoPagina) {
+        if (tamanhoPagina <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+        }
+        this.usuarioRepository = usuarioRepository;
+        this.mensagemModel = mensagemModel;
+        this.publicacaoModel = publicacaoModel;
+        this.tamanhoPagina = tamanhoPagina;
+    }
+
+    /**
+     * Carrega os dados da página do usuário autenticado.
+     *
+     * @param email  O e-mail do usuário autenticado.
+     * @param cursor A última publicação exibida, ou null para a primeira página.
+     * @return Os dados da página, ou Optional vazio se o usuário não for encontrado.
+     */
+    @Transactional(readOnly = true)
+    public Optional<PainelUsuarioRecord> carregar(@NotNull String email, CursorPublicacaoRecord cursor) {
+        return usuarioRepository.findByLogin_Email(email)
+                .map(usuario -> new PainelUsuarioRecord(usuario, mensagemModel.criaCaixaMensagem(usuario),
+                        publicacaoModel.paginaDoAutor(usuario.getId(), cursor, tamanhoPagina),
+                        publicacaoModel.quantidadeDoAutor(usuario.getId())));
+    }
+}
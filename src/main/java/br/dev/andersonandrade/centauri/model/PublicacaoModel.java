@@ -1,21 +1,34 @@
 package br.dev.andersonandrade.centauri.model;
 
 
-import br.dev.andersonandrade.centauri.beans.LikePublicacao;
-import br.dev.andersonandrade.centauri.entity.Likes;
 import br.dev.andersonandrade.centauri.entity.Publicacao;
 import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.enumeradores.OrdemPublicacoes;
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PaginaPublicacoesRecord;
+import br.dev.andersonandrade.centauri.record.PaginaPublicacoesUsuarioRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
 import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import br.dev.andersonandrade.centauri.service.RankingPublicacoes;
 import br.dev.andersonandrade.centauri.service.UsuarioService;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 @Component
@@ -25,15 +38,20 @@ public class PublicacaoModel {
     private final UsuarioService usuarioService;
     private final ImagemModel imagemModel;
     private final LikeModel likeModel;
+    private final RankingPublicacoes rankingPublicacoes;
+    private final EntityManager entityManager;
 
 
     @Autowired
     public PublicacaoModel(PublicacaoRepository publicacaoRepository, UsuarioService usuarioService,
-                           ImagemModel imagemModel, LikeModel likeModel) {
+                           ImagemModel imagemModel, LikeModel likeModel, RankingPublicacoes rankingPublicacoes,
+                           EntityManager entityManager) {
         this.publicacaoRepository = publicacaoRepository;
         this.usuarioService = usuarioService;
         this.imagemModel = imagemModel;
         this.likeModel = likeModel;
+        this.rankingPublicacoes = rankingPublicacoes;
+        this.entityManager = entityManager;
     }
 
     @Transactional
@@ -44,27 +62,64 @@ public class PublicacaoModel {
         if (usuarioBanco.isPresent()) {
             LocalDateTime dataPublicacao = LocalDateTime.now();
             Publicacao publicacao = new Publicacao(usuarioBanco.get(), urlImagem, texto, dataPublicacao, true);
-            Likes like = new Likes(publicacao);
-
-            likeModel.salvar(like);
+            publicacao.setTipoImagem(imagemModel.tipoDaImagem(urlImagem));
 
             publicacaoRepository.save(publicacao);
-
+            rankingPublicacoes.adicionar(publicacao);
 
         } else {
             throw new IllegalArgumentException("Usuário não encontrado!");
         }
     }
 
-    public List<Publicacao> buscarPorData(LocalDateTime dataInicial, LocalDateTime dataFinal) {
-        Stream<Publicacao> stream = publicacaoRepository.findAll()
-                .stream()
-                .filter(publicacao -> publicacao.getDataPublicacao().isEqual(dataFinal))
-                .filter(publicacao -> publicacao.getDataPublicacao().isEqual(dataInicial))
-                .filter(publicacao -> publicacao.getDataPublicacao().isAfter(dataInicial))
-                .filter(publicacao -> publicacao.getDataPublicacao().isBefore(dataFinal))
-                .filter(Publicacao::isAtiva);
-        return stream.toList();
+    /**
+     * Retorna uma página das publicações ativas do período, da mais recente para a mais antiga.
+     *
+     * @param dataInicial O início do período, inclusive.
+     * @param dataFinal   O fim do período, inclusive.
+     * @param pagina      A página desejada.
+     * @return As publicações da página.
+     */
+    public Slice<Publicacao> buscarPorData(@NotNull LocalDateTime dataInicial, @NotNull LocalDateTime dataFinal,
+                                           @NotNull Pageable pagina) {
+        validarPeriodo(dataInicial, dataFinal);
+        return publicacaoRepository.findAtivasEntre(dataInicial, dataFinal, pagina);
+    }
+
+    /**
+     * Percorre todas as publicações ativas do período, da mais recente para a mais antiga,
+     * lendo-as da base de dados em fluxo, para páginas de arquivo e exportações.
+     * <p>
+     * O contexto de persistência é limpo a cada lote lido, para que o consumo de memória
+     * não cresça com o tamanho do período; as publicações entregues ao consumidor não
+     * devem ser guardadas nem alteradas.
+     *
+     * @param dataInicial O início do período, inclusive.
+     * @param dataFinal   O fim do período, inclusive.
+     * @param consumidor  Recebe cada publicação lida.
+     * @return A quantidade de publicações percorridas.
+     */
+    @Transactional(readOnly = true)
+    public long percorrerPorData(@NotNull LocalDateTime dataInicial, @NotNull LocalDateTime dataFinal,
+                                 @NotNull Consumer<Publicacao> consumidor) {
+        validarPeriodo(dataInicial, dataFinal);
+        long quantidade = 0;
+        try (Stream<Publicacao> publicacoes = publicacaoRepository.streamAtivasEntre(dataInicial, dataFinal)) {
+            Iterator<Publicacao> iterador = publicacoes.iterator();
+            while (iterador.hasNext()) {
+                consumidor.accept(iterador.next());
+                if (++quantidade % PublicacaoRepository.TAMANHO_LOTE_LEITURA == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return quantidade;
+    }
+
+    private static void validarPeriodo(LocalDateTime dataInicial, LocalDateTime dataFinal) {
+        if (dataInicial.isAfter(dataFinal)) {
+            throw new IllegalArgumentException("A data inicial deve ser anterior à data final");
+        }
     }
 
     public List<Publicacao> listaTodas() {
@@ -73,9 +128,54 @@ public class PublicacaoModel {
 
     }
 
-    public List<Publicacao> listaUsuario(Usuario usuario) {
-        LikePublicacao likePublicacoes = new LikePublicacao(likeModel.buscaPorUsuario(usuario));
-        return likePublicacoes != null ? likePublicacoes.getPublicacoes() : List.of();
+    /**
+     * Retorna uma página das publicações ativas do autor, em ordem decrescente de likes,
+     * paginada por chave e lida como projeção a partir do índice do autor.
+     * <p>
+     * O cursor é montado com os likes gravados na base de dados, antes de somar os cliques
+     * pendentes, para que a próxima página continue exatamente onde a consulta parou.
+     *
+     * @param idUsuario O id do autor.
+     * @param cursor    A última publicação exibida, ou null para a primeira página.
+     * @param limite    Quantidade máxima de publicações da página.
+     * @return As publicações da página e o cursor da próxima.
+     */
+    public PaginaPublicacoesUsuarioRecord paginaDoAutor(@NotNull Long idUsuario, CursorPublicacaoRecord cursor,
+                                                        int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite de publicações deve ser maior que zero");
+        }
+        Pageable pagina = PageRequest.of(0, limite);
+        Slice<PublicacaoUsuarioRecord> publicacoes = cursor == null
+                ? publicacaoRepository.findDoAutor(idUsuario, pagina)
+                : publicacaoRepository.findDoAutorAbaixoDe(idUsuario, cursor.likes(), cursor.id(), pagina);
+        List<PublicacaoUsuarioRecord> lista = publicacoes.getContent();
+        CursorPublicacaoRecord proxima = null;
+        if (publicacoes.hasNext() && !lista.isEmpty()) {
+            PublicacaoUsuarioRecord ultima = lista.get(lista.size() - 1);
+            proxima = new CursorPublicacaoRecord(null, ultima.likes(), ultima.id());
+        }
+        return new PaginaPublicacoesUsuarioRecord(likeModel.somarPendentes(lista), proxima);
+    }
+
+    /**
+     * Retorna a quantidade de publicações ativas do autor.
+     *
+     * @param idUsuario O id do autor.
+     * @return A quantidade de publicações ativas.
+     */
+    public long quantidadeDoAutor(@NotNull Long idUsuario) {
+        return publicacaoRepository.countAtivasDoAutor(idUsuario);
+    }
+
+    /**
+     * Busca o local e o tipo da imagem da publicação, sem carregar a publicação.
+     *
+     * @param id O id da publicação.
+     * @return A imagem da publicação, ou Optional vazio se a publicação não existir.
+     */
+    public Optional<ImagemPublicacaoRecord> buscaImagem(@NotNull Long id) {
+        return publicacaoRepository.findImagem(id);
     }
 
     public Publicacao buscaId(Long id) {
@@ -88,6 +188,8 @@ public class PublicacaoModel {
         Publicacao publicacaoBanco = publicacaoRepository.findById(idPublicacao).orElse(null);
         try {
             publicacaoBanco.setAtiva(false);
+            rankingPublicacoes.remover(idPublicacao);
+            imagemModel.descartar(idPublicacao);
             salvarPublicacao(publicacaoBanco.getUsuario(), texto, imagem);
         } catch (NullPointerException e) {
             throw new RuntimeException("Erro na busca do banco! " + e);
@@ -101,21 +203,77 @@ public class PublicacaoModel {
                 .ifPresent(publicacao -> {
                     publicacao.setAtiva(false);
                     publicacaoRepository.save(publicacao);
+                    rankingPublicacoes.remover(idPublicacao);
+                    imagemModel.descartar(idPublicacao);
                 });
     }
 
 
-    public List<Publicacao> listaRank() {
-        LikePublicacao likesPublicacoes = new LikePublicacao(likeModel.listaRank());
-        return likesPublicacoes.getPublicacoes();
+    /**
+     * Retorna as publicações mais curtidas, lidas do ranking mantido em memória.
+     *
+     * @return As publicações em ordem decrescente de likes.
+     */
+    public List<PublicacaoResumoRecord> listaRank() {
+        return rankingPublicacoes.primeiras();
+    }
+
+    /**
+     * Retorna a versão do ranking das publicações, alterada somente quando a exibição das
+     * mais curtidas muda.
+     *
+     * @return A versão atual do ranking.
+     */
+    public long versaoRanking() {
+        return rankingPublicacoes.versao();
     }
 
-    public LikePublicacao rankComLike() {
-        return new LikePublicacao(likeModel.listaRank());
+    /**
+     * Retorna uma página do feed de publicações ativas, paginado por chave.
+     * <p>
+     * No feed das mais curtidas, as páginas cobertas pelo ranking em memória não consultam
+     * a base de dados; as demais, e todas as do feed das mais recentes, são lidas a partir
+     * do cursor, com custo constante independente da quantidade de publicações.
+     *
+     * @param ordem  A ordem do feed.
+     * @param cursor A última publicação exibida, ou null para a primeira página.
+     * @param limite Quantidade máxima de publicações da página.
+     * @return As publicações da página e o cursor da próxima.
+     */
+    public PaginaPublicacoesRecord pagina(@NotNull OrdemPublicacoes ordem, CursorPublicacaoRecord cursor, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite de publicações deve ser maior que zero");
+        }
+        if (ordem == OrdemPublicacoes.RECENTES) {
+            if (cursor != null && cursor.dataPublicacao() == null) {
+                throw new IllegalArgumentException("O cursor do feed das mais recentes exige a data da publicação");
+            }
+            Pageable pagina = PageRequest.of(0, limite);
+            return pagina(new ArrayList<>(), cursor == null ? publicacaoRepository.findRecentes(pagina)
+                    : publicacaoRepository.findRecentesAntesDe(cursor.dataPublicacao(), cursor.id(), pagina));
+        }
+
+        List<PublicacaoResumoRecord> publicacoes = new ArrayList<>(rankingPublicacoes.apos(cursor, limite + 1));
+        boolean completo = rankingPublicacoes.completo();
+        if (publicacoes.size() >= limite || completo) {
+            boolean temMais = publicacoes.size() > limite || !completo;
+            List<PublicacaoResumoRecord> lista = publicacoes.subList(0, Math.min(limite, publicacoes.size()));
+            return new PaginaPublicacoesRecord(List.copyOf(lista),
+                    temMais && !lista.isEmpty() ? CursorPublicacaoRecord.de(lista.get(lista.size() - 1)) : null);
+        }
+        CursorPublicacaoRecord ultima = publicacoes.isEmpty() ? cursor
+                : CursorPublicacaoRecord.de(publicacoes.get(publicacoes.size() - 1));
+        Pageable pagina = PageRequest.of(0, limite - publicacoes.size());
+        return pagina(publicacoes, ultima == null ? publicacaoRepository.findMaisCurtidas(pagina)
+                : publicacaoRepository.findMaisCurtidasAbaixoDe(ultima.likes(), ultima.id(), pagina));
     }
 
-    public LikePublicacao rankComLike(Usuario usuario) {
-        return new LikePublicacao(likeModel.buscaPorUsuario(usuario));
+    private PaginaPublicacoesRecord pagina(List<PublicacaoResumoRecord> publicacoes,
+                                           Slice<PublicacaoResumoRecord> restantes) {
+        publicacoes.addAll(restantes.getContent());
+        CursorPublicacaoRecord proxima = restantes.hasNext() && !publicacoes.isEmpty()
+                ? CursorPublicacaoRecord.de(publicacoes.get(publicacoes.size() - 1)) : null;
+        return new PaginaPublicacoesRecord(List.copyOf(publicacoes), proxima);
     }
 
     public void adicionarLike(@NotNull Long idPublicacao) {
@@ -0,0 +1,20 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.interfaces.Destinatario;
+import br.dev.andersonandrade.centauri.interfaces.Remetente;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Identifica um sentido de uma conversa pelo par ordenado de endereços.
+ * <p>
+ * As mensagens de A para B e de B para A têm chaves diferentes.
+ *
+ * @param remetente    O endereço do remetente.
+ * @param destinatario O endereço do destinatário.
+ */
+public record ChaveConversaRecord(@NotNull String remetente, @NotNull String destinatario) {
+
+    public static ChaveConversaRecord de(Remetente remetente, Destinatario destinatario) {
+        return new ChaveConversaRecord(remetente.endereco(), destinatario.endereco());
+    }
+}
@@ -0,0 +1,32 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+
+/**
+ * Limiares de escoamento de uma fila de prioridade do correio.
+ *
+ * @param lote             Quantidade de mensagens que dispara a gravação imediata do lote.
+ * @param latenciaMaximaMs Tempo máximo, em milissegundos, que a primeira mensagem do lote
+ *                         aguarda antes de o lote ser gravado, mesmo incompleto.
+ */
+public record ConfiguracaoFilaRecord(int lote, long latenciaMaximaMs) {
+
+    public ConfiguracaoFilaRecord {
+        if (lote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero");
+        }
+        if (latenciaMaximaMs < 0) {
+            throw new IllegalArgumentException("A latência máxima não pode ser negativa");
+        }
+    }
+
+    /**
+     * Cria a configuração com os valores padrão da prioridade.
+     *
+     * @param prioridade A prioridade da fila.
+     * @return A configuração padrão da prioridade.
+     */
+    public static ConfiguracaoFilaRecord padrao(Prioridade prioridade) {
+        return new ConfiguracaoFilaRecord(prioridade.getLotePadrao(), prioridade.getLatenciaMaximaPadraoMs());
+    }
+}
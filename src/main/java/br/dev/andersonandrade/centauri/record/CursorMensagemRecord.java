@@ -0,0 +1,18 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição de leitura dentro de uma conversa, usada na paginação por chave (keyset).
+ * <p>
+ * A ordem das mensagens é definida pela data de envio e, em caso de empate,
+ * pelo id gerado na base de dados. Uma mensagem que ainda não foi armazenada não tem id;
+ * nesse caso o cursor considera somente a data de envio.
+ *
+ * @param dataEnvio Data de envio da última mensagem lida.
+ * @param id        Id da última mensagem lida, ou null se ela ainda não foi armazenada.
+ */
+public record CursorMensagemRecord(@NotNull LocalDateTime dataEnvio, Long id) {
+}
@@ -0,0 +1,22 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição de leitura dentro do feed de publicações, usada na paginação por chave (keyset).
+ * <p>
+ * No feed das mais recentes a ordem é definida pela data da publicação e, no feed das
+ * mais curtidas, pela quantidade de likes; em ambos o empate é resolvido pelo id.
+ *
+ * @param dataPublicacao Data da última publicação exibida.
+ * @param likes          Likes da última publicação exibida.
+ * @param id             Id da última publicação exibida.
+ */
+public record CursorPublicacaoRecord(LocalDateTime dataPublicacao, int likes, @NotNull Long id) {
+
+    public static CursorPublicacaoRecord de(@NotNull PublicacaoResumoRecord publicacao) {
+        return new CursorPublicacaoRecord(publicacao.dataPublicacao(), publicacao.likes(), publicacao.id());
+    }
+}
@@ -0,0 +1,13 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Likes e dislikes de uma publicação acumulados em memória desde a última gravação.
+ *
+ * @param idPublicacao O id da publicação.
+ * @param likes        Quantidade de likes acumulados.
+ * @param dislikes     Quantidade de dislikes acumulados.
+ */
+public record DeltaLikeRecord(@NotNull Long idPublicacao, long likes, long dislikes) {
+}
@@ -0,0 +1,37 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+import br.dev.andersonandrade.centauri.interfaces.Destinatario;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.interfaces.Remetente;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Transportador registrado no diário de mensagens, identificado pela sua sequência.
+ * <p>
+ * A sequência é usada para confirmar a entrada no diário depois que a mensagem
+ * é gravada no armazém.
+ *
+ * @param sequencia     A sequência da entrada no diário.
+ * @param prioridade    A prioridade com que a mensagem foi recebida.
+ * @param transportador O transportador original da mensagem.
+ */
+public record EntradaDiarioRecord(long sequencia, @NotNull Prioridade prioridade,
+                                  @NotNull Transportador transportador) implements Transportador {
+
+    @Override
+    public Destinatario destinatario() {
+        return transportador.destinatario();
+    }
+
+    @Override
+    public Remetente remetente() {
+        return transportador.remetente();
+    }
+
+    @Override
+    public Mensagem mensagem() {
+        return transportador.mensagem();
+    }
+}
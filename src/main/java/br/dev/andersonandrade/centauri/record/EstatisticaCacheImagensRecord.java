@@ -0,0 +1,16 @@
+package br.dev.andersonandrade.centauri.record;
+
+/**
+ * Contadores do cache de imagens das publicações.
+ *
+ * @param acertos     Leituras atendidas pela memória, sem consultar a base de dados nem o disco.
+ * @param faltas      Leituras que precisaram consultar a base de dados e o disco.
+ * @param remocoes    Imagens removidas por excesso de bytes ou por publicação desativada.
+ * @param entradas    Quantidade de imagens no cache no momento da leitura.
+ * @param bytes       Bytes das imagens guardadas no momento da leitura.
+ * @param orcamento   Limite de bytes do cache.
+ * @param taxaAcertos Fração das leituras atendidas pela memória, entre 0 e 1.
+ */
+public record EstatisticaCacheImagensRecord(long acertos, long faltas, long remocoes, int entradas, long bytes,
+                                            long orcamento, double taxaAcertos) {
+}
@@ -0,0 +1,12 @@
+package br.dev.andersonandrade.centauri.record;
+
+/**
+ * Contadores de um cache em memória.
+ *
+ * @param acertos  Leituras atendidas pelo cache.
+ * @param faltas   Leituras que precisaram consultar a base de dados.
+ * @param remocoes Entradas removidas por inatividade ou por excesso de entradas.
+ * @param entradas Quantidade de entradas no cache no momento da leitura.
+ */
+public record EstatisticaCacheRecord(long acertos, long faltas, long remocoes, int entradas) {
+}
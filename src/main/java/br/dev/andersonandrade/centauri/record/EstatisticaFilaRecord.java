@@ -0,0 +1,17 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+
+/**
+ * Contadores de uma fila de prioridade do correio de mensagens.
+ *
+ * @param prioridade   A prioridade da fila.
+ * @param enfileiradas Mensagens aceitas na fila desde o início da aplicação.
+ * @param persistidas  Mensagens gravadas no armazém.
+ * @param descartadas  Mensagens recusadas por falta de espaço na fila.
+ * @param pendentes    Mensagens aguardando gravação no momento da leitura.
+ * @param capacidade   Quantidade máxima de mensagens que a fila comporta.
+ */
+public record EstatisticaFilaRecord(Prioridade prioridade, long enfileiradas, long persistidas,
+                                    long descartadas, int pendentes, int capacidade) {
+}
@@ -0,0 +1,15 @@
+package br.dev.andersonandrade.centauri.record;
+
+/**
+ * Contadores do agregador de likes.
+ * <p>
+ * A razão entre {@code linhasAtualizadas} e {@code eventos} indica quantas escritas
+ * na base de dados cada clique custou.
+ *
+ * @param eventos           Likes e dislikes recebidos.
+ * @param pendentes         Eventos ainda não gravados na base de dados.
+ * @param descarregamentos  Gravações em lote executadas.
+ * @param linhasAtualizadas Linhas atualizadas na base de dados pelas gravações.
+ */
+public record EstatisticaLikesRecord(long eventos, long pendentes, long descarregamentos, long linhasAtualizadas) {
+}
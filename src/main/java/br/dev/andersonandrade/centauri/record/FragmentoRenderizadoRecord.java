@@ -0,0 +1,15 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Trecho de página já renderizado pelo Thymeleaf, guardado em cache.
+ *
+ * @param versao          A versão dos dados usados na renderização.
+ * @param html            O HTML renderizado.
+ * @param etag            A ETag que identifica esta renderização.
+ * @param ultimaAlteracao Momento da renderização, em milissegundos desde a época, truncado para segundos.
+ */
+public record FragmentoRenderizadoRecord(long versao, @NotNull String html, @NotNull String etag,
+                                         long ultimaAlteracao) {
+}
@@ -0,0 +1,15 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Imagem de uma publicação guardada em memória, com os dados da resposta.
+ *
+ * @param bytes           O conteúdo do arquivo da imagem.
+ * @param tipoImagem      O tipo de conteúdo da imagem.
+ * @param etag            A ETag da imagem, a mesma usada na leitura do arquivo.
+ * @param ultimaAlteracao A data de alteração do arquivo, em milissegundos.
+ */
+public record ImagemEmCacheRecord(@NotNull byte[] bytes, @NotNull String tipoImagem, @NotNull String etag,
+                                  long ultimaAlteracao) {
+}
@@ -0,0 +1,12 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Local e tipo da imagem de uma publicação, lidos sem carregar a publicação e o autor.
+ *
+ * @param urlImagem  O caminho do arquivo da imagem.
+ * @param tipoImagem O tipo de conteúdo gravado no upload, ou null nas publicações antigas.
+ */
+public record ImagemPublicacaoRecord(@NotNull String urlImagem, String tipoImagem) {
+}
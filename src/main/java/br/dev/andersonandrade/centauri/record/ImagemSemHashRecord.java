@@ -0,0 +1,12 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Imagem de uma publicação gravada antes de o hash do conteúdo ser guardado na publicação.
+ *
+ * @param idPublicacao O id da publicação.
+ * @param urlImagem    O caminho do arquivo da imagem.
+ */
+public record ImagemSemHashRecord(@NotNull Long idPublicacao, @NotNull String urlImagem) {
+}
@@ -0,0 +1,15 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Página do feed de publicações.
+ *
+ * @param publicacoes As publicações da página, na ordem do feed.
+ * @param proxima     O cursor da próxima página, ou null se esta for a última.
+ */
+public record PaginaPublicacoesRecord(@NotNull List<PublicacaoResumoRecord> publicacoes,
+                                      CursorPublicacaoRecord proxima) {
+}
@@ -0,0 +1,15 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Página das publicações de um autor, em ordem decrescente de likes.
+ *
+ * @param publicacoes As publicações da página.
+ * @param proxima     O cursor da próxima página, ou null se esta for a última.
+ */
+public record PaginaPublicacoesUsuarioRecord(@NotNull List<PublicacaoUsuarioRecord> publicacoes,
+                                             CursorPublicacaoRecord proxima) {
+}
@@ -0,0 +1,17 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.beans.CaixaMensagem;
+import br.dev.andersonandrade.centauri.entity.Usuario;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Dados exibidos na página do usuário, carregados de uma só vez.
+ *
+ * @param usuario         O usuário, com o login e o histórico.
+ * @param caixaDeMensagem As mensagens do sistema ainda não lidas.
+ * @param publicacoes     A página exibida das publicações ativas do usuário, com likes e dislikes.
+ * @param quantidade      A quantidade de publicações ativas do usuário.
+ */
+public record PainelUsuarioRecord(@NotNull Usuario usuario, @NotNull CaixaMensagem caixaDeMensagem,
+                                  @NotNull PaginaPublicacoesUsuarioRecord publicacoes, long quantidade) {
+}
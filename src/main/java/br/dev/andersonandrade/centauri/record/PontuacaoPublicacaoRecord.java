@@ -0,0 +1,12 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Quantidade de likes de uma publicação ativa, usada para montar o ranking.
+ *
+ * @param idPublicacao O id da publicação.
+ * @param likes        Quantidade de likes gravados.
+ */
+public record PontuacaoPublicacaoRecord(@NotNull Long idPublicacao, int likes) {
+}
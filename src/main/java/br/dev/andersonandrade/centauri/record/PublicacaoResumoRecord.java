@@ -0,0 +1,31 @@
+package br.dev.andersonandrade.centauri.record;
+
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados de uma publicação exibidos no ranking e no feed da página inicial.
+ *
+ * @param id             O id da publicação.
+ * @param titulo         O título da publicação.
+ * @param texto          O texto da publicação.
+ * @param nomeUsuario    O nome do autor da publicação.
+ * @param dataPublicacao A data da publicação.
+ * @param likes          Quantidade de likes da publicação.
+ */
+public record PublicacaoResumoRecord(@NotNull Long id, String titulo, String texto, String nomeUsuario,
+                                     LocalDateTime dataPublicacao, int likes) {
+
+    public static PublicacaoResumoRecord de(@NotNull Publicacao publicacao, int likes) {
+        String nomeUsuario = publicacao.getUsuario() == null ? null : publicacao.getUsuario().getNome();
+        return new PublicacaoResumoRecord(publicacao.getId(), publicacao.getTitulo(), publicacao.getTexto(),
+                nomeUsuario, publicacao.getDataPublicacao(), likes);
+    }
+
+    public PublicacaoResumoRecord comLikes(int likes) {
+        return likes == this.likes ? this
+                : new PublicacaoResumoRecord(id, titulo, texto, nomeUsuario, dataPublicacao, likes);
+    }
+}
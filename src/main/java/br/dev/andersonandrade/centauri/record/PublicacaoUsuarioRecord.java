@@ -0,0 +1,29 @@
+package br.dev.andersonandrade.centauri.record;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Publicação listada na página do autor, com as quantidades de likes e dislikes.
+ *
+ * @param id       O id da publicação, que também identifica a sua imagem.
+ * @param titulo   O título da publicação.
+ * @param likes    Quantidade de likes da publicação.
+ * @param dislikes Quantidade de dislikes da publicação.
+ */
+public record PublicacaoUsuarioRecord(@NotNull Long id, String titulo, int likes, int dislikes) {
+
+    /**
+     * Retorna a publicação com os cliques ainda não gravados somados, sem deixar os
+     * likes negativos.
+     *
+     * @param pendente Os cliques pendentes da publicação.
+     * @return A própria publicação, ou uma cópia com os cliques somados.
+     */
+    public PublicacaoUsuarioRecord comPendentes(@NotNull DeltaLikeRecord pendente) {
+        if (pendente.likes() == 0 && pendente.dislikes() == 0) {
+            return this;
+        }
+        return new PublicacaoUsuarioRecord(id, titulo, (int) Math.max(0, likes + pendente.likes() - pendente.dislikes()),
+                (int) (dislikes + pendente.dislikes()));
+    }
+}
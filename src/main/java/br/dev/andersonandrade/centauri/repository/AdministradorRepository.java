@@ -0,0 +1,8 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.entity.Administrador;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AdministradorRepository extends JpaRepository<Administrador, Long> {
+    boolean existsByLogin_Email(String email);
+}
@@ -0,0 +1,104 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.uteis.MapeamentoUtil;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aplica em lote, usando JDBC, os likes e dislikes acumulados em memória.
+ * <p>
+ * Cada publicação recebe um único UPDATE com o saldo do período, enviado junto com os
+ * das demais publicações por {@link JdbcTemplate#batchUpdate}. A quantidade de likes
+ * nunca fica negativa, como na atualização feita clique a clique.
+ * <p>
+ * Os contadores são gravados na própria linha da {@link Publicacao}, sem a tabela de likes.
+ *
+ * @author Anderson Andrade Dev
+ */
+@Repository
+public class LikeLoteRepository {
+
+    /**
+     * Atributos da entidade {@link Publicacao} usados pelo update: likes, dislikes e id.
+     */
+    public static final List<String> ATRIBUTOS = List.of("qtdPositivo", "qtdNegativo", "id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sqlAtualizar;
+    private final String sqlExiste;
+
+    @Autowired
+    public LikeLoteRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this(jdbcTemplate, MapeamentoUtil.tabela(entityManagerFactory, Publicacao.class),
+                ATRIBUTOS.stream()
+                        .map(atributo -> MapeamentoUtil.coluna(entityManagerFactory, Publicacao.class, atributo))
+                        .toList());
+    }
+
+    /**
+     * Cria o repositório informando diretamente a tabela e as colunas de destino.
+     *
+     * @param jdbcTemplate O template JDBC usado para gravar.
+     * @param tabela       O nome físico da tabela.
+     * @param colunas      Os nomes físicos das colunas, na ordem de {@link #ATRIBUTOS}.
+     * @throws IllegalArgumentException se as colunas não corresponderem aos atributos.
+     */
+    public LikeLoteRepository(@NotNull JdbcTemplate jdbcTemplate, @NotNull String tabela,
+                              @NotNull List<String> colunas) {
+        if (colunas.size() != ATRIBUTOS.size()) {
+            throw new IllegalArgumentException("Informe uma coluna para cada atributo: " + ATRIBUTOS);
+        }
+        String positivo = colunas.get(0);
+        String negativo = colunas.get(1);
+        String publicacao = colunas.get(2);
+        this.jdbcTemplate = jdbcTemplate;
+        this.sqlAtualizar = "UPDATE " + tabela + " SET " +
+                positivo + " = GREATEST(" + positivo + " + ?, 0), " +
+                negativo + " = " + negativo + " + ? " +
+                "WHERE " + publicacao + " = ?";
+        this.sqlExiste = "SELECT COUNT(*) FROM " + tabela + " WHERE " + publicacao + " = ?";
+    }
+
+    /**
+     * Aplica os saldos de likes e dislikes de cada publicação.
+     *
+     * @param deltas Os saldos acumulados por publicação.
+     * @return A quantidade de linhas atualizadas.
+     */
+    @Transactional
+    public int atualizar(@NotNull List<DeltaLikeRecord> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(sqlAtualizar, deltas, deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.likes() - delta.dislikes());
+            ps.setLong(2, delta.dislikes());
+            ps.setLong(3, delta.idPublicacao());
+        });
+        return Arrays.stream(resultado)
+                .flatMapToInt(Arrays::stream)
+                .map(linhas -> linhas == Statement.SUCCESS_NO_INFO ? 1 : Math.max(linhas, 0))
+                .sum();
+    }
+
+    /**
+     * Verifica se a publicação existe.
+     *
+     * @param idPublicacao O id da publicação.
+     * @return true se existir a publicação.
+     */
+    public boolean existe(@NotNull Long idPublicacao) {
+        Long quantidade = jdbcTemplate.queryForObject(sqlExiste, Long.class, idPublicacao);
+        return quantidade != null && quantidade > 0;
+    }
+}
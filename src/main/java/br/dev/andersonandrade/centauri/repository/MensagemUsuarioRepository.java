@@ -0,0 +1,17 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.entity.MensagemUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MensagemUsuarioRepository extends JpaRepository<MensagemUsuario, Long> {
+
+    @Query("SELECT m FROM MensagemUsuario m " +
+            "WHERE m.usuario.id = :idUsuario " +
+            "AND m.lida = false " +
+            "ORDER BY m.data desc, m.id desc")
+    List<MensagemUsuario> findNaoLidas(@Param("idUsuario") Long idUsuario);
+}
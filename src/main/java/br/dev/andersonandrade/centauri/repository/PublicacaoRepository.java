@@ -2,25 +2,127 @@ package br.dev.andersonandrade.centauri.repository;
 
 import br.dev.andersonandrade.centauri.entity.Publicacao;
 import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.ImagemSemHashRecord;
+import br.dev.andersonandrade.centauri.record.PontuacaoPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface PublicacaoRepository extends JpaRepository<Publicacao, Long> {
+
+    /**
+     * Quantidade de linhas buscadas por vez na leitura em fluxo. No MySQL, o driver só
+     * respeita o valor com {@code useCursorFetch=true} na URL de conexão.
+     */
+    int TAMANHO_LOTE_LEITURA = 500;
+
+    String SELECIONA_RESUMO = "select new br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord(" +
+            "p.id, p.titulo, p.texto, u.nome, p.dataPublicacao, p.qtdPositivo) " +
+            "from Publicacao p left join p.usuario u ";
+
+    String SELECIONA_DO_AUTOR = "select new br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord(" +
+            "p.id, p.titulo, p.qtdPositivo, p.qtdNegativo) " +
+            "from Publicacao p " +
+            "where p.usuario.id = :idUsuario " +
+            "and p.ativa = true ";
+
     List<Publicacao> findByDataPublicacaoBetween(LocalDateTime dataInicio, LocalDateTime dataFim);
 
     List<Publicacao> findByUsuario(Usuario usuario);
 
     @Query("select p from Publicacao p " +
-            "left join p.usuario " +
-            "where p.usuario.codigo = :codigo " +
-            "and p.ativa = true" +
-            " order by p.id desc")
-    List<Publicacao> findByPublicacaoUsuarioOrdemDecrescente(@Param("codigo") String codigo);
+            "where p.ativa = true " +
+            "and p.dataPublicacao between :inicio and :fim " +
+            "order by p.dataPublicacao desc, p.id desc")
+    Slice<Publicacao> findAtivasEntre(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                      Pageable pagina);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + TAMANHO_LOTE_LEITURA),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Publicacao p " +
+            "left join fetch p.usuario " +
+            "where p.ativa = true " +
+            "and p.dataPublicacao between :inicio and :fim " +
+            "order by p.dataPublicacao desc, p.id desc")
+    Stream<Publicacao> streamAtivasEntre(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    @Query(SELECIONA_DO_AUTOR +
+            "order by p.qtdPositivo desc, p.id desc")
+    Slice<PublicacaoUsuarioRecord> findDoAutor(@Param("idUsuario") Long idUsuario, Pageable pagina);
+
+    @Query(SELECIONA_DO_AUTOR +
+            "and (p.qtdPositivo < :likes or (p.qtdPositivo = :likes and p.id < :id)) " +
+            "order by p.qtdPositivo desc, p.id desc")
+    Slice<PublicacaoUsuarioRecord> findDoAutorAbaixoDe(@Param("idUsuario") Long idUsuario, @Param("likes") int likes,
+                                                       @Param("id") Long id, Pageable pagina);
+
+    @Query("select count(p) from Publicacao p where p.usuario.id = :idUsuario and p.ativa = true")
+    long countAtivasDoAutor(@Param("idUsuario") Long idUsuario);
+
+    /**
+     * Copia para as publicações os contadores gravados na tabela de likes. Só altera as
+     * publicações que ainda não receberam nenhum clique, para que a cópia possa ser
+     * repetida sem sobrescrever os contadores já gravados na publicação.
+     *
+     * @return A quantidade de publicações atualizadas.
+     */
+    @Modifying
+    @Query("update Publicacao p " +
+            "set p.qtdPositivo = (select l.qtdPositivo from Likes l where l.publicacao = p), " +
+            "p.qtdNegativo = (select l.qtdNegativo from Likes l where l.publicacao = p) " +
+            "where p.qtdPositivo = 0 and p.qtdNegativo = 0 " +
+            "and exists (select l.id from Likes l where l.publicacao = p " +
+            "and (l.qtdPositivo <> 0 or l.qtdNegativo <> 0))")
+    int copiarContadoresDosLikes();
+
+    @Query("select new br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord(p.urlImagem, p.tipoImagem) " +
+            "from Publicacao p " +
+            "where p.id = :id")
+    Optional<ImagemPublicacaoRecord> findImagem(@Param("id") Long id);
+
+    /**
+     * Retorna, entre os hashes de imagens informados, os que ainda são usados por alguma
+     * publicação ativa. A mesma imagem pode ser usada por várias publicações, e só deixa de
+     * ser referenciada quando todas elas são editadas ou desativadas. A comparação é feita
+     * pelo hash, e não pelo caminho, que muda se a pasta das imagens mudar de lugar.
+     *
+     * @param hashes Os hashes do conteúdo das imagens.
+     * @return Os hashes referenciados por publicações ativas.
+     */
+    @Query("select distinct p.hashImagem from Publicacao p " +
+            "where p.ativa = true and p.hashImagem in :hashes")
+    Set<String> findHashesReferenciados(@Param("hashes") Collection<String> hashes);
+
+    boolean existsByAtivaTrueAndHashImagemIsNotNull();
+
+    @Query("select new br.dev.andersonandrade.centauri.record.ImagemSemHashRecord(p.id, p.urlImagem) " +
+            "from Publicacao p " +
+            "where p.urlImagem is not null and p.hashImagem is null")
+    List<ImagemSemHashRecord> findImagensSemHash();
+
+    @Transactional
+    @Modifying
+    @Query("update Publicacao p set p.hashImagem = :hash where p.id = :id")
+    int atualizarHashImagem(@Param("id") Long id, @Param("hash") String hash);
 
     @Query("select p from Publicacao p order by p.dataPublicacao desc")
     List<Publicacao> publicacaoesOrdDataDescr();
@@ -28,4 +130,36 @@ public interface PublicacaoRepository extends JpaRepository<Publicacao, Long> {
     @Query("select count(p) from Publicacao  p where p.ativa = true")
     Optional<Long> countAtivas();
 
+    @Query("select new br.dev.andersonandrade.centauri.record.PontuacaoPublicacaoRecord(p.id, p.qtdPositivo) " +
+            "from Publicacao p " +
+            "where p.ativa = true")
+    List<PontuacaoPublicacaoRecord> findPontuacoesAtivas();
+
+    @Query(SELECIONA_RESUMO + "where p.id in :ids")
+    List<PublicacaoResumoRecord> findResumos(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECIONA_RESUMO +
+            "where p.ativa = true " +
+            "order by p.dataPublicacao desc, p.id desc")
+    Slice<PublicacaoResumoRecord> findRecentes(Pageable pagina);
+
+    @Query(SELECIONA_RESUMO +
+            "where p.ativa = true " +
+            "and (p.dataPublicacao < :data or (p.dataPublicacao = :data and p.id < :id)) " +
+            "order by p.dataPublicacao desc, p.id desc")
+    Slice<PublicacaoResumoRecord> findRecentesAntesDe(@Param("data") LocalDateTime data, @Param("id") Long id,
+                                                      Pageable pagina);
+
+    @Query(SELECIONA_RESUMO +
+            "where p.ativa = true " +
+            "order by p.qtdPositivo desc, p.id desc")
+    Slice<PublicacaoResumoRecord> findMaisCurtidas(Pageable pagina);
+
+    @Query(SELECIONA_RESUMO +
+            "where p.ativa = true " +
+            "and (p.qtdPositivo < :likes or (p.qtdPositivo = :likes and p.id < :id)) " +
+            "order by p.qtdPositivo desc, p.id desc")
+    Slice<PublicacaoResumoRecord> findMaisCurtidasAbaixoDe(@Param("likes") int likes, @Param("id") Long id,
+                                                           Pageable pagina);
+
 }
@@ -0,0 +1,124 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.entity.TransportadorEntity;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.uteis.MapeamentoUtil;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Grava transportadores em lote usando JDBC.
+ * <p>
+ * A entidade {@link TransportadorEntity} usa {@code GenerationType.IDENTITY}, o que impede
+ * o Hibernate de agrupar os inserts. Este repositório envia as mensagens com
+ * {@link JdbcTemplate#batchUpdate}, em lotes de tamanho configurável pela propriedade
+ * {@code centauri.correio.lote.insercao}, reduzindo as idas à base de dados a uma por lote.
+ * <p>
+ * No MySQL o driver só junta o lote em um único insert com vários valores quando a URL
+ * de conexão contém {@code rewriteBatchedStatements=true}.
+ *
+ * @author Anderson Andrade Dev
+ */
+@Repository
+public class TransportadorLoteRepository {
+
+    /**
+     * Atributos gravados pelo insert, na ordem dos parâmetros.
+     */
+    public static final List<String> ATRIBUTOS = List.of("enderecoRemetente", "enderecoDestinatario",
+            "titulo", "conteudo", "dataEnvio", "dataRecebimento", "avisoRecebimento");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final int tamanhoLote;
+
+    @Autowired
+    public TransportadorLoteRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                       @Value("${centauri.correio.lote.insercao:500}") int tamanhoLote) {
+        this(jdbcTemplate, MapeamentoUtil.tabela(entityManagerFactory, TransportadorEntity.class),
+                ATRIBUTOS.stream()
+                        .map(atributo -> MapeamentoUtil.coluna(entityManagerFactory, TransportadorEntity.class, atributo))
+                        .toList(),
+                tamanhoLote);
+    }
+
+    /**
+     * Cria o repositório informando diretamente a tabela e as colunas de destino.
+     *
+     * @param jdbcTemplate O template JDBC usado para gravar.
+     * @param tabela       O nome físico da tabela.
+     * @param colunas      Os nomes físicos das colunas, na ordem de {@link #ATRIBUTOS}.
+     * @param tamanhoLote  Quantidade máxima de linhas enviadas por lote.
+     * @throws IllegalArgumentException se as colunas não corresponderem aos atributos ou o lote não for positivo.
+     */
+    public TransportadorLoteRepository(@NotNull JdbcTemplate jdbcTemplate, @NotNull String tabela,
+                                       @NotNull List<String> colunas, int tamanhoLote) {
+        if (colunas.size() != ATRIBUTOS.size()) {
+            throw new IllegalArgumentException("Informe uma coluna para cada atributo: " + ATRIBUTOS);
+        }
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero!");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.sql = "INSERT INTO " + tabela + " (" + String.join(", ", colunas) + ") VALUES (" +
+                colunas.stream().map(coluna -> "?").collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * Insere os transportadores em lotes.
+     *
+     * @param transportadores Os transportadores a serem gravados.
+     * @return A quantidade de linhas inseridas.
+     */
+    public int inserir(@NotNull List<? extends Transportador> transportadores) {
+        if (transportadores.isEmpty()) {
+            return 0;
+        }
+        int[][] resultado = jdbcTemplate.batchUpdate(sql, transportadores, tamanhoLote,
+                (ps, transportador) -> preencher(ps, transportador));
+        return Arrays.stream(resultado)
+                .flatMapToInt(Arrays::stream)
+                .map(linhas -> linhas == Statement.SUCCESS_NO_INFO ? 1 : linhas)
+                .sum();
+    }
+
+    public int getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    private void preencher(PreparedStatement ps, Transportador transportador) throws SQLException {
+        ps.setString(1, transportador.remetente().endereco());
+        ps.setString(2, transportador.destinatario().endereco());
+        ps.setString(3, transportador.mensagem().getTitulo());
+        ps.setString(4, transportador.mensagem().getConteudo());
+        definirData(ps, 5, transportador.mensagem().getDataEnvio());
+        ps.setNull(6, Types.TIMESTAMP);
+        ps.setBoolean(7, false);
+    }
+
+    private void definirData(PreparedStatement ps, int indice, LocalDateTime data) throws SQLException {
+        if (data == null) {
+            ps.setNull(indice, Types.TIMESTAMP);
+        } else {
+            // A base guarda microssegundos; truncar aqui evita que ela arredonde a fração
+            // e mantém a data gravada igual à usada pelos caches de conversa.
+            ps.setTimestamp(indice, Timestamp.valueOf(data.truncatedTo(ChronoUnit.MICROS)));
+        }
+    }
+}
@@ -1,7 +1,54 @@
 package br.dev.andersonandrade.centauri.repository;
 
 import br.dev.andersonandrade.centauri.entity.TransportadorEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface TransportadorRepository extends JpaRepository<TransportadorEntity, Long> {
-}
\ No newline at end of file
+
+    List<TransportadorEntity> findByEnderecoDestinatarioOrderByDataEnvioAscIdAsc(String enderecoDestinatario);
+
+    List<TransportadorEntity> findByEnderecoRemetenteOrderByDataEnvioAscIdAsc(String enderecoRemetente);
+
+    List<TransportadorEntity> findByEnderecoRemetenteAndEnderecoDestinatarioOrderByDataEnvioAscIdAsc(
+            String enderecoRemetente, String enderecoDestinatario);
+
+    boolean existsByEnderecoRemetenteAndEnderecoDestinatarioAndDataEnvioBetweenAndConteudo(
+            String enderecoRemetente, String enderecoDestinatario, LocalDateTime inicio, LocalDateTime fim,
+            String conteudo);
+
+    @Query("SELECT t FROM TransportadorEntity t " +
+            "WHERE t.enderecoRemetente = :remetente " +
+            "AND t.enderecoDestinatario = :destinatario " +
+            "ORDER BY t.dataEnvio DESC, t.id DESC")
+    List<TransportadorEntity> findUltimasDaConversa(@Param("remetente") String remetente,
+                                                    @Param("destinatario") String destinatario,
+                                                    Pageable pagina);
+
+    @Query("SELECT t FROM TransportadorEntity t " +
+            "WHERE t.enderecoRemetente = :remetente " +
+            "AND t.enderecoDestinatario = :destinatario " +
+            "AND (t.dataEnvio < :dataEnvio OR (t.dataEnvio = :dataEnvio AND t.id < :id)) " +
+            "ORDER BY t.dataEnvio DESC, t.id DESC")
+    List<TransportadorEntity> findAnterioresDaConversa(@Param("remetente") String remetente,
+                                                       @Param("destinatario") String destinatario,
+                                                       @Param("dataEnvio") LocalDateTime dataEnvio,
+                                                       @Param("id") Long id,
+                                                       Pageable pagina);
+
+    @Query("SELECT t FROM TransportadorEntity t " +
+            "WHERE t.enderecoRemetente = :remetente " +
+            "AND t.enderecoDestinatario = :destinatario " +
+            "AND (t.dataEnvio > :dataEnvio OR (t.dataEnvio = :dataEnvio AND t.id > :id)) " +
+            "ORDER BY t.dataEnvio ASC, t.id ASC")
+    List<TransportadorEntity> findPosterioresDaConversa(@Param("remetente") String remetente,
+                                                        @Param("destinatario") String destinatario,
+                                                        @Param("dataEnvio") LocalDateTime dataEnvio,
+                                                        @Param("id") Long id,
+                                                        Pageable pagina);
+}
@@ -12,6 +12,11 @@ import java.util.Set;
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByCodigo(String codigo);
 
+    /**
+     * Busca o usuário pelo e-mail já com o login, a senha e o histórico, que são
+     * associações carregadas sempre, para que venham no mesmo SELECT.
+     */
+    @EntityGraph(attributePaths = {"login", "login.senha", "historico", "historico.alteracoes"})
     Optional<Usuario> findByLogin_Email(String email);
 
     @Query("SELECT COUNT(u) FROM Usuario u WHERE u.login.ativo = TRUE")
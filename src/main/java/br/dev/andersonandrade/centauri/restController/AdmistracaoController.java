@@ -1,10 +1,90 @@
 package br.dev.andersonandrade.centauri.restController;
 
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheImagensRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaFilaRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaLikesRecord;
+import br.dev.andersonandrade.centauri.service.AgregadorLikes;
+import br.dev.andersonandrade.centauri.service.CacheConversas;
+import br.dev.andersonandrade.centauri.service.CacheImagens;
+import br.dev.andersonandrade.centauri.service.CachePaginaInicial;
+import br.dev.andersonandrade.centauri.service.CorreioMensagem;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
-@RequestMapping(path = "adminstracao", method = RequestMethod.POST)
+@RequestMapping(path = "adminstracao")
 public class AdmistracaoController {
+
+    private final CorreioMensagem correio;
+    private final CacheConversas cacheConversas;
+    private final AgregadorLikes agregadorLikes;
+    private final CachePaginaInicial cachePaginaInicial;
+    private final CacheImagens cacheImagens;
+
+    public AdmistracaoController(CorreioMensagem correio, CacheConversas cacheConversas,
+                                 AgregadorLikes agregadorLikes, CachePaginaInicial cachePaginaInicial,
+                                 CacheImagens cacheImagens) {
+        this.correio = correio;
+        this.cacheConversas = cacheConversas;
+        this.agregadorLikes = agregadorLikes;
+        this.cachePaginaInicial = cachePaginaInicial;
+        this.cacheImagens = cacheImagens;
+    }
+
+    /**
+     * Retorna os contadores de mensagens enfileiradas, persistidas e descartadas
+     * de cada fila de prioridade do correio.
+     *
+     * @return As estatísticas das filas do correio.
+     */
+    @GetMapping("correio")
+    public List<EstatisticaFilaRecord> estatisticasCorreio() {
+        return correio.estatisticas();
+    }
+
+    /**
+     * Retorna os acertos, faltas e remoções do cache de conversas do chat.
+     *
+     * @return As estatísticas do cache de conversas.
+     */
+    @GetMapping("cache-conversas")
+    public EstatisticaCacheRecord estatisticasCacheConversas() {
+        return cacheConversas.estatisticas();
+    }
+
+    /**
+     * Retorna os cliques de like e dislike recebidos, pendentes e gravados em lote.
+     *
+     * @return As estatísticas do agregador de likes.
+     */
+    @GetMapping("likes")
+    public EstatisticaLikesRecord estatisticasLikes() {
+        return agregadorLikes.estatisticas();
+    }
+
+    /**
+     * Retorna os acertos, as renderizações e as substituições do cache dos cartões da
+     * página inicial.
+     *
+     * @return As estatísticas do cache da página inicial.
+     */
+    @GetMapping("cache-pagina-inicial")
+    public EstatisticaCacheRecord estatisticasCachePaginaInicial() {
+        return cachePaginaInicial.estatisticas();
+    }
+
+    /**
+     * Retorna os acertos, as faltas, os bytes guardados e a taxa de acertos do cache das
+     * imagens das publicações.
+     *
+     * @return As estatísticas do cache de imagens.
+     */
+    @GetMapping("cache-imagens")
+    public EstatisticaCacheImagensRecord estatisticasCacheImagens() {
+        return cacheImagens.estatisticas();
+    }
 }
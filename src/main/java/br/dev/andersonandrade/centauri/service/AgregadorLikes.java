@@ -0,0 +1,380 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaLikesRecord;
+import br.dev.andersonandrade.centauri.repository.LikeLoteRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Classe AgregadorLikes
+ * <p>
+ * Acumula em memória os likes e dislikes de cada publicação e os grava na base de dados
+ * em lote, com um único UPDATE por publicação, a cada intervalo configurado ou assim que
+ * a quantidade de cliques pendentes atinge o lote configurado. Cliques simultâneos na
+ * mesma publicação apenas incrementam contadores {@link LongAdder}, sem transação e sem
+ * disputa por bloqueio.
+ * <p>
+ * Os contadores só crescem; cada publicação guarda quanto já foi gravado, e a gravação
+ * envia a diferença. Assim um clique que chega durante a gravação é enviado na próxima,
+ * sem se perder. Se a gravação falhar, os cliques continuam pendentes para a próxima.
+ * <p>
+ * Como os cliques do período são somados, o limite de zero likes é aplicado ao saldo
+ * do período e não a cada dislike. As leituras podem somar os cliques pendentes aos
+ * valores gravados com {@link #pendente(Long)}, e quem mantém cópias dos valores
+ * gravados é avisado de cada gravação por {@link #aoGravar(Consumer)}.
+ * <p>
+ * Os contadores que ficam sem cliques por mais tempo que o limite de ociosidade são
+ * removidos na gravação; enquanto a publicação recebe cliques, o contador é mantido e a
+ * existência da publicação não é consultada de novo. Os ids de publicações inexistentes são lembrados por um tempo limitado, para que cliques em ids
+ * inexistentes não consultem a base de dados a cada requisição.
+ * <p>
+ * O agregador só é criado depois da {@link MigracaoContadoresLikes}, para que nenhum
+ * clique seja gravado antes da cópia dos contadores antigos.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+@DependsOn("migracaoContadoresLikes")
+public class AgregadorLikes {
+
+    static final int MAXIMO_INEXISTENTES_PADRAO = 10_000;
+    static final long VALIDADE_INEXISTENTES_PADRAO_MS = 60_000;
+    static final long OCIOSIDADE_PADRAO_MS = 60_000;
+
+    private final Logger logger = LoggerFactory.getLogger(AgregadorLikes.class);
+    private final Map<Long, Contador> contadores = new ConcurrentHashMap<>();
+    private final List<Consumer<List<DeltaLikeRecord>>> ouvintes = new CopyOnWriteArrayList<>();
+    private final LikeLoteRepository likeLoteRepository;
+    private final int lote;
+    private final LongAdder eventos = new LongAdder();
+    private final LongAdder pendentes = new LongAdder();
+    private final LongAdder descarregamentos = new LongAdder();
+    private final LongAdder linhasAtualizadas = new LongAdder();
+    private final AtomicBoolean descarregamentoSolicitado = new AtomicBoolean();
+    private final Map<Long, Long> inexistentes = new ConcurrentHashMap<>();
+    private final int maximoInexistentes;
+    private final long validadeInexistentesNanos;
+    private final long ociosidadeNanos;
+    private final ScheduledExecutorService escoamento;
+
+    /**
+     * Construtor que inicializa o agregador com os limites padrão das publicações
+     * inexistentes e dos contadores ociosos e agenda a gravação periódica.
+     *
+     * @param likeLoteRepository O repositório que aplica os saldos em lote.
+     * @param intervaloMs        Intervalo, em milissegundos, entre as gravações.
+     * @param lote               Quantidade de cliques pendentes que antecipa a gravação.
+     */
+    public AgregadorLikes(LikeLoteRepository likeLoteRepository, long intervaloMs, int lote) {
+        this(likeLoteRepository, intervaloMs, lote, MAXIMO_INEXISTENTES_PADRAO, VALIDADE_INEXISTENTES_PADRAO_MS,
+                OCIOSIDADE_PADRAO_MS);
+    }
+
+    /**
+     * Construtor que inicializa o agregador e agenda a gravação periódica.
+     *
+     * @param likeLoteRepository      O repositório que aplica os saldos em lote.
+     * @param intervaloMs             Intervalo, em milissegundos, entre as gravações.
+     * @param lote                    Quantidade de cliques pendentes que antecipa a gravação.
+     * @param maximoInexistentes      Quantidade máxima de ids inexistentes lembrados.
+     * @param validadeInexistentesMs  Tempo, em milissegundos, durante o qual um id inexistente
+     *                                não é consultado de novo.
+     * @param ociosidadeMs            Tempo, em milissegundos, sem cliques após o qual o contador
+     *                                da publicação é removido.
+     */
+    @Autowired
+    public AgregadorLikes(LikeLoteRepository likeLoteRepository,
+                          @Value("${centauri.likes.intervalo-ms:1000}") long intervaloMs,
+                          @Value("${centauri.likes.lote:1000}") int lote,
+                          @Value("${centauri.likes.inexistentes.maximo:10000}") int maximoInexistentes,
+                          @Value("${centauri.likes.inexistentes.validade-ms:60000}") long validadeInexistentesMs,
+                          @Value("${centauri.likes.ociosidade-ms:60000}") long ociosidadeMs) {
+        if (intervaloMs <= 0 || lote <= 0 || maximoInexistentes <= 0 || validadeInexistentesMs <= 0
+                || ociosidadeMs <= 0) {
+            throw new IllegalArgumentException("O intervalo, o lote e os limites do agregador de likes devem ser " +
+                    "maiores que zero");
+        }
+        this.likeLoteRepository = likeLoteRepository;
+        this.lote = lote;
+        this.maximoInexistentes = maximoInexistentes;
+        this.validadeInexistentesNanos = TimeUnit.MILLISECONDS.toNanos(validadeInexistentesMs);
+        this.ociosidadeNanos = TimeUnit.MILLISECONDS.toNanos(ociosidadeMs);
+        this.escoamento = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "agregador-likes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.escoamento.scheduleWithFixedDelay(this::descarregarComSeguranca, intervaloMs, intervaloMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra um like na publicação.
+     *
+     * @param idPublicacao O id da publicação.
+     * @throws RuntimeException se a publicação não existir.
+     */
+    public void registrarLike(@NotNull Long idPublicacao) {
+        if (!registrar(idPublicacao, true)) {
+            throw new RuntimeException("Erro na função do like ");
+        }
+    }
+
+    /**
+     * Registra um dislike na publicação. Publicações inexistentes são ignoradas.
+     *
+     * @param idPublicacao O id da publicação.
+     */
+    public void registrarDislike(@NotNull Long idPublicacao) {
+        registrar(idPublicacao, false);
+    }
+
+    /**
+     * Grava na base de dados os cliques pendentes de todas as publicações.
+     *
+     * @return A quantidade de publicações atualizadas.
+     */
+    public synchronized int descarregar() {
+        descarregamentoSolicitado.set(false);
+        List<DeltaLikeRecord> deltas = new ArrayList<>();
+        List<Contador> afetados = new ArrayList<>();
+        List<Long> ociosos = new ArrayList<>();
+        long agora = System.nanoTime();
+        contadores.forEach((idPublicacao, contador) -> {
+            DeltaLikeRecord delta = contador.pendente(idPublicacao);
+            if (delta.likes() != 0 || delta.dislikes() != 0) {
+                deltas.add(delta);
+                afetados.add(contador);
+                contador.ultimoClique = agora;
+            } else if (agora - contador.ultimoClique >= ociosidadeNanos) {
+                ociosos.add(idPublicacao);
+            }
+        });
+        ociosos.forEach(this::removerOcioso);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        linhasAtualizadas.add(likeLoteRepository.atualizar(deltas));
+        descarregamentos.increment();
+        long gravados = 0;
+        for (int i = 0; i < deltas.size(); i++) {
+            afetados.get(i).confirmar(deltas.get(i));
+            gravados += deltas.get(i).likes() + deltas.get(i).dislikes();
+        }
+        pendentes.add(-gravados);
+        logger.debug("{} cliques gravados em {} publicações", gravados, deltas.size());
+        avisarGravacao(List.copyOf(deltas));
+        return deltas.size();
+    }
+
+    /**
+     * Registra quem deve ser avisado dos saldos aplicados a cada gravação.
+     * <p>
+     * O aviso é feito pela thread da gravação, depois que a base de dados foi atualizada.
+     *
+     * @param ouvinte Recebe os saldos gravados por publicação.
+     */
+    public void aoGravar(@NotNull Consumer<List<DeltaLikeRecord>> ouvinte) {
+        ouvintes.add(ouvinte);
+    }
+
+    /**
+     * Executa a ação sem que uma gravação aconteça ao mesmo tempo.
+     * <p>
+     * Quem monta uma cópia dos valores gravados a partir da base de dados e a mantém com os
+     * avisos de {@link #aoGravar(Consumer)} deve ler a base de dados dentro da ação: assim a
+     * leitura vê cada gravação inteira, já avisada, ou nenhuma parte dela, e nenhum saldo é
+     * somado duas vezes.
+     *
+     * @param acao A ação executada entre as gravações.
+     */
+    public synchronized void semGravar(@NotNull Runnable acao) {
+        acao.run();
+    }
+
+    /**
+     * Retorna os cliques da publicação ainda não gravados na base de dados.
+     *
+     * @param idPublicacao O id da publicação.
+     * @return Os likes e dislikes pendentes, zerados se não houver cliques.
+     */
+    public DeltaLikeRecord pendente(@NotNull Long idPublicacao) {
+        Contador contador = contadores.get(idPublicacao);
+        return contador == null ? new DeltaLikeRecord(idPublicacao, 0, 0) : contador.pendente(idPublicacao);
+    }
+
+    /**
+     * Retorna os contadores de cliques recebidos, pendentes e gravados.
+     *
+     * @return As estatísticas do agregador.
+     */
+    public EstatisticaLikesRecord estatisticas() {
+        return new EstatisticaLikesRecord(eventos.sum(), pendentes.sum(), descarregamentos.sum(),
+                linhasAtualizadas.sum());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        escoamento.shutdownNow();
+        descarregarComSeguranca();
+    }
+
+    /**
+     * Soma o clique ao contador da publicação.
+     * <p>
+     * Se o contador foi removido por {@link #removerOcioso(Long)} ao mesmo tempo, o clique
+     * pode ter caído no contador removido, que não é mais gravado. Nesse caso o clique é
+     * somado de novo em um contador novo.
+     *
+     * @return false se a publicação não existir.
+     */
+    private boolean registrar(Long idPublicacao, boolean like) {
+        while (true) {
+            Contador contador = contador(idPublicacao);
+            if (contador == null) {
+                return false;
+            }
+            (like ? contador.likes : contador.dislikes).increment();
+            if (!contador.removido || contadores.computeIfPresent(idPublicacao, (id, atual) -> atual) == contador) {
+                registrarEvento();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Retorna o contador da publicação, criando-o se a publicação existir. As publicações
+     * inexistentes são lembradas por um tempo, em quantidade limitada, para que cliques
+     * em ids inexistentes não consultem a base de dados a cada requisição.
+     */
+    private Contador contador(Long idPublicacao) {
+        Contador contador = contadores.get(idPublicacao);
+        if (contador != null) {
+            return contador;
+        }
+        long agora = System.nanoTime();
+        Long validade = inexistentes.get(idPublicacao);
+        if (validade != null) {
+            if (agora - validade < 0) {
+                return null;
+            }
+            inexistentes.remove(idPublicacao, validade);
+        }
+        if (!likeLoteRepository.existe(idPublicacao)) {
+            lembrarInexistente(idPublicacao, agora);
+            return null;
+        }
+        return contadores.computeIfAbsent(idPublicacao, id -> new Contador());
+    }
+
+    private void lembrarInexistente(Long idPublicacao, long agora) {
+        if (inexistentes.size() >= maximoInexistentes) {
+            inexistentes.values().removeIf(validade -> agora - validade >= 0);
+            if (inexistentes.size() >= maximoInexistentes) {
+                inexistentes.clear();
+            }
+        }
+        inexistentes.put(idPublicacao, agora + validadeInexistentesNanos);
+    }
+
+    /**
+     * Remove o contador que ficou sem cliques por mais tempo que o limite de ociosidade,
+     * para que o mapa só guarde as publicações clicadas recentemente. O contador é marcado como removido e
+     * os cliques pendentes são conferidos de novo na mesma operação atômica da remoção:
+     * um clique que chega nesse momento ou impede a remoção, ou encontra a marca e é
+     * somado de novo por {@link #registrar(Long, boolean)}.
+     */
+    private void removerOcioso(Long idPublicacao) {
+        contadores.computeIfPresent(idPublicacao, (id, contador) -> {
+            contador.removido = true;
+            DeltaLikeRecord delta = contador.pendente(id);
+            if (delta.likes() != 0 || delta.dislikes() != 0) {
+                contador.removido = false;
+                return contador;
+            }
+            return null;
+        });
+    }
+
+    private void registrarEvento() {
+        eventos.increment();
+        pendentes.increment();
+        if (pendentes.sum() >= lote && descarregamentoSolicitado.compareAndSet(false, true)) {
+            try {
+                escoamento.execute(this::descarregarComSeguranca);
+            } catch (RuntimeException e) {
+                descarregamentoSolicitado.set(false);
+                logger.warn("Não foi possível antecipar a gravação dos likes: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void avisarGravacao(List<DeltaLikeRecord> deltas) {
+        for (Consumer<List<DeltaLikeRecord>> ouvinte : ouvintes) {
+            try {
+                ouvinte.accept(deltas);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao avisar a gravação dos likes", e);
+            }
+        }
+    }
+
+    private void descarregarComSeguranca() {
+        try {
+            descarregar();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao gravar os likes pendentes, nova tentativa na próxima gravação", e);
+        }
+    }
+
+    /**
+     * Cliques recebidos por uma publicação e quanto deles já foi gravado.
+     */
+    private static final class Contador {
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder dislikes = new LongAdder();
+        private volatile long likesGravados;
+        private volatile long dislikesGravados;
+        private volatile boolean removido;
+        /**
+         * Instante da última gravação com cliques, ou da criação do contador; só é alterado
+         * pela gravação.
+         */
+        private long ultimoClique = System.nanoTime();
+
+        /**
+         * Os contadores só crescem, portanto a soma lida é sempre um valor já alcançado;
+         * cliques que chegam durante a leitura ficam para a próxima gravação.
+         */
+        private DeltaLikeRecord pendente(Long idPublicacao) {
+            return new DeltaLikeRecord(idPublicacao, likes.sum() - likesGravados, dislikes.sum() - dislikesGravados);
+        }
+
+        private void confirmar(DeltaLikeRecord delta) {
+            likesGravados += delta.likes();
+            dislikesGravados += delta.dislikes();
+        }
+    }
+}
@@ -3,22 +3,25 @@ package br.dev.andersonandrade.centauri.service;
 import br.dev.andersonandrade.centauri.beans.MensagemBean;
 import br.dev.andersonandrade.centauri.entity.TransportadorEntity;
 import br.dev.andersonandrade.centauri.interfaces.*;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
+import br.dev.andersonandrade.centauri.repository.TransportadorLoteRepository;
 import br.dev.andersonandrade.centauri.repository.TransportadorRepository;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Classe ArmazemMensagens
@@ -26,6 +29,10 @@ import java.util.stream.Collectors;
  * Implementação da interface Armazem, responsável por armazenar e recuperar mensagens
  * entre remetentes e destinatários. Utiliza um repositório para gerenciar a persistência
  * das mensagens e mantém um log das operações realizadas.
+ * <p>
+ * Os filtros por remetente e destinatário são executados pela base de dados, apoiados
+ * pelos índices de {@link TransportadorEntity}, de modo que nenhuma consulta carrega a
+ * tabela inteira para a memória.
  *
  * @author Anderson Andrade Dev
  * @date 28/09/2024
@@ -36,19 +43,21 @@ import java.util.stream.Collectors;
 public class ArmazemMensagens implements Armazem {
 
     private final TransportadorRepository transportadorRepository;
-    private Set<TransportadorEntity> transportadores;
+    private final TransportadorLoteRepository transportadorLoteRepository;
     private final Logger logger;
     private static int contadorInstancia = 0;
 
     /**
      * Construtor que inicializa a classe ArmazemMensagens.
      *
-     * @param transportadorRepository O repositório para gerenciar a persistência das mensagens.
+     * @param transportadorRepository     O repositório para gerenciar a persistência das mensagens.
+     * @param transportadorLoteRepository O repositório que grava as mensagens em lote.
      */
     @Autowired
-    public ArmazemMensagens(@NotNull TransportadorRepository transportadorRepository) {
+    public ArmazemMensagens(@NotNull TransportadorRepository transportadorRepository,
+                            @NotNull TransportadorLoteRepository transportadorLoteRepository) {
         this.transportadorRepository = transportadorRepository;
-        atualizarMensagens();
+        this.transportadorLoteRepository = transportadorLoteRepository;
         this.logger = LoggerFactory.getLogger(ArmazemMensagens.class);
         contadorInstancia++;
         logger.info("------------Quantidade de Armazem na Aplicação {}", contadorInstancia);
@@ -57,8 +66,8 @@ public class ArmazemMensagens implements Armazem {
     /**
      * Armazena uma lista de transportadores na base de dados.
      * <p>
-     * Este método persiste as mensagens no repositório e registra um log
-     * das operações realizadas.
+     * Este método persiste as mensagens em lotes JDBC, evitando uma ida à base
+     * de dados por mensagem, e registra um log das operações realizadas.
      *
      * @param transportadores Lista de transportadores a serem armazenados.
      * @throws RuntimeException se ocorrer um erro durante a persistência das mensagens.
@@ -66,106 +75,158 @@ public class ArmazemMensagens implements Armazem {
     @Override
     public void armazenar(@NotNull @NotEmpty List<Transportador> transportadores) {
         try {
-            transportadores.forEach(transportador ->
-                    transportadorRepository.save(new TransportadorEntity(transportador)));
-            logMensagens();
+            int gravadas = transportadorLoteRepository.inserir(transportadores);
+            logMensagens(gravadas);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao transportar mensagem ", e);
         }
     }
 
+    /**
+     * Verifica se a mensagem do transportador já foi armazenada.
+     * <p>
+     * A data de envio é comparada com tolerância de um microssegundo, pois a base
+     * de dados pode arredondar a fração de segundo ao gravar.
+     *
+     * @param transportador O transportador da mensagem.
+     * @return true se a mensagem já estiver armazenada.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public boolean contem(@NotNull Transportador transportador) {
+        LocalDateTime dataEnvio = transportador.mensagem().getDataEnvio();
+        return transportadorRepository.existsByEnderecoRemetenteAndEnderecoDestinatarioAndDataEnvioBetweenAndConteudo(
+                transportador.remetente().endereco(), transportador.destinatario().endereco(),
+                dataEnvio.minusNanos(1_000), dataEnvio.plusNanos(1_000), transportador.mensagem().getConteudo());
+    }
+
     /**
      * Recupera todas as mensagens associadas a um destinatário específico.
      * <p>
-     * Este método busca nas mensagens armazenadas para encontrar aquelas que
-     * têm o endereço do destinatário especificado.
+     * A consulta é filtrada na base de dados pelo endereço do destinatário.
      *
      * @param destinatario O destinatário cujas mensagens devem ser recuperadas.
      * @return Uma lista de mensagens associadas ao destinatário, ou uma lista vazia se não houver mensagens.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Mensagem> mensagens(Destinatario destinatario) {
-        atualizarMensagens();
-        List<Mensagem> mensagens = new ArrayList<>();
-        for (TransportadorEntity entity : transportadores) {
-            if (entity.getEnderecoDestinatario().equals(destinatario.endereco())) {
-                mensagens.add(new MensagemBean(entity.getTitulo(), entity.getConteudo(), entity.getDataEnvio()));
-            }
-        }
-        return mensagens.isEmpty() ? Collections.emptyList() : List.copyOf(mensagens);
+        return paraMensagens(transportadorRepository
+                .findByEnderecoDestinatarioOrderByDataEnvioAscIdAsc(destinatario.endereco()));
     }
 
     /**
      * Recupera todas as mensagens associadas a um remetente específico.
      * <p>
-     * Este método busca nas mensagens armazenadas para encontrar aquelas que
-     * têm o endereço do remetente especificado. A lista retornada contém
-     * objetos do tipo Mensagem que representam as mensagens enviadas por
-     * esse remetente.
+     * A consulta é filtrada na base de dados pelo endereço do remetente. A lista
+     * retornada contém objetos do tipo Mensagem que representam as mensagens
+     * enviadas por esse remetente.
      *
      * @param remetente O remetente cujas mensagens devem ser recuperadas.
      * @return Uma lista de mensagens associadas ao remetente, ou uma lista vazia se não houver mensagens.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Mensagem> mensagens(Remetente remetente) {
-
-            atualizarMensagens();
-
-        List<Mensagem> mensagensRemetente = new ArrayList<>();
-
-
-        for (TransportadorEntity entity : transportadores) {
-
-            if (entity.getEnderecoRemetente().equals(remetente.endereco())) {
-                mensagensRemetente.add(new MensagemBean(entity.getTitulo(),
-                        entity.getConteudo(), entity.getDataEnvio()));
-            }
-        }
-
-        return mensagensRemetente.isEmpty() ?
-                Collections.emptyList() : List.copyOf(mensagensRemetente);
+        return paraMensagens(transportadorRepository
+                .findByEnderecoRemetenteOrderByDataEnvioAscIdAsc(remetente.endereco()));
     }
 
     /**
-     * Recupera todas as mensagens associadas a um remetente e um destinatario específico.
+     * Recupera todas as mensagens enviadas por um remetente a um destinatario específico.
      * <p>
-     * Este método busca nas mensagens armazenadas para encontrar aquelas que
-     * têm o endereço do remetente especificado.
+     * A consulta é filtrada na base de dados pelos endereços do remetente e do
+     * destinatário, usando o índice composto da conversa.
      *
-     * @param remetente O remetente cujas mensagens devem ser recuperadas.
-     * @param destinatario remetente cujas mensagens devem ser recuperadas.
+     * @param remetente    O remetente cujas mensagens devem ser recuperadas.
+     * @param destinatario O destinatário das mensagens.
      * @return Uma lista de mensagens associadas ao remetente e destinatario, ou uma lista vazia se não houver mensagens.
      */
-    public List<Mensagem> mensagens(Remetente remetente,Destinatario destinatario){
-
-            atualizarMensagens();
-
-        List<Mensagem> mensagensRemetente = new ArrayList<>();
-
-        for (TransportadorEntity entity : transportadores) {
+    @Override
+    @Transactional(readOnly = true)
+    public List<Mensagem> mensagens(Remetente remetente, Destinatario destinatario) {
+        return paraMensagens(transportadorRepository
+                .findByEnderecoRemetenteAndEnderecoDestinatarioOrderByDataEnvioAscIdAsc(
+                        remetente.endereco(), destinatario.endereco()));
+    }
 
-            if (entity.getEnderecoRemetente().equals(remetente.endereco()) ||
-                    entity.getEnderecoDestinatario().equals(destinatario.endereco())) {
+    /**
+     * Recupera uma página de mensagens enviadas por um remetente a um destinatário,
+     * anteriores ao cursor informado.
+     * <p>
+     * A base de dados devolve a página em ordem decrescente, que é invertida
+     * antes do retorno para manter a ordem cronológica.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais antiga já lida, ou null para começar pelas mais recentes.
+     * @param limite       Quantidade máxima de mensagens da página.
+     * @return As mensagens da página em ordem cronológica, ou uma lista vazia se não houver mensagens.
+     * @throws IllegalArgumentException se o limite não for positivo.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Mensagem> mensagensAnteriores(Remetente remetente, Destinatario destinatario,
+                                              CursorMensagemRecord cursor, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero!");
+        }
 
-                mensagensRemetente.add(new MensagemBean(entity.getTitulo(),
-                        entity.getConteudo(), entity.getDataEnvio()));
+        PageRequest pagina = PageRequest.of(0, limite);
+        List<TransportadorEntity> entidades = cursor == null ?
+                transportadorRepository.findUltimasDaConversa(remetente.endereco(), destinatario.endereco(), pagina) :
+                transportadorRepository.findAnterioresDaConversa(remetente.endereco(), destinatario.endereco(),
+                        cursor.dataEnvio(), cursor.id() == null ? Long.MIN_VALUE : cursor.id(), pagina);
 
-            }
+        List<TransportadorEntity> cronologica = new ArrayList<>(entidades);
+        Collections.reverse(cronologica);
+        return paraMensagens(cronologica);
+    }
 
+    /**
+     * Recupera uma página de mensagens enviadas por um remetente a um destinatário,
+     * posteriores ao cursor informado.
+     * <p>
+     * Quando o cursor não tem id, somente as mensagens com data de envio posterior
+     * à do cursor são retornadas.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais recente já lida.
+     * @param limite       Quantidade máxima de mensagens da página.
+     * @return As mensagens da página em ordem cronológica, ou uma lista vazia se não houver mensagens.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Mensagem> mensagensPosteriores(Remetente remetente, Destinatario destinatario,
+                                               CursorMensagemRecord cursor, int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero!");
         }
+        Objects.requireNonNull(cursor, "O cursor não pode ser nulo!");
 
-        return mensagensRemetente.isEmpty() ?
-                Collections.emptyList() : List.copyOf(mensagensRemetente);
+        return paraMensagens(transportadorRepository.findPosterioresDaConversa(remetente.endereco(),
+                destinatario.endereco(), cursor.dataEnvio(), cursor.id() == null ? Long.MAX_VALUE : cursor.id(),
+                PageRequest.of(0, limite)));
     }
 
     /**
-     * Atualiza o conjunto de transportadores a partir do repositório.
-     * <p>
-     * Este método recupera todos os transportadores da base de dados e
-     * armazena-os no conjunto de transportadores da classe.
+     * Converte as entidades recuperadas da base de dados em mensagens.
+     *
+     * @param entidades As entidades a serem convertidas.
+     * @return Uma lista imutável de mensagens, ou uma lista vazia se não houver entidades.
      */
-    private void atualizarMensagens() {
-            this.transportadores = transportadorRepository.findAll().stream().collect(Collectors.toSet());
+    private List<Mensagem> paraMensagens(List<TransportadorEntity> entidades) {
+        if (entidades.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Mensagem> mensagens = new ArrayList<>(entidades.size());
+        for (TransportadorEntity entity : entidades) {
+            MensagemBean mensagem = new MensagemBean(entity.getTitulo(), entity.getConteudo(), entity.getDataEnvio());
+            mensagem.setId(entity.getId());
+            mensagens.add(mensagem);
+        }
+        return List.copyOf(mensagens);
     }
 
     /**
@@ -174,13 +235,15 @@ public class ArmazemMensagens implements Armazem {
      * Este método é chamado após o armazenamento de mensagens para registrar
      * informações sobre a operação, incluindo a data, a hora e a quantidade
      * de mensagens armazenadas.
+     *
+     * @param quantidade Quantidade de mensagens gravadas na operação.
      */
-    private void logMensagens() {
+    private void logMensagens(int quantidade) {
         logger.info("\n===============Log de Mensagens================== \n" +
                         "Transportador Gravado na Base de Dados Data: {} " +
                         "\nHora: {} \n" +
                         "Quantidade de Mensagens: {} \n" +
                         "===============Log de Mensagens==================",
-                LocalDate.now(), LocalTime.now(), transportadores.size());
+                LocalDate.now(), LocalTime.now(), quantidade);
     }
 }
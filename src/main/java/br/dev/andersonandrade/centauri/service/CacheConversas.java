@@ -0,0 +1,249 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.JanelaMensagens;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheRecord;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Classe CacheConversas
+ * <p>
+ * Mantém em memória as mensagens recentes de cada sentido de uma conversa, identificado
+ * por {@link ChaveConversaRecord}. Cada conversa guarda uma {@link JanelaMensagens}
+ * limitada, preenchida pela base de dados na primeira leitura e atualizada pelo
+ * {@link CorreioMensagem} quando uma mensagem é recebida e quando ela é armazenada.
+ * <p>
+ * Conversas sem acesso há mais tempo que o limite de inatividade são removidas
+ * periodicamente, e as menos acessadas são removidas quando o número de conversas
+ * ultrapassa o máximo configurado. Escritas e remoções da mesma conversa são operações
+ * atômicas sobre a mesma chave, de modo que a remoção nunca descarta uma mensagem
+ * acrescentada depois da sua decisão.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class CacheConversas {
+
+    private final Logger logger = LoggerFactory.getLogger(CacheConversas.class);
+    private final Map<ChaveConversaRecord, Conversa> conversas = new ConcurrentHashMap<>();
+    private final int maximoConversas;
+    private final int mensagensPorConversa;
+    private final long inatividadeNanos;
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    private final ScheduledExecutorService limpeza;
+
+    /**
+     * Construtor que inicializa o cache e agenda a remoção das conversas inativas.
+     *
+     * @param maximoConversas      Quantidade máxima de conversas mantidas em memória.
+     * @param mensagensPorConversa Quantidade máxima de mensagens recentes de cada conversa.
+     * @param inatividadeMs        Tempo, em milissegundos, sem acesso após o qual a conversa é removida.
+     */
+    @Autowired
+    public CacheConversas(@Value("${centauri.chat.cache.conversas:10000}") int maximoConversas,
+                          @Value("${centauri.chat.cache.mensagens:200}") int mensagensPorConversa,
+                          @Value("${centauri.chat.cache.inatividade-ms:600000}") long inatividadeMs) {
+        if (maximoConversas <= 0 || mensagensPorConversa <= 0 || inatividadeMs <= 0) {
+            throw new IllegalArgumentException("Os limites do cache de conversas devem ser maiores que zero");
+        }
+        this.maximoConversas = maximoConversas;
+        this.mensagensPorConversa = mensagensPorConversa;
+        this.inatividadeNanos = TimeUnit.MILLISECONDS.toNanos(inatividadeMs);
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "cache-conversas-limpeza");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = Math.max(1_000, inatividadeMs / 2);
+        this.limpeza.scheduleWithFixedDelay(this::removerInativas, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retorna as mensagens recentes da conversa, consultando a base de dados somente
+     * na primeira leitura.
+     * <p>
+     * Mensagens recebidas antes da primeira leitura já estão na janela e são mescladas
+     * ao resultado da consulta sem duplicação.
+     *
+     * @param chave    O sentido da conversa.
+     * @param carregar A consulta das mensagens mais recentes na base de dados.
+     * @return As mensagens recentes em ordem cronológica.
+     */
+    public List<Mensagem> mensagens(@NotNull ChaveConversaRecord chave, @NotNull Supplier<List<Mensagem>> carregar) {
+        Conversa conversa = conversa(chave);
+        if (conversa.carregada) {
+            acertos.increment();
+            return conversa.janela.mensagens();
+        }
+        synchronized (conversa) {
+            if (conversa.carregada) {
+                acertos.increment();
+            } else {
+                faltas.increment();
+                conversa.janela.adicionarTodas(carregar.get());
+                conversa.carregada = true;
+            }
+        }
+        return conversa.janela.mensagens();
+    }
+
+    /**
+     * Adiciona uma mensagem recebida à conversa, criando a entrada se necessário.
+     *
+     * @param chave    O sentido da conversa.
+     * @param mensagem A mensagem recebida.
+     */
+    public void adicionar(@NotNull ChaveConversaRecord chave, @NotNull Mensagem mensagem) {
+        conversas.compute(chave, (c, atual) -> {
+            Conversa conversa = atual == null ? new Conversa(mensagensPorConversa) : atual;
+            conversa.janela.adicionar(mensagem);
+            conversa.ultimoAcesso = System.nanoTime();
+            return conversa;
+        });
+        limitar();
+    }
+
+    /**
+     * Atualiza as conversas em cache com as mensagens gravadas no armazém.
+     * <p>
+     * Conversas que não estão em cache são ignoradas; elas serão lidas da base
+     * de dados no próximo acesso.
+     *
+     * @param transportadores Os transportadores gravados.
+     */
+    public void armazenadas(@NotNull List<? extends Transportador> transportadores) {
+        for (Transportador transportador : transportadores) {
+            conversas.computeIfPresent(ChaveConversaRecord.de(transportador.remetente(), transportador.destinatario()),
+                    (chave, conversa) -> {
+                        conversa.janela.adicionar(transportador.mensagem());
+                        return conversa;
+                    });
+        }
+    }
+
+    /**
+     * Remove a conversa do cache.
+     *
+     * @param chave O sentido da conversa.
+     */
+    public void invalidar(@NotNull ChaveConversaRecord chave) {
+        conversas.remove(chave);
+    }
+
+    /**
+     * Retorna os contadores de acertos, faltas e remoções do cache.
+     *
+     * @return As estatísticas do cache.
+     */
+    public EstatisticaCacheRecord estatisticas() {
+        return new EstatisticaCacheRecord(acertos.sum(), faltas.sum(), remocoes.sum(), conversas.size());
+    }
+
+    public int getMensagensPorConversa() {
+        return mensagensPorConversa;
+    }
+
+    /**
+     * Remove as conversas que não são acessadas há mais tempo que o limite de inatividade.
+     */
+    void removerInativas() {
+        long limite = System.nanoTime() - inatividadeNanos;
+        for (ChaveConversaRecord chave : conversas.keySet()) {
+            remover(chave, limite);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        limpeza.shutdownNow();
+    }
+
+    private Conversa conversa(ChaveConversaRecord chave) {
+        Conversa conversa = conversas.compute(chave, (c, atual) -> {
+            Conversa acessada = atual == null ? new Conversa(mensagensPorConversa) : atual;
+            acessada.ultimoAcesso = System.nanoTime();
+            return acessada;
+        });
+        limitar();
+        return conversa;
+    }
+
+    private void limitar() {
+        if (conversas.size() > maximoConversas) {
+            removerExcedentes();
+        }
+    }
+
+    /**
+     * Remove a conversa se ela não foi acessada depois do instante informado. A data do
+     * último acesso é conferida na mesma operação atômica da remoção, e as escritas a
+     * atualizam na mesma operação em que acrescentam a mensagem; assim uma mensagem
+     * acrescentada durante a remoção nunca fica fora do cache.
+     *
+     * @return true se a conversa foi removida.
+     */
+    private boolean remover(ChaveConversaRecord chave, long acessoAte) {
+        boolean[] removida = new boolean[1];
+        conversas.computeIfPresent(chave, (c, conversa) -> {
+            removida[0] = conversa.ultimoAcesso - acessoAte < 0;
+            return removida[0] ? null : conversa;
+        });
+        if (removida[0]) {
+            remocoes.increment();
+        }
+        return removida[0];
+    }
+
+    /**
+     * Remove as conversas acessadas há mais tempo até liberar um décimo do limite,
+     * evitando repetir a ordenação a cada nova conversa.
+     */
+    private synchronized void removerExcedentes() {
+        int excedentes = conversas.size() - maximoConversas;
+        if (excedentes <= 0) {
+            return;
+        }
+        int quantidade = excedentes + Math.max(1, maximoConversas / 10);
+        conversas.entrySet().stream()
+                .map(entrada -> Map.entry(entrada.getKey(), entrada.getValue().ultimoAcesso))
+                .sorted(Map.Entry.comparingByValue())
+                .limit(quantidade)
+                .toList()
+                .forEach(entrada -> remover(entrada.getKey(), entrada.getValue() + 1));
+        logger.debug("{} conversas removidas do cache por excesso de entradas", quantidade);
+    }
+
+    /**
+     * Janela de mensagens de uma conversa e o seu último acesso.
+     */
+    private static final class Conversa {
+        private final JanelaMensagens janela;
+        private volatile boolean carregada;
+        private volatile long ultimoAcesso;
+
+        private Conversa(int capacidade) {
+            this.janela = new JanelaMensagens(capacidade);
+        }
+    }
+}
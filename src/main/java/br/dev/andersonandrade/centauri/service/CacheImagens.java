@@ -0,0 +1,187 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheImagensRecord;
+import br.dev.andersonandrade.centauri.record.ImagemEmCacheRecord;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classe CacheImagens
+ * <p>
+ * Mantém em memória as imagens mais acessadas das publicações, identificadas pelo id da
+ * publicação e pela largura da cópia, para que a página inicial, que exibe uma imagem por publicação, não consulte
+ * a base de dados nem leia o disco a cada imagem. Cada entrada guarda os bytes do arquivo,
+ * o tipo de conteúdo e a ETag da resposta.
+ * <p>
+ * O cache é limitado pela soma dos bytes das imagens, e não pela quantidade: quando o
+ * limite é ultrapassado, as imagens acessadas há mais tempo são removidas. Imagens maiores
+ * que o tamanho máximo configurado não entram no cache e continuam sendo lidas do disco.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class CacheImagens {
+
+    private final Logger logger = LoggerFactory.getLogger(CacheImagens.class);
+    private final Map<Chave, Entrada> imagens = new ConcurrentHashMap<>();
+    private final long orcamento;
+    private final long maximoImagem;
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+
+    /**
+     * Construtor que inicializa o cache.
+     *
+     * @param orcamento    Limite da soma dos bytes das imagens guardadas.
+     * @param maximoImagem Tamanho máximo, em bytes, de uma imagem guardada.
+     */
+    @Autowired
+    public CacheImagens(@Value("${centauri.imagens.cache.bytes:67108864}") long orcamento,
+                        @Value("${centauri.imagens.cache.maximo-imagem:1048576}") long maximoImagem) {
+        if (orcamento <= 0 || maximoImagem <= 0) {
+            throw new IllegalArgumentException("Os limites do cache de imagens devem ser maiores que zero");
+        }
+        this.orcamento = orcamento;
+        this.maximoImagem = Math.min(maximoImagem, orcamento);
+    }
+
+    /**
+     * Retorna a imagem guardada da publicação, contando o acerto ou a falta.
+     *
+     * @param idPublicacao O id da publicação.
+     * @param largura      A largura da cópia, ou null para a imagem original.
+     * @return A imagem guardada, ou null se ela não estiver no cache.
+     */
+    public ImagemEmCacheRecord buscar(@NotNull Long idPublicacao, LarguraImagem largura) {
+        Entrada entrada = imagens.get(new Chave(idPublicacao, largura));
+        if (entrada == null) {
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        entrada.ultimoAcesso = System.nanoTime();
+        return entrada.imagem;
+    }
+
+    /**
+     * Indica se uma imagem do tamanho informado pode entrar no cache.
+     *
+     * @param tamanho O tamanho da imagem em bytes.
+     * @return true se a imagem não ultrapassa o tamanho máximo.
+     */
+    public boolean admite(long tamanho) {
+        return tamanho <= maximoImagem;
+    }
+
+    /**
+     * Guarda a imagem da publicação, removendo as acessadas há mais tempo se o limite de
+     * bytes for ultrapassado. Imagens maiores que o tamanho máximo são ignoradas.
+     *
+     * @param idPublicacao O id da publicação.
+     * @param largura      A largura da cópia, ou null para a imagem original.
+     * @param imagem       A imagem lida do disco.
+     */
+    public void guardar(@NotNull Long idPublicacao, LarguraImagem largura, @NotNull ImagemEmCacheRecord imagem) {
+        if (!admite(imagem.bytes().length)) {
+            return;
+        }
+        Entrada anterior = imagens.put(new Chave(idPublicacao, largura), new Entrada(imagem));
+        bytes.addAndGet(imagem.bytes().length - (anterior == null ? 0 : anterior.imagem.bytes().length));
+        if (bytes.get() > orcamento) {
+            removerExcedentes();
+        }
+    }
+
+    /**
+     * Remove a imagem original e as cópias da publicação do cache.
+     *
+     * @param idPublicacao O id da publicação.
+     */
+    public void invalidar(@NotNull Long idPublicacao) {
+        remover(new Chave(idPublicacao, null));
+        for (LarguraImagem largura : LarguraImagem.values()) {
+            remover(new Chave(idPublicacao, largura));
+        }
+    }
+
+    /**
+     * Retorna os acertos, as faltas, as remoções, os bytes guardados e a taxa de acertos
+     * do cache.
+     *
+     * @return As estatísticas do cache.
+     */
+    public EstatisticaCacheImagensRecord estatisticas() {
+        long totalAcertos = acertos.sum();
+        long totalFaltas = faltas.sum();
+        long leituras = totalAcertos + totalFaltas;
+        return new EstatisticaCacheImagensRecord(totalAcertos, totalFaltas, remocoes.sum(), imagens.size(),
+                bytes.get(), orcamento, leituras == 0 ? 0 : (double) totalAcertos / leituras);
+    }
+
+    /**
+     * Remove as imagens acessadas há mais tempo até liberar um décimo do limite de bytes,
+     * evitando repetir a ordenação a cada nova imagem.
+     */
+    private synchronized void removerExcedentes() {
+        if (bytes.get() <= orcamento) {
+            return;
+        }
+        long alvo = orcamento - orcamento / 10;
+        int quantidade = 0;
+        for (Chave chave : imagens.entrySet().stream()
+                .sorted(Comparator.comparingLong(entrada -> entrada.getValue().ultimoAcesso))
+                .map(Map.Entry::getKey)
+                .toList()) {
+            if (bytes.get() <= alvo) {
+                break;
+            }
+            if (remover(chave)) {
+                quantidade++;
+            }
+        }
+        logger.debug("{} imagens removidas do cache por excesso de bytes", quantidade);
+    }
+
+    private boolean remover(Chave chave) {
+        Entrada entrada = imagens.remove(chave);
+        if (entrada == null) {
+            return false;
+        }
+        bytes.addAndGet(-entrada.imagem.bytes().length);
+        remocoes.increment();
+        return true;
+    }
+
+    /**
+     * Publicação e largura da cópia guardada; a largura é null na imagem original.
+     */
+    private record Chave(Long idPublicacao, LarguraImagem largura) {
+    }
+
+    /**
+     * Imagem guardada e o seu último acesso.
+     */
+    private static final class Entrada {
+        private final ImagemEmCacheRecord imagem;
+        private volatile long ultimoAcesso = System.nanoTime();
+
+        private Entrada(ImagemEmCacheRecord imagem) {
+            this.imagem = imagem;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheRecord;
+import br.dev.andersonandrade.centauri.record.FragmentoRenderizadoRecord;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Classe CachePaginaInicial
+ * <p>
+ * Guarda os cartões das publicações da página inicial já renderizados, para que a página
+ * mais acessada do blog não percorra o template a cada requisição. A renderização é
+ * identificada pela versão do {@link RankingPublicacoes}, que muda com novas publicações,
+ * edições, desativações e likes que alteram a ordem do ranking; enquanto a versão for a
+ * mesma, o HTML guardado é devolvido.
+ * <p>
+ * Cada renderização tem uma ETag e uma data de alteração, usadas para responder às
+ * requisições condicionais dos navegadores e proxies sem reenviar a página. A ETag inclui
+ * o início desta instância, pois a versão do ranking recomeça a cada inicialização.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class CachePaginaInicial {
+
+    public static final String TEMPLATE_CARTOES = "cartoes";
+
+    private final Logger logger = LoggerFactory.getLogger(CachePaginaInicial.class);
+    private final ITemplateEngine templateEngine;
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder renderizacoes = new LongAdder();
+    private final LongAdder substituicoes = new LongAdder();
+    private volatile FragmentoRenderizadoRecord cartoes;
+
+    /**
+     * Construtor que inicializa o cache.
+     *
+     * @param templateEngine O motor de templates que renderiza os cartões.
+     */
+    @Autowired
+    public CachePaginaInicial(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Retorna os cartões renderizados da versão informada, renderizando-os somente se a
+     * versão guardada for outra.
+     *
+     * @param versao     A versão atual do ranking.
+     * @param variaveis  As variáveis do template, consultadas somente quando é preciso renderizar.
+     * @return Os cartões renderizados.
+     */
+    public FragmentoRenderizadoRecord cartoes(long versao, @NotNull Supplier<Map<String, Object>> variaveis) {
+        FragmentoRenderizadoRecord atual = cartoes;
+        if (atual != null && atual.versao() == versao) {
+            acertos.increment();
+            return atual;
+        }
+        synchronized (this) {
+            atual = cartoes;
+            if (atual != null && atual.versao() >= versao) {
+                acertos.increment();
+                return atual;
+            }
+            String html = templateEngine.process(TEMPLATE_CARTOES,
+                    new Context(Locale.forLanguageTag("pt-BR"), variaveis.get()));
+            long agora = System.currentTimeMillis();
+            FragmentoRenderizadoRecord novo = new FragmentoRenderizadoRecord(versao, html,
+                    "\"" + instancia + "-" + versao + "\"", agora - agora % 1000);
+            renderizacoes.increment();
+            if (atual != null) {
+                substituicoes.increment();
+            }
+            cartoes = novo;
+            logger.debug("Cartões da página inicial renderizados na versão {} do ranking", versao);
+            return novo;
+        }
+    }
+
+    /**
+     * Retorna os acertos, as renderizações e as substituições por nova versão do cache.
+     *
+     * @return As estatísticas do cache.
+     */
+    public EstatisticaCacheRecord estatisticas() {
+        return new EstatisticaCacheRecord(acertos.sum(), renderizacoes.sum(), substituicoes.sum(),
+                cartoes == null ? 0 : 1);
+    }
+}
@@ -0,0 +1,154 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
+import br.dev.andersonandrade.centauri.record.MostarMensagemChat;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe CanalChat
+ * <p>
+ * Entrega as mensagens do chat aos navegadores por Server-Sent Events. Cada assinatura
+ * corresponde a um sentido de conversa, identificado por {@link ChaveConversaRecord}:
+ * quem está com a conversa aberta assina as mensagens que o contato envia para ele e
+ * recebe cada nova mensagem assim que ela é enviada, sem consultar o servidor
+ * periodicamente.
+ * <p>
+ * Assinaturas concluídas, expiradas ou com falha de envio são removidas. Um comentário
+ * é enviado periodicamente para manter a conexão aberta em proxies e detectar clientes
+ * que já se desconectaram.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class CanalChat {
+
+    static final String EVENTO_MENSAGEM = "mensagem";
+
+    private final Logger logger = LoggerFactory.getLogger(CanalChat.class);
+    private final Map<ChaveConversaRecord, Set<SseEmitter>> assinaturas = new ConcurrentHashMap<>();
+    private final long tempoLimiteMs;
+    private final ScheduledExecutorService pulso;
+
+    /**
+     * Construtor que inicializa o canal e agenda o envio periódico do pulso.
+     *
+     * @param tempoLimiteMs Tempo, em milissegundos, após o qual a assinatura expira e o navegador reconecta.
+     * @param intervaloPulsoMs Intervalo, em milissegundos, entre os pulsos enviados às assinaturas.
+     */
+    @Autowired
+    public CanalChat(@Value("${centauri.chat.eventos.tempo-limite-ms:1800000}") long tempoLimiteMs,
+                     @Value("${centauri.chat.eventos.intervalo-pulso-ms:25000}") long intervaloPulsoMs) {
+        if (tempoLimiteMs <= 0 || intervaloPulsoMs <= 0) {
+            throw new IllegalArgumentException("Os tempos do canal de chat devem ser maiores que zero");
+        }
+        this.tempoLimiteMs = tempoLimiteMs;
+        this.pulso = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "canal-chat-pulso");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pulso.scheduleWithFixedDelay(this::pulsar, intervaloPulsoMs, intervaloPulsoMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cria uma assinatura das mensagens enviadas em um sentido da conversa.
+     *
+     * @param chave O sentido da conversa, do contato para quem assina.
+     * @return O emissor de eventos a ser devolvido ao navegador.
+     */
+    public SseEmitter assinar(@NotNull ChaveConversaRecord chave) {
+        return assinar(chave, new SseEmitter(tempoLimiteMs));
+    }
+
+    /**
+     * Publica uma nova mensagem para as assinaturas do sentido da conversa.
+     * <p>
+     * Se não houver assinaturas, nada é enviado.
+     *
+     * @param chave    O sentido da conversa em que a mensagem foi enviada.
+     * @param mensagem A mensagem enviada.
+     */
+    public void publicar(@NotNull ChaveConversaRecord chave, @NotNull Mensagem mensagem) {
+        Set<SseEmitter> emissores = assinaturas.get(chave);
+        if (emissores == null || emissores.isEmpty()) {
+            return;
+        }
+        SseEmitter.SseEventBuilder evento = SseEmitter.event()
+                .name(EVENTO_MENSAGEM)
+                .data(new MostarMensagemChat(mensagem, false), MediaType.APPLICATION_JSON);
+        for (SseEmitter emissor : emissores) {
+            enviar(chave, emissor, evento);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de assinaturas ativas do sentido da conversa.
+     *
+     * @param chave O sentido da conversa.
+     * @return A quantidade de assinaturas.
+     */
+    public int assinantes(@NotNull ChaveConversaRecord chave) {
+        Set<SseEmitter> emissores = assinaturas.get(chave);
+        return emissores == null ? 0 : emissores.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        pulso.shutdownNow();
+        assinaturas.values().forEach(emissores -> emissores.forEach(SseEmitter::complete));
+        assinaturas.clear();
+    }
+
+    SseEmitter assinar(ChaveConversaRecord chave, SseEmitter emissor) {
+        assinaturas.computeIfAbsent(chave, c -> ConcurrentHashMap.newKeySet()).add(emissor);
+        emissor.onCompletion(() -> remover(chave, emissor));
+        emissor.onTimeout(() -> remover(chave, emissor));
+        emissor.onError(erro -> remover(chave, emissor));
+        return emissor;
+    }
+
+    /**
+     * Envia um comentário a todas as assinaturas, removendo as que já foram desconectadas.
+     */
+    void pulsar() {
+        SseEmitter.SseEventBuilder comentario = SseEmitter.event().comment("pulso");
+        assinaturas.forEach((chave, emissores) -> emissores.forEach(emissor -> enviar(chave, emissor, comentario)));
+    }
+
+    private void enviar(ChaveConversaRecord chave, SseEmitter emissor, SseEmitter.SseEventBuilder evento) {
+        try {
+            emissor.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Assinatura da conversa {} -> {} encerrada: {}", chave.remetente(), chave.destinatario(),
+                    e.getMessage());
+            remover(chave, emissor);
+            emissor.completeWithError(e);
+        }
+    }
+
+    private void remover(ChaveConversaRecord chave, SseEmitter emissor) {
+        assinaturas.computeIfPresent(chave, (c, emissores) -> {
+            emissores.remove(emissor);
+            return emissores.isEmpty() ? null : emissores;
+        });
+    }
+}
@@ -0,0 +1,277 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import br.dev.andersonandrade.centauri.record.ImagemSemHashRecord;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import br.dev.andersonandrade.centauri.uteis.ArmazenamentoImagemUtil;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Classe ColetorImagensOrfas
+ * <p>
+ * Remove periodicamente as imagens que nenhuma publicação ativa usa mais, deixadas para
+ * trás quando publicações são editadas ou desativadas. Como as imagens são gravadas pelo
+ * hash do conteúdo, a mesma imagem pode ser usada por várias publicações; as referências
+ * de cada imagem são contadas pelo hash guardado nas publicações ativas, em lotes de
+ * {@value #TAMANHO_LOTE} arquivos. O hash é o nome do arquivo, por isso a comparação não
+ * depende do caminho da pasta das imagens, que pode mudar de lugar ou ser um link.
+ * <p>
+ * Arquivos alterados há menos tempo que a carência não são removidos: o upload grava a
+ * imagem antes de a publicação ser gravada, e reaproveitar uma imagem renova a sua data.
+ * Cada imagem é movida para uma quarentena antes da última conferência, para que um
+ * upload simultâneo nunca fique com uma imagem removida.
+ * As cópias reduzidas são removidas junto com a original, e os arquivos temporários de
+ * uploads interrompidos também são removidos após a carência. Imagens gravadas antes do
+ * armazenamento por conteúdo não são tocadas.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class ColetorImagensOrfas {
+
+    static final int TAMANHO_LOTE = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(ColetorImagensOrfas.class);
+    private final PublicacaoRepository publicacaoRepository;
+    private final Path raiz;
+    private final long carenciaMs;
+    private final ScheduledExecutorService coleta;
+
+    /**
+     * Construtor que inicializa o coletor e agenda a coleta periódica.
+     *
+     * @param publicacaoRepository O repositório das publicações.
+     * @param intervaloMs          Tempo, em milissegundos, entre as coletas.
+     * @param carenciaMs           Tempo, em milissegundos, desde a última alteração antes
+     *                             do qual um arquivo não é removido.
+     */
+    @Autowired
+    public ColetorImagensOrfas(PublicacaoRepository publicacaoRepository,
+                               @Value("${centauri.imagens.coleta.intervalo-ms:21600000}") long intervaloMs,
+                               @Value("${centauri.imagens.coleta.carencia-ms:3600000}") long carenciaMs) {
+        this(publicacaoRepository, ArmazenamentoImagemUtil.pastaPadrao(), carenciaMs);
+        if (intervaloMs <= 0) {
+            throw new IllegalArgumentException("O intervalo da coleta de imagens deve ser maior que zero");
+        }
+        this.coleta.scheduleWithFixedDelay(this::coletarComSeguranca, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construtor que inicializa o coletor sem agendar a coleta.
+     *
+     * @param publicacaoRepository O repositório das publicações.
+     * @param raiz                 A pasta das imagens.
+     * @param carenciaMs           Tempo, em milissegundos, desde a última alteração antes
+     *                             do qual um arquivo não é removido.
+     */
+    public ColetorImagensOrfas(PublicacaoRepository publicacaoRepository, Path raiz, long carenciaMs) {
+        if (carenciaMs < 0) {
+            throw new IllegalArgumentException("A carência da coleta de imagens não pode ser negativa");
+        }
+        this.publicacaoRepository = publicacaoRepository;
+        this.raiz = raiz;
+        this.carenciaMs = carenciaMs;
+        this.coleta = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "imagens-coleta");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Remove as imagens sem publicação ativa e os arquivos temporários abandonados.
+     * <p>
+     * Se a pasta tem imagens e nenhuma delas é usada por publicações ativas, enquanto há
+     * publicações ativas com imagem, a pasta percorrida não é a das publicações, e nada é
+     * removido.
+     *
+     * @return A quantidade de imagens originais removidas.
+     * @throws IOException se a pasta das imagens não puder ser percorrida.
+     */
+    public int coletar() throws IOException {
+        if (Files.notExists(raiz)) {
+            return 0;
+        }
+        preencherHashes();
+        restaurarQuarentena();
+        List<Path> lote = new ArrayList<>();
+        List<Path> orfas = new ArrayList<>();
+        int referenciadas = 0;
+        try (Stream<Path> arquivos = Files.walk(raiz)) {
+            for (Path arquivo : (Iterable<Path>) arquivos.filter(Files::isRegularFile)::iterator) {
+                String pasta = arquivo.getParent().getFileName().toString();
+                if (pasta.equals(ArmazenamentoImagemUtil.PASTA_TEMPORARIA)) {
+                    if (foraDaCarencia(arquivo)) {
+                        Files.deleteIfExists(arquivo);
+                    }
+                } else if (pasta.equals(ArmazenamentoImagemUtil.PASTA_QUARENTENA)) {
+                    continue;
+                } else if (ArmazenamentoImagemUtil.original(arquivo)) {
+                    lote.add(arquivo);
+                    if (lote.size() == TAMANHO_LOTE) {
+                        referenciadas += separarOrfas(lote, orfas);
+                        lote.clear();
+                    }
+                }
+            }
+        }
+        referenciadas += separarOrfas(lote, orfas);
+        if (!orfas.isEmpty() && referenciadas == 0 && publicacaoRepository.existsByAtivaTrueAndHashImagemIsNotNull()) {
+            logger.error("Nenhuma imagem de {} é usada pelas publicações ativas; coleta cancelada", raiz);
+            return 0;
+        }
+        int removidas = 0;
+        for (Path original : orfas) {
+            if (remover(original)) {
+                removidas++;
+            }
+        }
+        logger.info("{} imagens sem publicação ativa removidas", removidas);
+        return removidas;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        coleta.shutdownNow();
+    }
+
+    private void coletarComSeguranca() {
+        try {
+            coletar();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erro na coleta das imagens sem publicação ativa", e);
+        }
+    }
+
+    /**
+     * Guarda o hash nas publicações gravadas antes de o hash ser guardado junto com o
+     * caminho da imagem. As imagens gravadas antes do armazenamento por conteúdo continuam
+     * sem hash.
+     */
+    private void preencherHashes() {
+        for (ImagemSemHashRecord imagem : publicacaoRepository.findImagensSemHash()) {
+            String hash = ArmazenamentoImagemUtil.hash(imagem.urlImagem());
+            if (hash != null) {
+                publicacaoRepository.atualizarHashImagem(imagem.idPublicacao(), hash);
+            }
+        }
+    }
+
+    /**
+     * Separa as imagens do lote que nenhuma publicação ativa usa e que estão fora da
+     * carência.
+     *
+     * @return A quantidade de imagens do lote usadas por publicações ativas.
+     */
+    private int separarOrfas(List<Path> lote, List<Path> orfas) throws IOException {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenciados = publicacaoRepository.findHashesReferenciados(
+                lote.stream().map(arquivo -> ArmazenamentoImagemUtil.hash(arquivo.toString())).toList());
+        int referenciadas = 0;
+        for (Path original : lote) {
+            if (referenciados.contains(ArmazenamentoImagemUtil.hash(original.toString()))) {
+                referenciadas++;
+            } else if (foraDaCarencia(original)) {
+                orfas.add(original);
+            }
+        }
+        return referenciadas;
+    }
+
+    /**
+     * Remove a imagem se ela continuar sem publicação ativa e fora da carência. A imagem é
+     * antes movida para a quarentena, e só então as referências e a data são conferidas de
+     * novo: um upload que reaproveitou a imagem antes da troca renovou a data, e um upload
+     * posterior não encontra o arquivo e grava o seu próprio. Assim a conferência e a
+     * remoção não disputam com o upload.
+     */
+    private boolean remover(Path original) throws IOException {
+        Path quarentena = raiz.resolve(ArmazenamentoImagemUtil.PASTA_QUARENTENA).resolve(original.getFileName());
+        Files.createDirectories(quarentena.getParent());
+        try {
+            Files.move(original, quarentena, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        String hash = ArmazenamentoImagemUtil.hash(original.toString());
+        if (!foraDaCarencia(quarentena) || publicacaoRepository.findHashesReferenciados(List.of(hash)).contains(hash)) {
+            restaurar(quarentena, original);
+            return false;
+        }
+        Files.delete(quarentena);
+        if (Files.notExists(original)) {
+            for (LarguraImagem largura : LarguraImagem.values()) {
+                Files.deleteIfExists(largura.caminho(original));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devolve ao lugar as imagens deixadas na quarentena por uma coleta interrompida.
+     */
+    private void restaurarQuarentena() throws IOException {
+        Path pasta = raiz.resolve(ArmazenamentoImagemUtil.PASTA_QUARENTENA);
+        if (Files.notExists(pasta)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                String hash = ArmazenamentoImagemUtil.hash(arquivo.toString());
+                if (hash != null) {
+                    restaurar(arquivo, ArmazenamentoImagemUtil.caminho(raiz, hash,
+                            FilenameUtils.getExtension(arquivo.toString())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Devolve a imagem da quarentena. Se um upload já gravou a mesma imagem no lugar, a
+     * cópia da quarentena, de conteúdo igual, é descartada.
+     */
+    private static void restaurar(Path quarentena, Path original) throws IOException {
+        Files.createDirectories(original.getParent());
+        try {
+            Files.move(quarentena, original);
+        } catch (FileAlreadyExistsException e) {
+            Files.delete(quarentena);
+        }
+    }
+
+    /**
+     * Indica se o arquivo foi alterado há mais tempo que a carência. A data é lida de novo
+     * antes da remoção, pois um upload pode ter reaproveitado o arquivo durante a coleta.
+     */
+    private boolean foraDaCarencia(Path arquivo) throws IOException {
+        try {
+            return Files.getLastModifiedTime(arquivo).toMillis() < System.currentTimeMillis() - carenciaMs;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+}
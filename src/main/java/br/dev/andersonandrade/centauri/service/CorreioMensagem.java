@@ -1,29 +1,65 @@
 package br.dev.andersonandrade.centauri.service;
 
+import br.dev.andersonandrade.centauri.beans.JanelaMensagens;
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.enumeradores.PoliticaSaturacao;
 import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
 import br.dev.andersonandrade.centauri.exceptions.MensagemException;
 import br.dev.andersonandrade.centauri.interfaces.*;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
+import br.dev.andersonandrade.centauri.record.ConfiguracaoFilaRecord;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
+import br.dev.andersonandrade.centauri.record.EntradaDiarioRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaFilaRecord;
 import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import jakarta.annotation.PreDestroy;
 import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.annotation.ApplicationScope;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Classe CorreioMensagem
  * <p>
  * Implementação da interface Mensageiro, responsável por gerenciar o envio de mensagens
  * entre remetentes e destinatários. As mensagens são armazenadas em filas de acordo
- * com a prioridade e são enviadas para o armazém em intervalos regulares.
+ * com a prioridade e são enviadas para o armazém em lotes.
+ * <p>
+ * Cada prioridade tem um consumidor próprio que grava o lote assim que ele atinge o
+ * tamanho configurado ou quando a mensagem mais antiga do lote atinge a latência máxima,
+ * o que ocorrer primeiro. Com pouco tráfego as mensagens urgentes chegam à base em
+ * milissegundos; sob carga os lotes crescem até o limite e o número de gravações cai.
+ * <p>
+ * Cada fila tem capacidade limitada e é escoada com {@code drainTo}, de modo que nenhuma
+ * mensagem recebida durante o escoamento é perdida. Quando a
+ * fila está cheia, a {@link PoliticaSaturacao} configurada decide se a mensagem é
+ * recusada, se o remetente aguarda espaço ou se ele mesmo grava um lote no armazém.
+ * <p>
+ * Toda mensagem aceita é registrada antes no {@link DiarioMensagens} e confirmada nele
+ * depois de gravada no armazém. Na inicialização, as entradas pendentes do diário são
+ * devolvidas às filas antes de os consumidores começarem.
+ * <p>
+ * As mensagens recentes de cada conversa são mantidas no {@link CacheConversas}, que
+ * recebe cada mensagem aceita e cada lote armazenado.
  *
  * @author Anderson Andrade Dev
  * @date 28/09/2024
@@ -33,39 +69,95 @@ import java.util.concurrent.TimeUnit;
 @ApplicationScope
 public class CorreioMensagem implements Mensageiro {
 
+    private static final long PAUSA_APOS_FALHA_MS = 1_000;
+
     @Qualifier("armazemMensagens")
     private final Armazem armazem;
 
-    private final Queue<Transportador> transportadoresUrgente;
-    private final Queue<Transportador> transportadoresNormal;
-    private final Queue<Transportador> transportadoresBaixa;
-    private final ScheduledExecutorService scheduledExecutorService;
+    private final DiarioMensagens diario;
+    private final CacheConversas cache;
+    private final Map<Prioridade, FilaPrioridade> filas;
+    private final PoliticaSaturacao politicaSaturacao;
+    private final long esperaSaturacaoMs;
+    private final ExecutorService consumidores;
+    private final AtomicBoolean iniciado = new AtomicBoolean();
+    private final Logger logger = LoggerFactory.getLogger(CorreioMensagem.class);
 
     /**
-     * Construtor que inicializa a classe CorreioMensagem.
+     * Construtor que inicializa a classe CorreioMensagem e inicia o escoamento das filas.
+     * <p>
+     * O lote e a latência máxima de cada prioridade são lidos das propriedades
+     * {@code centauri.correio.<prioridade>.lote} e {@code centauri.correio.<prioridade>.latencia-maxima-ms},
+     * com os valores padrão definidos em {@link Prioridade}. As entradas pendentes do diário
+     * são reprocessadas antes de o escoamento começar.
      *
-     * @param armazem O repositório para gerenciar a persistência das mensagens.
+     * @param armazem           O repositório para gerenciar a persistência das mensagens.
+     * @param diario            O diário onde as mensagens aceitas são registradas até serem armazenadas.
+     * @param cache             O cache das mensagens recentes de cada conversa.
+     * @param capacidade        Quantidade máxima de mensagens pendentes em cada fila de prioridade.
+     * @param politicaSaturacao O comportamento adotado quando uma fila está cheia.
+     * @param esperaSaturacaoMs Tempo máximo, em milissegundos, que o remetente aguarda espaço
+     *                          na fila com a política {@link PoliticaSaturacao#BLOQUEAR}.
+     * @param environment       O ambiente de onde são lidas as configurações de cada prioridade.
      */
     @Autowired
-    public CorreioMensagem(@NotNull Armazem armazem) {
-        this.transportadoresUrgente = new ConcurrentLinkedQueue<>();
-        this.transportadoresNormal = new ConcurrentLinkedQueue<>();
-        this.transportadoresBaixa = new ConcurrentLinkedQueue<>();
-        this.scheduledExecutorService = Executors.newScheduledThreadPool(4);
-        this.armazem = armazem;
+    public CorreioMensagem(@NotNull Armazem armazem,
+                           @NotNull DiarioMensagens diario,
+                           @NotNull CacheConversas cache,
+                           @Value("${centauri.correio.capacidade:10000}") int capacidade,
+                           @Value("${centauri.correio.saturacao:BLOQUEAR}") PoliticaSaturacao politicaSaturacao,
+                           @Value("${centauri.correio.espera-saturacao-ms:200}") long esperaSaturacaoMs,
+                           @NotNull Environment environment) {
+        this(armazem, diario, cache, capacidade, politicaSaturacao, esperaSaturacaoMs, configuracoes(environment));
+        this.reprocessarDiario();
         this.gerenciarMensagens();
     }
 
+    /**
+     * Construtor que inicializa a classe CorreioMensagem com configurações explícitas.
+     * <p>
+     * As filas só passam a ser escoadas automaticamente após a chamada de {@link #gerenciarMensagens()}.
+     *
+     * @param armazem           O repositório para gerenciar a persistência das mensagens.
+     * @param diario            O diário onde as mensagens aceitas são registradas até serem armazenadas.
+     * @param cache             O cache das mensagens recentes de cada conversa.
+     * @param capacidade        Quantidade máxima de mensagens pendentes em cada fila de prioridade.
+     * @param politicaSaturacao O comportamento adotado quando uma fila está cheia.
+     * @param esperaSaturacaoMs Tempo máximo, em milissegundos, que o remetente aguarda espaço
+     *                          na fila com a política {@link PoliticaSaturacao#BLOQUEAR}.
+     * @param configuracoes     O lote e a latência máxima de cada prioridade.
+     */
+    public CorreioMensagem(@NotNull Armazem armazem, @NotNull DiarioMensagens diario,
+                           @NotNull CacheConversas cache, int capacidade, @NotNull PoliticaSaturacao politicaSaturacao,
+                           long esperaSaturacaoMs, @NotNull Map<Prioridade, ConfiguracaoFilaRecord> configuracoes) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("A capacidade das filas deve ser maior que zero");
+        }
+        this.armazem = armazem;
+        this.diario = diario;
+        this.cache = cache;
+        this.filas = new EnumMap<>(Prioridade.class);
+        for (Prioridade prioridade : Prioridade.values()) {
+            this.filas.put(prioridade, new FilaPrioridade(capacidade,
+                    configuracoes.getOrDefault(prioridade, ConfiguracaoFilaRecord.padrao(prioridade))));
+        }
+        this.politicaSaturacao = politicaSaturacao;
+        this.esperaSaturacaoMs = esperaSaturacaoMs;
+        this.consumidores = Executors.newFixedThreadPool(Prioridade.values().length);
+    }
+
     /**
      * Recebe uma mensagem e a adiciona à fila apropriada com base na prioridade.
      * <p>
      * Este método valida a mensagem, o destinatário e o remetente antes de
-     * adicioná-los às filas de transporte.
+     * adicioná-los às filas de transporte. A mensagem é registrada no diário
+     * antes de entrar na fila, e a entrada é descartada se a fila a recusar.
      *
      * @param destinatario O destinatário da mensagem.
      * @param remetente    O remetente da mensagem.
      * @param mensagem     A mensagem a ser enviada.
      * @param prioridade   A prioridade da mensagem.
+     * @throws MensagemException se a fila da prioridade estiver cheia e a mensagem não puder ser aceita.
      */
     @Override
     public void recebeMensagem(Destinatario destinatario, Remetente remetente, Mensagem mensagem, Prioridade prioridade) {
@@ -73,47 +165,300 @@ public class CorreioMensagem implements Mensageiro {
         validarDestinatario(destinatario);
         validarRemetente(remetente);
 
-        // Adiciona a mensagem à fila de acordo com a prioridade
-        switch (prioridade) {
-            case URGENTE -> transportadoresUrgente.add(new TransportadorRecord(destinatario, remetente, mensagem));
-            case NORMAL -> transportadoresNormal.add(new TransportadorRecord(destinatario, remetente, mensagem));
-            case BAIXA -> transportadoresBaixa.add(new TransportadorRecord(destinatario, remetente, mensagem));
+        FilaPrioridade fila = filas.get(prioridade);
+        EntradaDiarioRecord entrada = diario.registrar(prioridade,
+                new TransportadorRecord(destinatario, remetente, mensagem));
+        if (!enfileirar(prioridade, entrada)) {
+            diario.confirmar(List.of(entrada.sequencia()));
+            fila.descartadas.increment();
+            logger.warn("Fila de prioridade {} cheia, mensagem recusada", prioridade);
+            throw new MensagemException("Erro! fila de mensagens " + prioridade.getPrioridade()
+                    + " está cheia, tente novamente mais tarde!");
         }
+        fila.enfileiradas.increment();
+        cache.adicionar(ChaveConversaRecord.de(remetente, destinatario), mensagem);
+    }
+
+    /**
+     * Devolve às filas as entradas do diário que não chegaram a ser armazenadas.
+     * <p>
+     * Entradas cuja mensagem já está no armazém, porque a confirmação se perdeu, são
+     * apenas confirmadas. Se uma fila encher durante o reprocessamento, um lote é gravado
+     * antes de continuar; entradas que ainda assim não couberem permanecem no diário
+     * para a próxima inicialização.
+     */
+    void reprocessarDiario() {
+        List<EntradaDiarioRecord> entradas = diario.recuperar();
+        if (entradas.isEmpty()) {
+            return;
+        }
+        List<Long> jaArmazenadas = new ArrayList<>();
+        int reenfileiradas = 0;
+        for (EntradaDiarioRecord entrada : entradas) {
+            if (armazem.contem(entrada)) {
+                jaArmazenadas.add(entrada.sequencia());
+                continue;
+            }
+            FilaPrioridade fila = filas.get(entrada.prioridade());
+            if (fila.transportadores.offer(entrada)
+                    || (gravarLote(entrada.prioridade()) > 0 && fila.transportadores.offer(entrada))) {
+                fila.enfileiradas.increment();
+                reenfileiradas++;
+            } else {
+                logger.warn("Entrada {} do diário mantida para a próxima inicialização", entrada.sequencia());
+            }
+        }
+        diario.confirmar(jaArmazenadas);
+        logger.info("Diário reprocessado: {} mensagens devolvidas às filas, {} já armazenadas",
+                reenfileiradas, jaArmazenadas.size());
     }
 
     /**
      * Gerencia o envio de mensagens das filas para o armazém.
      * <p>
-     * Este método utiliza um agendador para enviar mensagens das filas
-     * com base na prioridade, armazenando as mensagens no armazém
-     * em intervalos regulares.
+     * Este método inicia um consumidor para cada prioridade, que grava as mensagens
+     * no armazém assim que o lote fica completo ou a latência máxima é atingida.
+     * Chamadas repetidas não iniciam novos consumidores.
      */
     @Override
     public void gerenciarMensagens() {
-        Runnable prioridadeUrgente = () -> {
-            if (!transportadoresUrgente.isEmpty()) {
-                armazem.armazenar(transportadoresUrgente.stream().toList());
-                transportadoresUrgente.clear();
+        if (!iniciado.compareAndSet(false, true)) {
+            return;
+        }
+        for (Prioridade prioridade : Prioridade.values()) {
+            consumidores.execute(() -> consumir(prioridade));
+        }
+    }
+
+    /**
+     * Escoa a fila de uma prioridade para o armazém em lotes de tamanho limitado.
+     * <p>
+     * Somente as mensagens presentes no início do escoamento são consideradas, evitando
+     * que um fluxo contínuo de novas mensagens prenda a tarefa indefinidamente. Se o
+     * armazém falhar, o lote volta para o início da fila e o escoamento é interrompido
+     * até a próxima execução.
+     *
+     * @param prioridade A prioridade da fila a ser escoada.
+     * @return A quantidade de mensagens gravadas no armazém.
+     */
+    int escoar(Prioridade prioridade) {
+        FilaPrioridade fila = filas.get(prioridade);
+        int restantes = fila.transportadores.size();
+        int total = 0;
+        while (restantes > 0) {
+            List<Transportador> lote = new ArrayList<>(Math.min(fila.configuracao.lote(), restantes));
+            fila.transportadores.drainTo(lote, fila.configuracao.lote());
+            int gravadas = gravar(prioridade, lote);
+            if (gravadas == 0) {
+                break;
             }
-        };
+            total += gravadas;
+            restantes -= gravadas;
+        }
+        return total;
+    }
+
+    /**
+     * Retorna os contadores de cada fila de prioridade.
+     *
+     * @return Uma lista com as estatísticas das filas, na ordem das prioridades.
+     */
+    public List<EstatisticaFilaRecord> estatisticas() {
+        return Arrays.stream(Prioridade.values())
+                .map(prioridade -> {
+                    FilaPrioridade fila = filas.get(prioridade);
+                    return new EstatisticaFilaRecord(prioridade, fila.enfileiradas.sum(), fila.persistidas.sum(),
+                            fila.descartadas.sum(), fila.transportadores.size(), fila.capacidade);
+                })
+                .toList();
+    }
 
-        Runnable prioridadeNormal = () -> {
-            if (!transportadoresNormal.isEmpty()) {
-                armazem.armazenar(transportadoresNormal.stream().toList());
-                transportadoresNormal.clear();
+    /**
+     * Encerra os consumidores e grava no armazém as mensagens que ainda estão nas filas.
+     */
+    @PreDestroy
+    public void encerrar() {
+        consumidores.shutdownNow();
+        try {
+            if (!consumidores.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warn("Consumidores do correio não terminaram no tempo esperado");
             }
-        };
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Prioridade prioridade : Prioridade.values()) {
+            escoar(prioridade);
+        }
+    }
 
-        Runnable prioridadeBaixa = () -> {
-            if (!transportadoresBaixa.isEmpty()) {
-                armazem.armazenar(transportadoresBaixa.stream().toList());
-                transportadoresBaixa.clear();
+    /**
+     * Laço do consumidor de uma prioridade.
+     * <p>
+     * Aguarda a primeira mensagem sem consumir processador e, a partir dela, acumula
+     * mensagens até completar o lote ou até esgotar a latência máxima. Ao ser interrompido,
+     * grava o lote em andamento antes de terminar. Se o armazém falhar, o consumidor
+     * pausa antes de tentar novamente, evitando repetir a gravação sem intervalo.
+     *
+     * @param prioridade A prioridade da fila consumida.
+     */
+    private void consumir(Prioridade prioridade) {
+        FilaPrioridade fila = filas.get(prioridade);
+        int tamanhoLote = fila.configuracao.lote();
+        long latenciaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(fila.configuracao.latenciaMaximaMs());
+        List<Transportador> lote = new ArrayList<>(tamanhoLote);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(fila.transportadores.take());
+                long prazo = System.nanoTime() + latenciaMaximaNanos;
+                while (lote.size() < tamanhoLote) {
+                    if (fila.transportadores.drainTo(lote, tamanhoLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long restante = prazo - System.nanoTime();
+                    Transportador proximo = restante > 0
+                            ? fila.transportadores.poll(restante, TimeUnit.NANOSECONDS) : null;
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                boolean falhou = gravarComSeguranca(prioridade, lote) == 0 && !lote.isEmpty();
+                lote = new ArrayList<>(tamanhoLote);
+                if (falhou) {
+                    pausarAposFalha();
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava o lote sem deixar que uma exceção inesperada encerre o consumidor.
+     *
+     * @param prioridade A prioridade da fila de origem do lote.
+     * @param lote       O lote a ser gravado.
+     * @return A quantidade de mensagens gravadas.
+     */
+    private int gravarComSeguranca(Prioridade prioridade, List<Transportador> lote) {
+        try {
+            return gravar(prioridade, lote);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao escoar a fila de prioridade {}", prioridade, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Aguarda um intervalo antes de uma nova tentativa de gravação.
+     */
+    private void pausarAposFalha() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(PAUSA_APOS_FALHA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tenta colocar o transportador na fila, aplicando a política de saturação se ela estiver cheia.
+     *
+     * @param prioridade    A prioridade da fila.
+     * @param transportador O transportador da mensagem.
+     * @return true se o transportador foi aceito na fila.
+     */
+    private boolean enfileirar(Prioridade prioridade, Transportador transportador) {
+        BlockingDeque<Transportador> transportadores = filas.get(prioridade).transportadores;
+        if (transportadores.offer(transportador)) {
+            return true;
+        }
+        return switch (politicaSaturacao) {
+            case REJEITAR -> false;
+            case BLOQUEAR -> {
+                try {
+                    yield transportadores.offer(transportador, esperaSaturacaoMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    yield false;
+                }
+            }
+            case ESCOAR -> {
+                gravarLote(prioridade);
+                yield transportadores.offer(transportador);
             }
         };
+    }
+
+    /**
+     * Retira até um lote da fila e o grava no armazém.
+     *
+     * @param prioridade A prioridade da fila.
+     * @return A quantidade de mensagens gravadas.
+     */
+    private int gravarLote(Prioridade prioridade) {
+        FilaPrioridade fila = filas.get(prioridade);
+        List<Transportador> lote = new ArrayList<>(fila.configuracao.lote());
+        fila.transportadores.drainTo(lote, fila.configuracao.lote());
+        return gravar(prioridade, lote);
+    }
+
+    /**
+     * Grava um lote retirado da fila no armazém e confirma as suas entradas no diário.
+     *
+     * @param prioridade A prioridade da fila de origem do lote.
+     * @param lote       O lote a ser gravado.
+     * @return A quantidade de mensagens gravadas, ou zero se o lote estava vazio ou o armazém falhou.
+     */
+    private int gravar(Prioridade prioridade, List<Transportador> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        FilaPrioridade fila = filas.get(prioridade);
+        try {
+            armazem.armazenar(lote);
+            fila.persistidas.add(lote.size());
+            diario.confirmar(sequencias(lote));
+            cache.armazenadas(lote);
+            return lote.size();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao armazenar {} mensagens de prioridade {}, devolvendo à fila",
+                    lote.size(), prioridade, e);
+            devolver(fila, lote);
+            return 0;
+        }
+    }
+
+    /**
+     * Extrai as sequências do diário das entradas de um lote.
+     *
+     * @param lote O lote gravado no armazém.
+     * @return As sequências das entradas do lote registradas no diário.
+     */
+    private List<Long> sequencias(List<Transportador> lote) {
+        List<Long> sequencias = new ArrayList<>(lote.size());
+        for (Transportador transportador : lote) {
+            if (transportador instanceof EntradaDiarioRecord entrada) {
+                sequencias.add(entrada.sequencia());
+            }
+        }
+        return sequencias;
+    }
 
-        scheduledExecutorService.scheduleAtFixedRate(prioridadeUrgente, 0, 60, TimeUnit.SECONDS);
-        scheduledExecutorService.scheduleAtFixedRate(prioridadeNormal, 0, 5 * 60, TimeUnit.SECONDS);
-        scheduledExecutorService.scheduleAtFixedRate(prioridadeBaixa, 0, 10 * 60, TimeUnit.SECONDS);
+    /**
+     * Devolve um lote ao início da fila preservando a ordem original.
+     * Mensagens que não couberem mais na fila são contadas como descartadas.
+     *
+     * @param fila A fila de origem do lote.
+     * @param lote O lote que não pôde ser armazenado.
+     */
+    private void devolver(FilaPrioridade fila, List<Transportador> lote) {
+        for (int i = lote.size() - 1; i >= 0; i--) {
+            if (!fila.transportadores.offerFirst(lote.get(i))) {
+                fila.descartadas.increment();
+                logger.error("Fila cheia, mensagem descartada: {}", lote.get(i));
+            }
+        }
     }
 
     /**
@@ -168,10 +513,12 @@ public class CorreioMensagem implements Mensageiro {
     }
 
     /**
-     * Recupera todas as mensagens associadas a um remetente e um destinatario específico.
+     * Recupera as mensagens recentes enviadas por um remetente a um destinatario específico.
      * <p>
-     * Este método busca nas mensagens armazenadas para encontrar aquelas que
-     * têm o endereço do remetente especificado.
+     * As mensagens são servidas pelo cache de conversas, que consulta o armazém somente
+     * no primeiro acesso à conversa e inclui as mensagens ainda não armazenadas. São
+     * retornadas no máximo as mensagens mais recentes que cabem na janela do cache; as
+     * anteriores podem ser obtidas com {@link Armazem#mensagensAnteriores}.
      *
      * @param remetente O remetente cujas mensagens devem ser recuperadas.
      * @param destinatario remetente cujas mensagens devem ser recuperadas.
@@ -181,9 +528,79 @@ public class CorreioMensagem implements Mensageiro {
         validarRemetente(remetente);
         validarDestinatario(destinatario);
 
-        var mensagens = armazem.mensagens(remetente,destinatario);
+        return cache.mensagens(ChaveConversaRecord.de(remetente, destinatario),
+                () -> armazem.mensagensAnteriores(remetente, destinatario, null, cache.getMensagensPorConversa()));
+    }
 
-        return mensagens.isEmpty() ? List.of() : mensagens;
+    /**
+     * Recupera as mensagens enviadas por um remetente a um destinatário depois do cursor.
+     * <p>
+     * As mensagens armazenadas são lidas por intervalo na base de dados, e as que ainda
+     * aguardam nas filas são incluídas a partir do cache da conversa. As mensagens
+     * pendentes são lidas antes da consulta, de modo que uma mensagem armazenada durante
+     * a leitura aparece em uma das duas fontes e é devolvida uma única vez.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais recente já lida.
+     * @param limite       Quantidade máxima de mensagens.
+     * @return As mensagens mais antigas posteriores ao cursor, em ordem cronológica.
+     */
+    public List<Mensagem> mensagensPosteriores(@NotNull Remetente remetente, @NotNull Destinatario destinatario,
+                                               @NotNull CursorMensagemRecord cursor, int limite) {
+        validarRemetente(remetente);
+        validarDestinatario(destinatario);
+
+        List<Mensagem> pendentes = mensagens(remetente, destinatario).stream()
+                .filter(mensagem -> !(mensagem instanceof MensagemBean bean && bean.getId() != null))
+                .filter(mensagem -> mensagem.getDataEnvio().isAfter(cursor.dataEnvio()))
+                .toList();
+        List<Mensagem> armazenadas = armazem.mensagensPosteriores(remetente, destinatario, cursor, limite);
+        if (pendentes.isEmpty()) {
+            return armazenadas;
+        }
+
+        JanelaMensagens janela = new JanelaMensagens(armazenadas.size() + pendentes.size());
+        janela.adicionarTodas(armazenadas);
+        janela.adicionarTodas(pendentes);
+        List<Mensagem> mensagens = janela.mensagens();
+        return mensagens.size() > limite ? mensagens.subList(0, limite) : mensagens;
+    }
+
+    /**
+     * Recupera uma página de mensagens enviadas por um remetente a um destinatário,
+     * anteriores ao cursor, para a leitura do histórico da conversa.
+     *
+     * @param remetente    O remetente das mensagens.
+     * @param destinatario O destinatário das mensagens.
+     * @param cursor       Posição da mensagem mais antiga já lida, ou null para começar pelas mais recentes.
+     * @param limite       Quantidade máxima de mensagens.
+     * @return As mensagens da página em ordem cronológica.
+     */
+    public List<Mensagem> mensagensAnteriores(@NotNull Remetente remetente, @NotNull Destinatario destinatario,
+                                              CursorMensagemRecord cursor, int limite) {
+        validarRemetente(remetente);
+        validarDestinatario(destinatario);
+
+        return armazem.mensagensAnteriores(remetente, destinatario, cursor, limite);
+    }
+
+    /**
+     * Lê a configuração de escoamento de cada prioridade a partir do ambiente.
+     *
+     * @param environment O ambiente da aplicação.
+     * @return O lote e a latência máxima de cada prioridade.
+     */
+    private static Map<Prioridade, ConfiguracaoFilaRecord> configuracoes(Environment environment) {
+        Map<Prioridade, ConfiguracaoFilaRecord> configuracoes = new EnumMap<>(Prioridade.class);
+        for (Prioridade prioridade : Prioridade.values()) {
+            String prefixo = "centauri.correio." + prioridade.name().toLowerCase() + ".";
+            configuracoes.put(prioridade, new ConfiguracaoFilaRecord(
+                    environment.getProperty(prefixo + "lote", Integer.class, prioridade.getLotePadrao()),
+                    environment.getProperty(prefixo + "latencia-maxima-ms", Long.class,
+                            prioridade.getLatenciaMaximaPadraoMs())));
+        }
+        return configuracoes;
     }
 
     /**
@@ -242,4 +659,22 @@ public class CorreioMensagem implements Mensageiro {
             throw new MensagemException("Erro! nome do remetente não pode ser nulo ou em branco!");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fila de uma prioridade, sua configuração de escoamento e seus contadores.
+     */
+    private static final class FilaPrioridade {
+        private final BlockingDeque<Transportador> transportadores;
+        private final int capacidade;
+        private final ConfiguracaoFilaRecord configuracao;
+        private final LongAdder enfileiradas = new LongAdder();
+        private final LongAdder persistidas = new LongAdder();
+        private final LongAdder descartadas = new LongAdder();
+
+        private FilaPrioridade(int capacidade, ConfiguracaoFilaRecord configuracao) {
+            this.transportadores = new LinkedBlockingDeque<>(capacidade);
+            this.capacidade = capacidade;
+            this.configuracao = configuracao;
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+import br.dev.andersonandrade.centauri.exceptions.MensagemException;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.EntradaDiarioRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Classe DiarioMensagens
+ * <p>
+ * Diário de escrita antecipada das mensagens recebidas pelo {@link CorreioMensagem}.
+ * Cada mensagem é anexada a um arquivo de segmento antes de entrar na fila em memória
+ * e só deixa de ser necessária depois que o armazém confirma a sua gravação. Na
+ * inicialização, as entradas sem confirmação são devolvidas para reprocessamento.
+ * <p>
+ * A sincronização com o disco é feita por grupo: várias threads que registram mensagens
+ * ao mesmo tempo compartilham uma única chamada a {@link FileChannel#force(boolean)}.
+ * As confirmações são anexadas ao mesmo arquivo sem sincronização própria; segmentos
+ * cujas entradas já foram todas confirmadas são apagados e o segmento atual é
+ * truncado quando não resta nenhuma entrada pendente.
+ * <p>
+ * Cada registro tem o formato {@code [tamanho][crc32][corpo]}; um registro incompleto
+ * ou corrompido no final de um segmento, resultado de uma queda durante a escrita,
+ * é ignorado na recuperação.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class DiarioMensagens {
+
+    private static final byte TIPO_MENSAGEM = 1;
+    private static final byte TIPO_CONFIRMACAO = 2;
+    private static final String PREFIXO_SEGMENTO = "diario-";
+    private static final String EXTENSAO_SEGMENTO = ".log";
+    private static final int TAMANHO_CABECALHO = Integer.BYTES * 2;
+
+    private final Logger logger = LoggerFactory.getLogger(DiarioMensagens.class);
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final Object escrita = new Object();
+    private final Object sincronizacao = new Object();
+    private final ConcurrentSkipListSet<Long> pendentes = new ConcurrentSkipListSet<>();
+    private final Deque<Segmento> segmentosFechados = new ArrayDeque<>();
+    private List<EntradaDiarioRecord> recuperadas;
+    private volatile Segmento segmentoAtual;
+    private long proximaSequencia;
+    private volatile long bytesEscritos;
+    private volatile long bytesSincronizados;
+
+    /**
+     * Construtor que abre o diário, recupera as entradas pendentes dos segmentos
+     * existentes e inicia um novo segmento para as próximas mensagens.
+     *
+     * @param diretorio       O diretório onde os segmentos do diário são gravados.
+     * @param tamanhoSegmento O tamanho, em bytes, a partir do qual um novo segmento é iniciado.
+     */
+    @Autowired
+    public DiarioMensagens(@Value("${centauri.correio.diario.diretorio:${user.home}/centauri/diario}") String diretorio,
+                           @Value("${centauri.correio.diario.tamanho-segmento:16777216}") long tamanhoSegmento) {
+        if (tamanhoSegmento <= 0) {
+            throw new IllegalArgumentException("O tamanho do segmento do diário deve ser maior que zero");
+        }
+        this.diretorio = Paths.get(diretorio);
+        this.tamanhoSegmento = tamanhoSegmento;
+        try {
+            Files.createDirectories(this.diretorio);
+            this.recuperadas = lerSegmentos();
+            long numero = segmentosFechados.isEmpty() ? 0 : segmentosFechados.peekLast().numero + 1;
+            this.segmentoAtual = abrirSegmento(numero);
+            compactar();
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao abrir o diário de mensagens em " + diretorio, e);
+        }
+        logger.info("Diário de mensagens aberto em {} com {} entradas pendentes", this.diretorio, recuperadas.size());
+    }
+
+    /**
+     * Retorna as entradas não confirmadas encontradas na abertura do diário.
+     * <p>
+     * As entradas continuam pendentes até serem confirmadas, e a lista é
+     * entregue somente uma vez.
+     *
+     * @return As entradas pendentes, na ordem em que foram registradas.
+     */
+    public List<EntradaDiarioRecord> recuperar() {
+        synchronized (escrita) {
+            List<EntradaDiarioRecord> entradas = recuperadas;
+            recuperadas = List.of();
+            return entradas;
+        }
+    }
+
+    /**
+     * Registra o transportador no diário e aguarda a sincronização com o disco.
+     *
+     * @param prioridade    A prioridade com que a mensagem foi recebida.
+     * @param transportador O transportador da mensagem.
+     * @return A entrada registrada, cuja sequência deve ser confirmada após a gravação no armazém.
+     * @throws MensagemException se a mensagem não puder ser gravada no diário.
+     */
+    public EntradaDiarioRecord registrar(@NotNull Prioridade prioridade, @NotNull Transportador transportador) {
+        EntradaDiarioRecord entrada;
+        long posicao;
+        synchronized (escrita) {
+            entrada = new EntradaDiarioRecord(proximaSequencia++, prioridade, transportador);
+            pendentes.add(entrada.sequencia());
+            try {
+                posicao = escrever(codificarMensagem(entrada));
+            } catch (IOException e) {
+                pendentes.remove(entrada.sequencia());
+                throw new MensagemException("Erro! não foi possível registrar a mensagem no diário!", e);
+            }
+            segmentoAtual.ultimaSequencia = entrada.sequencia();
+        }
+        try {
+            sincronizar(posicao);
+        } catch (IOException e) {
+            confirmar(List.of(entrada.sequencia()));
+            throw new MensagemException("Erro! não foi possível registrar a mensagem no diário!", e);
+        }
+        return entrada;
+    }
+
+    /**
+     * Confirma as entradas gravadas no armazém, liberando o espaço que ocupam no diário.
+     * <p>
+     * Uma falha ao registrar a confirmação é apenas registrada em log: no pior caso a
+     * entrada é reprocessada na próxima inicialização e descartada por já estar armazenada.
+     *
+     * @param sequencias As sequências das entradas confirmadas.
+     */
+    public void confirmar(@NotNull Collection<Long> sequencias) {
+        if (sequencias.isEmpty()) {
+            return;
+        }
+        synchronized (escrita) {
+            pendentes.removeAll(sequencias);
+            try {
+                escrever(codificarConfirmacao(sequencias));
+                compactar();
+            } catch (IOException e) {
+                logger.error("Erro ao confirmar {} entradas do diário de mensagens", sequencias.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Retorna a quantidade de entradas ainda não confirmadas.
+     *
+     * @return A quantidade de entradas pendentes.
+     */
+    public int pendentes() {
+        return pendentes.size();
+    }
+
+    /**
+     * Sincroniza e fecha o segmento atual.
+     */
+    @PreDestroy
+    public void fechar() {
+        synchronized (escrita) {
+            synchronized (sincronizacao) {
+                try {
+                    segmentoAtual.canal.force(false);
+                    segmentoAtual.canal.close();
+                } catch (IOException e) {
+                    logger.error("Erro ao fechar o diário de mensagens", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Anexa o registro ao segmento atual, iniciando um novo segmento se o limite de
+     * tamanho for ultrapassado. Deve ser chamado com o monitor de escrita.
+     *
+     * @param registro O registro codificado.
+     * @return A posição lógica do diário após a escrita.
+     * @throws IOException se ocorrer um erro de escrita.
+     */
+    private long escrever(ByteBuffer registro) throws IOException {
+        if (segmentoAtual.tamanho > 0 && segmentoAtual.tamanho + registro.remaining() > tamanhoSegmento) {
+            rotacionar();
+        }
+        int tamanho = registro.remaining();
+        while (registro.hasRemaining()) {
+            segmentoAtual.canal.write(registro);
+        }
+        segmentoAtual.tamanho += tamanho;
+        bytesEscritos += tamanho;
+        return bytesEscritos;
+    }
+
+    /**
+     * Sincroniza o diário com o disco até, no mínimo, a posição informada.
+     * <p>
+     * A thread que obtém o monitor sincroniza tudo o que já foi escrito, de modo que
+     * as threads que aguardavam encontram a sua posição já sincronizada.
+     *
+     * @param posicao A posição lógica que precisa estar no disco.
+     * @throws IOException se ocorrer um erro na sincronização.
+     */
+    private void sincronizar(long posicao) throws IOException {
+        if (bytesSincronizados >= posicao) {
+            return;
+        }
+        synchronized (sincronizacao) {
+            if (bytesSincronizados >= posicao) {
+                return;
+            }
+            long alvo = bytesEscritos;
+            segmentoAtual.canal.force(false);
+            bytesSincronizados = alvo;
+        }
+    }
+
+    /**
+     * Fecha o segmento atual e inicia o próximo. Deve ser chamado com o monitor de escrita.
+     *
+     * @throws IOException se ocorrer um erro ao fechar ou criar os arquivos.
+     */
+    private void rotacionar() throws IOException {
+        synchronized (sincronizacao) {
+            Segmento anterior = segmentoAtual;
+            anterior.canal.force(false);
+            anterior.canal.close();
+            bytesSincronizados = bytesEscritos;
+            segmentosFechados.addLast(anterior);
+            segmentoAtual = abrirSegmento(anterior.numero + 1);
+        }
+    }
+
+    /**
+     * Apaga os segmentos fechados cujas entradas foram todas confirmadas e trunca o
+     * segmento atual se não houver mais entradas pendentes. Deve ser chamado com o
+     * monitor de escrita.
+     *
+     * @throws IOException se ocorrer um erro ao apagar ou truncar os arquivos.
+     */
+    private void compactar() throws IOException {
+        long menorPendente = pendentes.isEmpty() ? Long.MAX_VALUE : pendentes.first();
+        while (!segmentosFechados.isEmpty() && segmentosFechados.peekFirst().ultimaSequencia < menorPendente) {
+            Files.deleteIfExists(segmentosFechados.pollFirst().arquivo);
+        }
+        if (pendentes.isEmpty() && segmentosFechados.isEmpty() && segmentoAtual.tamanho > 0) {
+            synchronized (sincronizacao) {
+                segmentoAtual.canal.truncate(0);
+                segmentoAtual.tamanho = 0;
+                bytesSincronizados = bytesEscritos;
+            }
+        }
+    }
+
+    /**
+     * Lê os segmentos existentes, em ordem, e reconstrói as entradas pendentes.
+     *
+     * @return As entradas registradas e não confirmadas.
+     * @throws IOException se ocorrer um erro de leitura.
+     */
+    private List<EntradaDiarioRecord> lerSegmentos() throws IOException {
+        List<Path> arquivos;
+        try (Stream<Path> listagem = Files.list(diretorio)) {
+            arquivos = listagem
+                    .filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO_SEGMENTO))
+                    .filter(arquivo -> arquivo.getFileName().toString().endsWith(EXTENSAO_SEGMENTO))
+                    .sorted()
+                    .toList();
+        }
+        Map<Long, EntradaDiarioRecord> entradas = new LinkedHashMap<>();
+        Set<Long> confirmadas = new HashSet<>();
+        long maiorSequencia = -1;
+        for (Path arquivo : arquivos) {
+            Segmento segmento = new Segmento(arquivo, numeroSegmento(arquivo), null);
+            segmento.ultimaSequencia = lerSegmento(arquivo, entradas, confirmadas);
+            maiorSequencia = Math.max(maiorSequencia, segmento.ultimaSequencia);
+            segmentosFechados.addLast(segmento);
+        }
+        confirmadas.forEach(entradas::remove);
+        proximaSequencia = maiorSequencia + 1;
+        pendentes.addAll(entradas.keySet());
+        return List.copyOf(entradas.values());
+    }
+
+    /**
+     * Lê os registros de um segmento até o fim do arquivo ou até o primeiro registro inválido.
+     *
+     * @param arquivo     O arquivo do segmento.
+     * @param entradas    O mapa onde as mensagens lidas são acumuladas.
+     * @param confirmadas O conjunto onde as sequências confirmadas são acumuladas.
+     * @return A maior sequência de mensagem encontrada no segmento, ou -1 se não houver nenhuma.
+     * @throws IOException se ocorrer um erro de leitura.
+     */
+    private long lerSegmento(Path arquivo, Map<Long, EntradaDiarioRecord> entradas,
+                             Set<Long> confirmadas) throws IOException {
+        long maiorSequencia = -1;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            while (conteudo.remaining() >= TAMANHO_CABECALHO) {
+                int tamanho = conteudo.getInt();
+                int crc = conteudo.getInt();
+                if (tamanho <= 0 || tamanho > conteudo.remaining()) {
+                    logger.warn("Registro incompleto ignorado no final de {}", arquivo);
+                    break;
+                }
+                ByteBuffer corpo = conteudo.slice(conteudo.position(), tamanho);
+                conteudo.position(conteudo.position() + tamanho);
+                if (crc != crc(corpo.duplicate())) {
+                    logger.warn("Registro corrompido ignorado no final de {}", arquivo);
+                    break;
+                }
+                byte tipo = corpo.get();
+                if (tipo == TIPO_MENSAGEM) {
+                    EntradaDiarioRecord entrada = decodificarMensagem(corpo);
+                    entradas.put(entrada.sequencia(), entrada);
+                    maiorSequencia = Math.max(maiorSequencia, entrada.sequencia());
+                } else if (tipo == TIPO_CONFIRMACAO) {
+                    int quantidade = corpo.getInt();
+                    for (int i = 0; i < quantidade; i++) {
+                        confirmadas.add(corpo.getLong());
+                    }
+                }
+            }
+        }
+        return maiorSequencia;
+    }
+
+    private Segmento abrirSegmento(long numero) throws IOException {
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO_SEGMENTO, numero, EXTENSAO_SEGMENTO));
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return new Segmento(arquivo, numero, canal);
+    }
+
+    private long numeroSegmento(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - EXTENSAO_SEGMENTO.length()));
+    }
+
+    private ByteBuffer codificarMensagem(EntradaDiarioRecord entrada) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream saida = new DataOutputStream(bytes);
+        saida.writeByte(TIPO_MENSAGEM);
+        saida.writeLong(entrada.sequencia());
+        saida.writeByte(entrada.prioridade().ordinal());
+        escreverTexto(saida, entrada.remetente().nome());
+        escreverTexto(saida, entrada.remetente().endereco());
+        escreverTexto(saida, entrada.destinatario().nome());
+        escreverTexto(saida, entrada.destinatario().endereco());
+        escreverTexto(saida, entrada.mensagem().getTitulo());
+        escreverTexto(saida, entrada.mensagem().getConteudo());
+        escreverTexto(saida, entrada.mensagem().getDataEnvio().toString());
+        return registro(bytes.toByteArray());
+    }
+
+    private ByteBuffer codificarConfirmacao(Collection<Long> sequencias) {
+        ByteBuffer corpo = ByteBuffer.allocate(1 + Integer.BYTES + Long.BYTES * sequencias.size());
+        corpo.put(TIPO_CONFIRMACAO);
+        corpo.putInt(sequencias.size());
+        sequencias.forEach(corpo::putLong);
+        return registro(corpo.array());
+    }
+
+    private EntradaDiarioRecord decodificarMensagem(ByteBuffer corpo) {
+        long sequencia = corpo.getLong();
+        Prioridade prioridade = Prioridade.values()[corpo.get()];
+        RemetenteRecord remetente = new RemetenteRecord(lerTexto(corpo), lerTexto(corpo));
+        DestinatarioRecord destinatario = new DestinatarioRecord(lerTexto(corpo), lerTexto(corpo));
+        MensagemBean mensagem = new MensagemBean(lerTexto(corpo), lerTexto(corpo), LocalDateTime.parse(lerTexto(corpo)));
+        return new EntradaDiarioRecord(sequencia, prioridade, new TransportadorRecord(destinatario, remetente, mensagem));
+    }
+
+    private ByteBuffer registro(byte[] corpo) {
+        ByteBuffer registro = ByteBuffer.allocate(TAMANHO_CABECALHO + corpo.length);
+        registro.putInt(corpo.length);
+        registro.putInt(crc(ByteBuffer.wrap(corpo)));
+        registro.put(corpo);
+        return registro.flip();
+    }
+
+    private int crc(ByteBuffer corpo) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(corpo);
+        return (int) crc32.getValue();
+    }
+
+    private void escreverTexto(DataOutputStream saida, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        saida.writeInt(bytes.length);
+        saida.write(bytes);
+    }
+
+    private String lerTexto(ByteBuffer corpo) {
+        byte[] bytes = new byte[corpo.getInt()];
+        corpo.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Arquivo de segmento do diário.
+     */
+    private static final class Segmento {
+        private final Path arquivo;
+        private final long numero;
+        private final FileChannel canal;
+        private long tamanho;
+        private long ultimaSequencia = -1;
+
+        private Segmento(Path arquivo, long numero, FileChannel canal) throws IOException {
+            this.arquivo = arquivo;
+            this.numero = numero;
+            this.canal = canal;
+            this.tamanho = canal == null ? 0 : canal.size();
+        }
+    }
+}
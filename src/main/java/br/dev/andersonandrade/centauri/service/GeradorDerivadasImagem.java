@@ -0,0 +1,295 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.constraints.NotNull;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe GeradorDerivadasImagem
+ * <p>
+ * Gera, fora da requisição de upload, as cópias reduzidas de cada imagem de publicação nas
+ * larguras de {@link LarguraImagem}, para que os cartões da página inicial e as listas do
+ * painel não baixem a imagem original. As cópias são gravadas ao lado da original, no
+ * mesmo formato da original.
+ * <p>
+ * A geração roda em um conjunto limitado de threads com uma fila limitada: decodificar
+ * imagens grandes consome muita memória, e o upload não deve esperar por ela. Imagens com
+ * mais pixels que o limite configurado nunca são decodificadas, e as demais são lidas já
+ * reduzidas. Se a fila estiver cheia, a imagem é ignorada e a original continua sendo
+ * servida até que uma leitura peça a geração novamente. Larguras maiores que a da original não são ampliadas:
+ * a cópia aponta para o mesmo arquivo da original.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class GeradorDerivadasImagem {
+
+    private static final float QUALIDADE_JPEG = 0.85f;
+    private static final long PIXELS_DECODIFICADOS = 8_000_000;
+
+    private final Logger logger = LoggerFactory.getLogger(GeradorDerivadasImagem.class);
+    private final ThreadPoolExecutor executor;
+    private final Set<Path> pendentes = ConcurrentHashMap.newKeySet();
+    private final long maximoPixels;
+
+    /**
+     * Construtor que inicializa as threads de geração das cópias.
+     *
+     * @param threads      Quantidade de imagens processadas ao mesmo tempo.
+     * @param fila         Quantidade máxima de imagens aguardando processamento.
+     * @param maximoPixels Quantidade máxima de pixels, largura vezes altura, de uma imagem aceita.
+     */
+    @Autowired
+    public GeradorDerivadasImagem(@Value("${centauri.imagens.derivadas.threads:2}") int threads,
+                                  @Value("${centauri.imagens.derivadas.fila:200}") int fila,
+                                  @Value("${centauri.imagens.maximo-pixels:50000000}") long maximoPixels) {
+        if (threads <= 0 || fila <= 0 || maximoPixels <= 0) {
+            throw new IllegalArgumentException("As threads, a fila e o limite de pixels da geração de imagens " +
+                    "devem ser maiores que zero");
+        }
+        this.maximoPixels = maximoPixels;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), tarefa -> {
+            Thread thread = new Thread(tarefa, "imagens-derivadas-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Agenda a geração das cópias da imagem. Imagens já agendadas são ignoradas.
+     *
+     * @param original O arquivo da imagem original.
+     */
+    public void gerar(@NotNull Path original) {
+        if (!pendentes.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    criarDerivadas(original);
+                } finally {
+                    pendentes.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendentes.remove(original);
+            logger.warn("Fila de geração de imagens cheia, cópias de {} não geradas", original);
+        }
+    }
+
+    /**
+     * Lê a largura e a altura declaradas no cabeçalho da imagem, sem decodificá-la.
+     *
+     * @param arquivo O arquivo da imagem.
+     * @return A quantidade de pixels declarada, ou -1 se nenhum leitor reconhecer o arquivo.
+     * @throws IOException se o cabeçalho não puder ser lido.
+     */
+    public long pixels(@NotNull Path arquivo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(arquivo.toFile())) {
+            ImageReader leitor = leitor(entrada);
+            if (leitor == null) {
+                return -1;
+            }
+            try {
+                return (long) leitor.getWidth(0) * leitor.getHeight(0);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    public long getMaximoPixels() {
+        return maximoPixels;
+    }
+
+    /**
+     * Gera as cópias da imagem que ainda não existem. Cada cópia é gravada em um arquivo
+     * temporário e movida para o nome final, para que nenhuma leitura encontre uma cópia
+     * incompleta.
+     * <p>
+     * Se a original não puder ser decodificada, por exemplo um JPEG em CMYK, um arquivo
+     * truncado ou uma imagem acima do limite de pixels, todas as cópias passam a apontar
+     * para a original. Assim a falha fica registrada, a decodificação não é repetida a cada
+     * leitura e a original é servida com o cache de longa duração.
+     * <p>
+     * A imagem nunca é ampliada: as larguras iguais ou maiores que a da imagem lida, que
+     * pode ser mais estreita que a original em imagens muito altas, também apontam para
+     * a original.
+     *
+     * @param original O arquivo da imagem original.
+     */
+    public void criarDerivadas(@NotNull Path original) {
+        BufferedImage decodificada;
+        try {
+            decodificada = decodificar(original);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Não foi possível decodificar {}, a original será usada em todas as larguras", original, e);
+            decodificada = null;
+        }
+        try {
+            boolean png = "png".equalsIgnoreCase(FilenameUtils.getExtension(original.toString()));
+            for (LarguraImagem tamanho : LarguraImagem.values()) {
+                Path destino = tamanho.caminho(original);
+                if (Files.exists(destino)) {
+                    continue;
+                }
+                Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+                if (decodificada == null || decodificada.getWidth() <= tamanho.getLargura()) {
+                    vincular(original, temporario);
+                } else {
+                    gravar(reduzir(decodificada, tamanho.getLargura(), png), png, temporario);
+                }
+                Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            logger.debug("Cópias reduzidas de {} geradas", original);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erro ao gerar as cópias reduzidas de {}", original, e);
+        }
+    }
+
+    /**
+     * Decodifica a original já reduzida pela leitura de uma a cada N linhas e colunas, de
+     * forma que o raster na resolução completa nunca seja montado: a imagem lida fica com
+     * no máximo {@value #PIXELS_DECODIFICADOS} pixels e, quando isso permite, pelo menos a
+     * maior largura das cópias.
+     *
+     * @return A imagem lida, ou null se o formato não for reconhecido ou se a imagem passar
+     * do limite de pixels.
+     */
+    private BufferedImage decodificar(Path original) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader leitor = leitor(entrada);
+            if (leitor == null) {
+                logger.warn("Formato de imagem não reconhecido em {}", original);
+                return null;
+            }
+            try {
+                int largura = leitor.getWidth(0);
+                int altura = leitor.getHeight(0);
+                long pixels = (long) largura * altura;
+                if (pixels > maximoPixels) {
+                    logger.warn("Imagem {} com {}x{} pixels passa do limite de {} pixels", original, largura, altura,
+                            maximoPixels);
+                    return null;
+                }
+                int fator = Math.max(1, largura / LarguraImagem.COMPLETA.getLargura());
+                fator = Math.max(fator, (int) Math.ceil(Math.sqrt((double) pixels / PIXELS_DECODIFICADOS)));
+                ImageReadParam parametros = leitor.getDefaultReadParam();
+                parametros.setSourceSubsampling(fator, fator, 0, 0);
+                return leitor.read(0, parametros);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private static ImageReader leitor(ImageInputStream entrada) {
+        if (entrada == null) {
+            return null;
+        }
+        Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+        if (!leitores.hasNext()) {
+            return null;
+        }
+        ImageReader leitor = leitores.next();
+        leitor.setInput(entrada, true, true);
+        return leitor;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reduz a imagem pela metade até chegar perto da largura final, mantendo a proporção,
+     * o que preserva mais detalhes do que uma única redução bilinear.
+     */
+    private static BufferedImage reduzir(BufferedImage imagem, int largura, boolean transparente) {
+        int tipo = transparente ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int alturaFinal = Math.max(1, (int) Math.round((double) imagem.getHeight() * largura / imagem.getWidth()));
+        BufferedImage atual = imagem;
+        int larguraAtual = imagem.getWidth();
+        int alturaAtual = imagem.getHeight();
+        do {
+            larguraAtual = Math.max(largura, larguraAtual / 2);
+            alturaAtual = larguraAtual == largura ? alturaFinal : Math.max(alturaFinal, alturaAtual / 2);
+            BufferedImage reduzida = new BufferedImage(larguraAtual, alturaAtual, tipo);
+            Graphics2D grafico = reduzida.createGraphics();
+            try {
+                grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                grafico.drawImage(atual, 0, 0, larguraAtual, alturaAtual, null);
+            } finally {
+                grafico.dispose();
+            }
+            atual = reduzida;
+        } while (larguraAtual > largura);
+        return atual;
+    }
+
+    private static void gravar(BufferedImage imagem, boolean png, Path destino) throws IOException {
+        if (png) {
+            ImageIO.write(imagem, "png", destino.toFile());
+            return;
+        }
+        ImageWriter escritor = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam parametros = escritor.getDefaultWriteParam();
+        parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        parametros.setCompressionQuality(QUALIDADE_JPEG);
+        try (ImageOutputStream saida = ImageIO.createImageOutputStream(destino.toFile())) {
+            escritor.setOutput(saida);
+            escritor.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            escritor.dispose();
+        }
+    }
+
+    /**
+     * Aponta a cópia para o arquivo da original, sem ocupar espaço, ou copia o arquivo se o
+     * sistema de arquivos não tiver links.
+     */
+    private static void vincular(Path original, Path destino) throws IOException {
+        Files.deleteIfExists(destino);
+        try {
+            Files.createLink(destino, original);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(original, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Classe MigracaoContadoresLikes
+ * <p>
+ * Copia, na inicialização, os likes e dislikes da antiga tabela de likes para as colunas
+ * da própria publicação, onde passam a ser gravados pelo {@link AgregadorLikes} e lidos
+ * pelo ranking sem junção entre tabelas.
+ * <p>
+ * Só recebem a cópia as publicações que ainda não têm nenhum clique gravado, por isso a
+ * migração pode rodar a cada inicialização sem sobrescrever os contadores novos. Para que
+ * nenhum clique seja gravado antes da cópia, o que faria a publicação perder os
+ * contadores antigos, a migração roda na criação deste bean, e o {@link AgregadorLikes}
+ * só é criado, e começa a gravar, depois dela. Pelo mesmo motivo, o
+ * {@link RankingPublicacoes} já é montado com os contadores copiados. A migração pode ser
+ * desligada com {@code centauri.likes.migrar-contadores=false} depois de concluída.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class MigracaoContadoresLikes {
+
+    private final Logger logger = LoggerFactory.getLogger(MigracaoContadoresLikes.class);
+    private final PublicacaoRepository publicacaoRepository;
+    private final TransactionTemplate transacao;
+    private final boolean ativa;
+
+    @Autowired
+    public MigracaoContadoresLikes(PublicacaoRepository publicacaoRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${centauri.likes.migrar-contadores:true}") boolean ativa) {
+        this.publicacaoRepository = publicacaoRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.ativa = ativa;
+    }
+
+    @PostConstruct
+    public void migrar() {
+        if (!ativa) {
+            return;
+        }
+        Integer migradas = transacao.execute(status -> publicacaoRepository.copiarContadoresDosLikes());
+        if (migradas != null && migradas > 0) {
+            logger.info("Contadores de likes copiados para {} publicações", migradas);
+        }
+    }
+}
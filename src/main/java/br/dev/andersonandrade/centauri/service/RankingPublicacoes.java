@@ -0,0 +1,323 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.record.PontuacaoPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import jakarta.validation.constraints.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Classe RankingPublicacoes
+ * <p>
+ * Mantém em memória o ranking das publicações ativas por quantidade de likes, para que a
+ * página inicial leia as primeiras publicações sem consultar a base de dados. O ranking é
+ * montado a partir da base de dados na inicialização e atualizado a cada gravação do
+ * {@link AgregadorLikes}, a cada nova publicação e a cada publicação desativada. A leitura
+ * da base de dados é feita entre as gravações do agregador, para que um saldo já gravado
+ * não seja aplicado de novo pelo aviso da gravação. Enquanto o ranking não é montado, ele
+ * não se declara completo e o feed continua lendo a base de dados.
+ * <p>
+ * A pontuação de todas as publicações ativas fica em um conjunto ordenado, mas o título,
+ * o texto e o autor são guardados somente para as primeiras do ranking. As alterações são
+ * serializadas e, ao final de cada uma, a lista das primeiras publicações é substituída
+ * por uma nova lista imutável, lida sem bloqueio.
+ * <p>
+ * A versão do ranking só muda quando a exibição das primeiras publicações muda: quando
+ * uma publicação entra, sai ou troca de posição. Likes que não alteram a ordem não mudam
+ * a versão, que pode ser usada como chave de caches do que é exibido.
+ *
+ * @author Anderson Andrade Dev
+ * @date 28/09/2024
+ * @contact andersonandradedev@outlook.com
+ */
+@Component
+public class RankingPublicacoes implements ApplicationRunner {
+
+    /**
+     * Mais likes primeiro e, no empate, a publicação mais recente.
+     */
+    static final Comparator<Posicao> ORDEM = Comparator.comparingInt(Posicao::likes).reversed()
+            .thenComparing(Posicao::idPublicacao, Comparator.reverseOrder());
+
+    private final Logger logger = LoggerFactory.getLogger(RankingPublicacoes.class);
+    private final PublicacaoRepository publicacaoRepository;
+    private final AgregadorLikes agregadorLikes;
+    private final int tamanho;
+    private final Map<Long, Posicao> posicoes = new HashMap<>();
+    private final NavigableSet<Posicao> ordem = new TreeSet<>(ORDEM);
+    private final Map<Long, PublicacaoResumoRecord> resumos = new HashMap<>();
+    private boolean montado;
+    private volatile Instantaneo instantaneo = new Instantaneo(List.of(), false, 0);
+
+    /**
+     * Construtor que inicializa o ranking e o registra para receber as gravações de likes.
+     *
+     * @param publicacaoRepository O repositório das publicações.
+     * @param agregadorLikes       O agregador que grava os likes em lote.
+     * @param tamanho              Quantidade de publicações exibidas no ranking.
+     */
+    @Autowired
+    public RankingPublicacoes(PublicacaoRepository publicacaoRepository, AgregadorLikes agregadorLikes,
+                              @Value("${centauri.ranking.tamanho:100}") int tamanho) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("O tamanho do ranking deve ser maior que zero");
+        }
+        this.publicacaoRepository = publicacaoRepository;
+        this.agregadorLikes = agregadorLikes;
+        this.tamanho = tamanho;
+        agregadorLikes.aoGravar(this::aplicar);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconstruir();
+    }
+
+    /**
+     * Retorna as primeiras publicações do ranking, sem consultar a base de dados.
+     *
+     * @return As publicações em ordem decrescente de likes.
+     */
+    public List<PublicacaoResumoRecord> primeiras() {
+        return instantaneo.primeiras();
+    }
+
+    /**
+     * Retorna a versão da exibição do ranking, alterada somente quando a ordem ou os dados
+     * das primeiras publicações mudam.
+     *
+     * @return A versão atual.
+     */
+    public long versao() {
+        return instantaneo.versao();
+    }
+
+    /**
+     * Retorna as publicações do ranking em memória que vêm depois do cursor.
+     * <p>
+     * Se a publicação do cursor ainda estiver no ranking, a leitura continua logo após a
+     * sua posição atual, mesmo que os likes dela tenham mudado desde a página anterior.
+     *
+     * @param cursor A última publicação exibida, ou null para começar do início.
+     * @param limite Quantidade máxima de publicações.
+     * @return As publicações seguintes em ordem decrescente de likes.
+     */
+    public List<PublicacaoResumoRecord> apos(CursorPublicacaoRecord cursor, int limite) {
+        List<PublicacaoResumoRecord> lista = instantaneo.primeiras();
+        int inicio = cursor == null ? 0 : primeiraApos(lista, cursor);
+        return lista.subList(inicio, Math.min(lista.size(), inicio + limite));
+    }
+
+    /**
+     * Indica se as primeiras publicações do ranking são todas as publicações ativas.
+     *
+     * @return true se o ranking já foi montado e nenhuma publicação ativa ficou fora da memória.
+     */
+    public boolean completo() {
+        return instantaneo.completo();
+    }
+
+    /**
+     * Monta novamente o ranking com as pontuações gravadas na base de dados, lidas entre
+     * as gravações do {@link AgregadorLikes}.
+     */
+    public void reconstruir() {
+        agregadorLikes.semGravar(this::montar);
+    }
+
+    private synchronized void montar() {
+        List<PontuacaoPublicacaoRecord> pontuacoes = publicacaoRepository.findPontuacoesAtivas();
+        montado = true;
+        posicoes.clear();
+        ordem.clear();
+        resumos.clear();
+        for (PontuacaoPublicacaoRecord pontuacao : pontuacoes) {
+            posicionar(pontuacao.idPublicacao(), pontuacao.likes());
+        }
+        publicar();
+        logger.info("Ranking montado com {} publicações ativas", posicoes.size());
+    }
+
+    /**
+     * Aplica os saldos de likes gravados pelo agregador. Publicações fora do ranking,
+     * como as desativadas, são ignoradas.
+     *
+     * @param deltas Os saldos gravados por publicação.
+     */
+    public synchronized void aplicar(@NotNull List<DeltaLikeRecord> deltas) {
+        boolean alterado = false;
+        for (DeltaLikeRecord delta : deltas) {
+            Posicao atual = posicoes.get(delta.idPublicacao());
+            if (atual == null) {
+                continue;
+            }
+            int likes = (int) Math.max(0, atual.likes() + delta.likes() - delta.dislikes());
+            if (likes != atual.likes()) {
+                posicionar(atual.idPublicacao(), likes);
+                alterado = true;
+            }
+        }
+        if (alterado) {
+            publicar();
+        }
+    }
+
+    /**
+     * Inclui uma nova publicação, sem likes, no ranking. Dentro de uma transação, a
+     * inclusão só acontece depois da confirmação.
+     *
+     * @param publicacao A publicação gravada.
+     */
+    public void adicionar(@NotNull Publicacao publicacao) {
+        PublicacaoResumoRecord resumo = PublicacaoResumoRecord.de(publicacao, 0);
+        aposConfirmar(() -> incluir(resumo));
+    }
+
+    /**
+     * Retira uma publicação do ranking. Dentro de uma transação, a remoção só acontece
+     * depois da confirmação.
+     *
+     * @param idPublicacao O id da publicação desativada.
+     */
+    public void remover(@NotNull Long idPublicacao) {
+        aposConfirmar(() -> excluir(idPublicacao));
+    }
+
+    private synchronized void incluir(PublicacaoResumoRecord resumo) {
+        if (posicoes.containsKey(resumo.id())) {
+            return;
+        }
+        posicionar(resumo.id(), resumo.likes());
+        resumos.put(resumo.id(), resumo);
+        publicar();
+    }
+
+    private synchronized void excluir(Long idPublicacao) {
+        Posicao posicao = posicoes.remove(idPublicacao);
+        if (posicao == null) {
+            return;
+        }
+        ordem.remove(posicao);
+        resumos.remove(idPublicacao);
+        publicar();
+    }
+
+    private void posicionar(Long idPublicacao, int likes) {
+        Posicao nova = new Posicao(idPublicacao, likes);
+        Posicao anterior = posicoes.put(idPublicacao, nova);
+        if (anterior != null) {
+            ordem.remove(anterior);
+        }
+        ordem.add(nova);
+    }
+
+    /**
+     * Substitui a lista das primeiras publicações, buscando na base de dados somente os
+     * dados das que acabaram de entrar no ranking e descartando os das que saíram.
+     */
+    private void publicar() {
+        List<Posicao> topo = ordem.stream().limit(tamanho).toList();
+        Set<Long> ids = new HashSet<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Posicao posicao : topo) {
+            ids.add(posicao.idPublicacao());
+            if (!resumos.containsKey(posicao.idPublicacao())) {
+                faltantes.add(posicao.idPublicacao());
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            publicacaoRepository.findResumos(faltantes).forEach(resumo -> resumos.put(resumo.id(), resumo));
+        }
+        resumos.keySet().retainAll(ids);
+
+        List<PublicacaoResumoRecord> lista = new ArrayList<>(topo.size());
+        for (Posicao posicao : topo) {
+            PublicacaoResumoRecord resumo = resumos.get(posicao.idPublicacao());
+            if (resumo != null) {
+                lista.add(resumo.comLikes(posicao.likes()));
+            }
+        }
+        Instantaneo atual = instantaneo;
+        long versao = mesmaExibicao(atual.primeiras(), lista) ? atual.versao() : atual.versao() + 1;
+        instantaneo = new Instantaneo(List.copyOf(lista), montado && ordem.size() <= tamanho, versao);
+    }
+
+    private static boolean mesmaExibicao(List<PublicacaoResumoRecord> anterior, List<PublicacaoResumoRecord> nova) {
+        if (anterior.size() != nova.size()) {
+            return false;
+        }
+        for (int i = 0; i < nova.size(); i++) {
+            if (!anterior.get(i).equals(nova.get(i).comLikes(anterior.get(i).likes()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int primeiraApos(List<PublicacaoResumoRecord> lista, CursorPublicacaoRecord cursor) {
+        for (int i = 0; i < lista.size(); i++) {
+            if (lista.get(i).id().equals(cursor.id())) {
+                return i + 1;
+            }
+        }
+        Posicao posicaoCursor = new Posicao(cursor.id(), cursor.likes());
+        int inicio = 0;
+        int fim = lista.size();
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            PublicacaoResumoRecord publicacao = lista.get(meio);
+            if (ORDEM.compare(new Posicao(publicacao.id(), publicacao.likes()), posicaoCursor) <= 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private void aposConfirmar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Pontuação de uma publicação no conjunto ordenado.
+     */
+    record Posicao(Long idPublicacao, int likes) {
+    }
+
+    /**
+     * Primeiras publicações do ranking publicadas para leitura, com a versão da exibição.
+     */
+    private record Instantaneo(List<PublicacaoResumoRecord> primeiras, boolean completo, long versao) {
+    }
+}
@@ -0,0 +1,101 @@
+package br.dev.andersonandrade.centauri.uteis;
+
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Pattern;
+
+/**
+ * Regras do armazenamento das imagens das publicações por conteúdo.
+ * <p>
+ * Cada imagem é gravada com o hash SHA-256 do conteúdo como nome, dentro de duas pastas
+ * formadas pelos quatro primeiros caracteres do hash, por exemplo
+ * {@code ab/cd/abcd...ef.jpg}, o que limita a quantidade de arquivos por pasta. As cópias
+ * reduzidas acrescentam a largura ao nome, por exemplo {@code abcd...ef-480.jpg}.
+ */
+public final class ArmazenamentoImagemUtil {
+
+    /**
+     * Pasta dos arquivos temporários dos uploads em andamento, dentro da pasta das imagens.
+     */
+    public static final String PASTA_TEMPORARIA = "tmp";
+
+    /**
+     * Pasta onde a coleta de imagens sem publicação guarda cada imagem enquanto confirma
+     * que ela pode ser removida, dentro da pasta das imagens.
+     */
+    public static final String PASTA_QUARENTENA = "quarentena";
+
+    private static final Pattern ORIGINAL = Pattern.compile("([0-9a-f]{64})\\.(jpg|jpeg|png)");
+    private static final Pattern IDENTIFICADOR = Pattern.compile("([0-9a-f]{64}(-\\d+)?)\\.[a-z]+");
+
+    private ArmazenamentoImagemUtil() {
+        super();
+    }
+
+    /**
+     * Define o caminho padrão para armazenamento de imagens, com suporte para múltiplos sistemas operacionais.
+     *
+     * @return O caminho onde as imagens serão armazenadas.
+     */
+    public static Path pastaPadrao() {
+        Path pathDefault = Paths.get("/centauri-imagens/publicacao/");
+        if (Files.notExists(pathDefault, LinkOption.NOFOLLOW_LINKS)) {
+            String userHome = System.getProperty("user.home");
+            pathDefault = Paths.get(userHome, "/centauri-imagens/publicacao/");
+        }
+        return pathDefault;
+    }
+
+    /**
+     * Retorna o arquivo da imagem com o hash informado.
+     *
+     * @param raiz     A pasta das imagens.
+     * @param hash     O hash SHA-256 do conteúdo, em hexadecimal minúsculo.
+     * @param extensao A extensão do arquivo.
+     * @return O arquivo da imagem, dentro das pastas do início do hash.
+     */
+    public static Path caminho(Path raiz, String hash, String extensao) {
+        return raiz.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + "." + extensao);
+    }
+
+    /**
+     * Indica se o arquivo é uma imagem original gravada pelo hash do conteúdo.
+     *
+     * @param arquivo O arquivo.
+     * @return true para originais gravadas por conteúdo, false para cópias reduzidas e
+     * arquivos gravados antes do armazenamento por conteúdo.
+     */
+    public static boolean original(Path arquivo) {
+        return ORIGINAL.matcher(arquivo.getFileName().toString()).matches();
+    }
+
+    /**
+     * Retorna o hash do conteúdo de uma imagem original, tirado do nome do arquivo. Só o
+     * nome é considerado, para que a pasta das imagens possa mudar de lugar ou ser
+     * acessada por outro caminho sem que a imagem deixe de ser reconhecida.
+     *
+     * @param caminho O caminho do arquivo.
+     * @return O hash, ou null se o arquivo não é uma original gravada pelo conteúdo.
+     */
+    public static String hash(String caminho) {
+        if (caminho == null) {
+            return null;
+        }
+        var nome = ORIGINAL.matcher(Paths.get(caminho).getFileName().toString());
+        return nome.matches() ? nome.group(1) : null;
+    }
+
+    /**
+     * Retorna o identificador do conteúdo do arquivo, formado pelo hash e, nas cópias, pela
+     * largura, que não muda enquanto o arquivo existir.
+     *
+     * @param arquivo O arquivo.
+     * @return O identificador, ou null se o arquivo não foi gravado pelo hash do conteúdo.
+     */
+    public static String identificador(Path arquivo) {
+        var nome = IDENTIFICADOR.matcher(arquivo.getFileName().toString());
+        return nome.matches() ? nome.group(1) : null;
+    }
+}
@@ -0,0 +1,36 @@
+package br.dev.andersonandrade.centauri.uteis;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+/**
+ * Consulta o mapeamento do Hibernate para descobrir os nomes físicos de tabelas e colunas.
+ * <p>
+ * Usado pelos acessos JDBC diretos, que precisam respeitar a estratégia de nomes
+ * configurada na aplicação em vez de repetir os nomes no código.
+ */
+public final class MapeamentoUtil {
+
+    private MapeamentoUtil() {
+        super();
+    }
+
+    public static String tabela(EntityManagerFactory entityManagerFactory, Class<?> entidade) {
+        return persister(entityManagerFactory, entidade).getIdentifierTableName();
+    }
+
+    public static String coluna(EntityManagerFactory entityManagerFactory, Class<?> entidade, String atributo) {
+        String[] colunas = persister(entityManagerFactory, entidade).getPropertyColumnNames(atributo);
+        if (colunas.length != 1) {
+            throw new IllegalArgumentException("O atributo " + atributo + " não está mapeado para uma única coluna!");
+        }
+        return colunas[0];
+    }
+
+    private static AbstractEntityPersister persister(EntityManagerFactory entityManagerFactory, Class<?> entidade) {
+        return (AbstractEntityPersister) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entidade);
+    }
+}
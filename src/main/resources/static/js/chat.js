@@ -1,162 +1,54 @@
-// Armazena o contato atual selecionado e seu endereço
-let currentContact = null;
-let currentAdress = null;
-
-// Armazena mensagens por contato, agrupadas por endereço de e-mail
-const messagesByContact = {};
-
-// IDs de mensagens já exibidas para evitar duplicação
-const displayedMessageIds = new Set();
-
-// ID do intervalo de atualização das mensagens
-let messageUpdateIntervalId = null;
-
-// Intervalo de atualização das mensagens (90 segundos)
-const MESSAGE_UPDATE_INTERVAL = 90000;
-
-/**
- * Função para iniciar a atualização periódica de mensagens.
- * Inicia o intervalo de 90 segundos para atualizar as mensagens do contato selecionado.
- */
-function startMessageUpdate() {
-    // Limpa o intervalo anterior, se houver
-    if (messageUpdateIntervalId) {
-        clearInterval(messageUpdateIntervalId);
-    }
-
-    // Inicia o intervalo para atualizar mensagens a cada 90 segundos
-    messageUpdateIntervalId = setInterval(() => {
-        if (currentContact) {
-            fetchMessagesFromBackend(currentAdress); // Atualiza as mensagens do servidor
-        }
-    }, MESSAGE_UPDATE_INTERVAL);
-}
-
 /**
- * Função para selecionar um contato, carregar suas mensagens e atualizar a interface.
- * Atualiza o nome do contato exibido e habilita os campos de mensagem e botão de envio.
- *
- * @param {string} contactName - Nome do contato selecionado.
- * @param {string} contactAdress - Endereço do contato selecionado.
+ * Script da página de mensagens. A conversa aberta é definida pela página em
+ * `destinatarioAtual`, e as novas mensagens do destinatário chegam por Server-Sent Events,
+ * sem recarregar a página. As mensagens mais antigas que a primeira exibida
+ * (`historicoDataEnvio` e `historicoId`) são carregadas quando o chat é rolado até o topo.
  */
-function selectContact(contactName, contactAdress) {
-    currentContact = contactName; // Atualiza o nome do contato selecionado
-    currentAdress = contactAdress; // Atualiza o endereço do contato
+const LIMITE_HISTORICO = 50;
 
-    // Exibe o nome do contato na interface
-    document.getElementById('contact-name').textContent = contactName;
+const btEnviar = document.getElementById("bt-enviar");
+const mensagemAlert = document.getElementById("contact-name");
+const inputMensagem = document.getElementById("message-input");
+const mensagensChat = document.getElementById("chat-messages");
 
-    // Habilita o campo de entrada de mensagem e o botão de envio
-    document.getElementById("message-input").disabled = false;
-    document.querySelector(".message-send-btn").disabled = false;
+let cursorHistorico = historicoDataEnvio == null ? null : {dataEnvio: historicoDataEnvio, id: historicoId};
+let carregandoHistorico = false;
+let historicoCompleto = destinatarioAtual == null || cursorHistorico == null;
 
-    // Inicia o processo de atualização periódica de mensagens
-    startMessageUpdate();
 
-    // Busca as mensagens imediatamente ao selecionar o contato
-    fetchMessagesFromBackend(contactAdress);
-}
+btEnviar.addEventListener("click", () => {
+    if (destinatarioAtual != null) {
+        btEnviar.disabled = false;
+        enviaMensagem();
 
-/**
- * Função para buscar mensagens do servidor por AJAX.
- * As mensagens do remetente e destinatário são exibidas na interface.
- *
- * @param {string} adress - Endereço do contato do qual buscar as mensagens.
- */
-function fetchMessagesFromBackend(adress) {
-    const destinatario = {
-        endereco: adress
-    };
-
-    // Faz requisição ao servidor para buscar mensagens
-    fetch('/chat/mensagens', {
-        method: 'POST',
-        headers: {
-            'Content-Type': 'application/json',
-        },
-        body: JSON.stringify(destinatario), // Envia destinatário no corpo da requisição
-    })
-        .then(response => response.json()) // Converte a resposta para JSON
-        .then(data => {
-            const mensagensRemetente = data.mensagensRemetente || [];
-            const mensagensDestinatario = data.mensagensDestinatario || [];
-
-            // Armazena as mensagens para o contato atual
-            messagesByContact[adress] = {
-                mensagensRemetente,
-                mensagensDestinatario
-            };
-
-            // Exibe as mensagens no chat
-            displayMessages(mensagensDestinatario, mensagensRemetente);
-        })
-        .catch(error => {
-            console.error('Erro ao buscar mensagens:', error);
-        });
-}
-
-/**
- * Função para exibir mensagens na interface do chat.
- * As mensagens são organizadas por data de envio e diferenciadas entre remetente e destinatário.
- *
- * @param {Array} mensagensDestinatario - Lista de mensagens do destinatário.
- * @param {Array} mensagensRemetente - Lista de mensagens do remetente.
- */
-function displayMessages(mensagensDestinatario, mensagensRemetente) {
-    const chatMessages = document.getElementById("chat-messages");
-
-    // Limpa o chat antes de adicionar novas mensagens
-    chatMessages.innerHTML = "";
-
-    // Combina e ordena as mensagens por data de envio
-    const todasAsMensagens = [
-        ...mensagensDestinatario.map(mensagem => ({ ...mensagem, tipo: 'destinatario' })),
-        ...mensagensRemetente.map(mensagem => ({ ...mensagem, tipo: 'remetente' }))
-    ];
-
-    todasAsMensagens.sort((a, b) => new Date(a.dataEnvio) - new Date(b.dataEnvio));
-
-    // Exibe as mensagens no chat
-    todasAsMensagens.forEach(mensagem => {
-        const uniqueId = `${mensagem.conteudo}-${mensagem.dataEnvio}-${currentAdress}-${mensagem.tipo}`;
-        if (!displayedMessageIds.has(uniqueId)) {
-            const messageElement = document.createElement("div");
-
-            // Aplica classes diferentes para remetente e destinatário
-            if (mensagem.tipo === 'destinatario') {
-                messageElement.classList.add("message-bubble-receiver");
-            } else {
-                messageElement.classList.add("message-bubble-sender");
-            }
+    } else {
+        btEnviar.disabled = true;
+        mensagemAlert.innerHTML = "Por favor escolha um Destinatario!";
+    }
+});
 
-            // Formata o conteúdo e a hora da mensagem
-            messageElement.innerHTML = `
-                <div class="message-content">${mensagem.conteudo}</div>
-                <div class="message-time">${dataFormatada.format(new Date(mensagem.dataEnvio))}</div>
-            `;
+inputMensagem.addEventListener("keydown",(event) => {
+    if(event.key ==="Enter"){
+        if (destinatarioAtual != null) {
+            btEnviar.disabled = false;
+            enviaMensagem();
 
-            // Adiciona a mensagem ao chat e evita duplicação
-            chatMessages.appendChild(messageElement);
-            displayedMessageIds.add(uniqueId);
+        } else {
+            btEnviar.disabled = true;
+            mensagemAlert.innerHTML = "Por favor escolha um Destinatario!";
         }
-    });
-
-    // Rola para a última mensagem exibida
-    chatMessages.scrollTop = chatMessages.scrollHeight;
-}
+    }
+});
 
-/**
- * Função para enviar uma nova mensagem via AJAX.
- * A mensagem é adicionada ao chat e enviada ao servidor.
- */
-function sendMessage() {
+function enviaMensagem() {
     const messageInput = document.getElementById("message-input");
     const messageText = messageInput.value.trim(); // Remove espaços em branco
 
     if (messageText) { // Verifica se a mensagem não está vazia
         const payload = {
             destinatario: {
-                endereco: currentAdress
+                nome: destinatarioAtual.nome,
+                endereco: destinatarioAtual.endereco,
             },
             mensagem: messageText // Texto da mensagem a ser enviado
         };
@@ -196,47 +88,106 @@ function sendMessage() {
 }
 
 /**
- * Adiciona o evento de envio de mensagem ao pressionar a tecla Enter.
- * Se o campo de mensagem não estiver vazio, chama a função `sendMessage`.
+ * Assina as mensagens do destinatário atual por Server-Sent Events.
+ * Cada nova mensagem é adicionada ao chat assim que o destinatário a envia,
+ * sem consultar o servidor periodicamente.
  */
-document.getElementById("message-input").addEventListener("keydown", function(event) {
-    if (event.key === "Enter") {
-        event.preventDefault(); // Previne o comportamento padrão do Enter
-        sendMessage(); // Chama a função de envio de mensagem
+function assinaMensagens() {
+    if (destinatarioAtual == null) {
+        return;
     }
-});
+    const eventos = new EventSource('/chat/eventos?endereco=' + encodeURIComponent(destinatarioAtual.endereco));
 
-/**
- * Adiciona o evento ao botão de envio de mensagem.
- * Chama a função `sendMessage` quando o botão é clicado.
- */
-document.querySelector('.message-send-btn').addEventListener('click', function() {
-    sendMessage(); // Chama a função de envio de mensagem
-});
+    eventos.addEventListener("mensagem", (evento) => {
+        mensagensChat.appendChild(criaMensagem(JSON.parse(evento.data)));
+        mensagensChat.scrollTop = mensagensChat.scrollHeight;
+    });
+
+    window.addEventListener("beforeunload", () => eventos.close());
+}
 
 /**
- * Função para inicializar o chat. Pode incluir outras configurações iniciais conforme necessário.
- * Aqui, estamos apenas iniciando o processo de seleção de contatos e exibição de mensagens.
+ * Carrega a página do histórico anterior à mensagem mais antiga exibida e a insere
+ * no início do chat, mantendo a posição de leitura. Quando a página vem incompleta,
+ * não há mais histórico a carregar.
  */
-function initializeChat() {
-    if (currentContact) {
-        fetchMessagesFromBackend(currentAdress); // Atualiza as mensagens ao inicializar
-        startMessageUpdate(); // Inicia o intervalo de atualização de mensagens
+function carregaHistorico() {
+    if (carregandoHistorico || historicoCompleto) {
+        return;
+    }
+    carregandoHistorico = true;
+
+    const parametros = new URLSearchParams({
+        nome: destinatarioAtual.nome,
+        endereco: destinatarioAtual.endereco,
+        dataEnvio: cursorHistorico.dataEnvio,
+        limite: LIMITE_HISTORICO
+    });
+    if (cursorHistorico.id != null) {
+        parametros.set("id", cursorHistorico.id);
     }
+
+    fetch('/chat/mensagens/anteriores?' + parametros)
+        .then(response => {
+            if (!response.ok) {
+                throw new Error('Erro ao carregar o histórico');
+            }
+            return response.json();
+        })
+        .then(mensagens => {
+            historicoCompleto = mensagens.length < LIMITE_HISTORICO;
+            if (mensagens.length === 0) {
+                return;
+            }
+            const maisAntiga = mensagens[0].mensagem;
+            cursorHistorico = {dataEnvio: maisAntiga.dataEnvio, id: maisAntiga.id};
+
+            const alturaAnterior = mensagensChat.scrollHeight;
+            mensagensChat.prepend(...mensagens.map(criaMensagem));
+            mensagensChat.scrollTop = mensagensChat.scrollHeight - alturaAnterior;
+        })
+        .catch(error => {
+            console.error('Erro ao carregar o histórico:', error);
+        })
+        .finally(() => {
+            carregandoHistorico = false;
+        });
 }
 
-// Chama a função de inicialização do chat assim que a página for carregada
-window.onload = initializeChat;
+/**
+ * Cria o balão de uma mensagem do chat no mesmo formato do template.
+ */
+function criaMensagem(chat) {
+    const messageElement = document.createElement("div");
+    messageElement.classList.add(chat.remetente ? "message-bubble-receiver" : "message-bubble-sender");
+
+    const conteudo = document.createElement("div");
+    conteudo.classList.add("message-content");
+    conteudo.textContent = chat.mensagem.conteudo;
+
+    const hora = document.createElement("div");
+    hora.classList.add("message-time");
+    hora.textContent = formataData(chat.mensagem.dataEnvio);
+
+    messageElement.append(conteudo, hora);
+    return messageElement;
+}
 
 /**
- * Função para formatar a data no padrão brasileiro (dd/mm/aaaa hh:mm:ss).
+ * Formata a data de envio no mesmo padrão do template (dd-MM-yyyy:hh:mm:ss).
  */
-const dataFormatada = new Intl.DateTimeFormat('pt-BR', {
-    day: '2-digit',
-    month: '2-digit',
-    year: 'numeric',
-    hour: '2-digit',
-    minute: '2-digit',
-    second: '2-digit',
-    hour12: false
+function formataData(dataEnvio) {
+    const data = new Date(dataEnvio);
+    const doisDigitos = (valor) => String(valor).padStart(2, "0");
+    const horas = data.getHours() % 12 === 0 ? 12 : data.getHours() % 12;
+    return `${doisDigitos(data.getDate())}-${doisDigitos(data.getMonth() + 1)}-${data.getFullYear()}:`
+        + `${doisDigitos(horas)}:${doisDigitos(data.getMinutes())}:${doisDigitos(data.getSeconds())}`;
+}
+
+mensagensChat.addEventListener("scroll", () => {
+    if (mensagensChat.scrollTop === 0) {
+        carregaHistorico();
+    }
 });
+
+assinaMensagens();
@@ -0,0 +1,67 @@
+// Rolagem infinita da galeria: carrega a próxima página quando o marcador .proxima-pagina aparece.
+document.addEventListener('DOMContentLoaded', function () {
+    const galeria = document.getElementById('galeria');
+
+    if (!galeria || !('IntersectionObserver' in window)) {
+        return;
+    }
+
+    let carregando = false;
+    const observador = new IntersectionObserver(entradas => {
+        if (entradas.some(entrada => entrada.isIntersecting)) {
+            carregarProximaPagina();
+        }
+    }, {rootMargin: '400px'});
+
+    observarMarcador();
+
+    function observarMarcador() {
+        const marcador = galeria.querySelector('.proxima-pagina');
+        if (marcador) {
+            observador.observe(marcador);
+        }
+    }
+
+    function carregarProximaPagina() {
+        const marcador = galeria.querySelector('.proxima-pagina');
+        if (!marcador || carregando) {
+            return;
+        }
+        carregando = true;
+        observador.unobserve(marcador);
+
+        const parametros = new URLSearchParams({ordem: galeria.dataset.ordem, id: marcador.dataset.id});
+        if (marcador.dataset.likes) {
+            parametros.set('likes', marcador.dataset.likes);
+        }
+        if (marcador.dataset.dataPublicacao) {
+            parametros.set('dataPublicacao', marcador.dataset.dataPublicacao);
+        }
+
+        fetch('/publicacoes?' + parametros, {headers: {'Accept': 'text/html'}})
+            .then(resposta => {
+                if (!resposta.ok) {
+                    throw new Error('Status ' + resposta.status);
+                }
+                return resposta.text();
+            })
+            .then(html => {
+                const modelo = document.createElement('template');
+                modelo.innerHTML = html;
+                const cartas = modelo.content.querySelectorAll('.card');
+                marcador.remove();
+                galeria.append(modelo.content);
+                if (typeof prepararCartas === 'function') {
+                    prepararCartas(cartas);
+                }
+                observarMarcador();
+            })
+            .catch(erro => {
+                console.error('Erro ao carregar publicações:', erro);
+                setTimeout(() => observador.observe(marcador), 5000);
+            })
+            .finally(() => {
+                carregando = false;
+            });
+    }
+});
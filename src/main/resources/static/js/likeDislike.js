@@ -1,6 +1,6 @@
 $(document).ready(function () {
 //            console.log('Script carregado e executado.');
-    $('.starIcon').on('click', function () {
+    $(document).on('click', '.starIcon', function () {
         const $icone = $(this);
         const $estrelaLike = $icone.closest('.estrela').find('#estrela-like');
         const $submitLike = $estrelaLike;
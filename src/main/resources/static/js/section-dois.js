@@ -1,10 +1,5 @@
-document.addEventListener('DOMContentLoaded', function () {
-    const cards = document.querySelectorAll('.card');
-
-    if (cards.length === 0) {
-        console.error('Nenhum elemento .card foi encontrado!');
-    }
-
+// Prepara as cartas da galeria; também chamada pelo feed.js para as cartas de cada nova página.
+function prepararCartas(cards) {
     cards.forEach(function (card) {
         const cardInner = card.querySelector('.card-inner');
         const cardFront = card.querySelector('.card-front img');
@@ -42,6 +37,34 @@ document.addEventListener('DOMContentLoaded', function () {
         });
     });
 
+    const images = Array.from(cards).filter(card => card.classList.contains('reveal'));
+
+    images.forEach((img, index) => {
+        ScrollReveal().reveal(img, {
+            distance: '100px',
+            duration: 900,
+            easing: 'ease-in-out',
+            origin: 'bottom',
+            delay: index * 30,
+            reset: true
+        });
+    });
+
+    cards.forEach(card => {
+        const randomRotation = Math.random() * 20 - 10;
+        card.style.transform = `rotate(${randomRotation}deg)`;
+    });
+}
+
+document.addEventListener('DOMContentLoaded', function () {
+    const cards = document.querySelectorAll('.card');
+
+    if (cards.length === 0) {
+        console.error('Nenhum elemento .card foi encontrado!');
+    }
+
+    prepararCartas(cards);
+
     const saveIcons = document.querySelectorAll('.saveIcon');
 
     if (saveIcons.length === 0) {
@@ -70,32 +93,4 @@ document.addEventListener('DOMContentLoaded', function () {
             }
         });
     });
-
-    const images = document.querySelectorAll('.reveal');
-
-    if (images.length === 0) {
-        console.warn('Nenhuma imagem com a classe .reveal foi encontrada para o efeito ScrollReveal.');
-    }
-
-    images.forEach((img, index) => {
-        ScrollReveal().reveal(img, {
-            distance: '100px',
-            duration: 900,
-            easing: 'ease-in-out',
-            origin: 'bottom',
-            delay: index * 30,
-            reset: true
-        });
-    });
-
-    const allCards = document.querySelectorAll('.card');
-
-    if (allCards.length === 0) {
-        console.warn('Nenhuma carta (.card) foi encontrada para a rotação aleatória.');
-    }
-
-    allCards.forEach(card => {
-        const randomRotation = Math.random() * 20 - 10;
-        card.style.transform = `rotate(${randomRotation}deg)`;
-    });
-});
\ No newline at end of file
+});
@@ -0,0 +1,88 @@
+package br.dev.andersonandrade.centauri.beans;
+
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link JanelaMensagens}.
+ */
+class JanelaMensagensTest {
+
+    private final LocalDateTime agora = LocalDateTime.now();
+
+    @Test
+    void deveManterMensagensEmOrdemCronologicaSemDuplicatas() {
+        JanelaMensagens janela = new JanelaMensagens(10);
+
+        janela.adicionar(new MensagemBean("Chat", "segunda", agora));
+        janela.adicionar(new MensagemBean("Chat", "primeira", agora.minusMinutes(1)));
+        assertFalse(janela.adicionar(new MensagemBean("Chat", "segunda", agora)));
+
+        assertEquals(List.of("primeira", "segunda"), conteudos(janela.mensagens()));
+    }
+
+    @Test
+    void deveDescartarAsMensagensMaisAntigasAoAtingirACapacidade() {
+        JanelaMensagens janela = new JanelaMensagens(2);
+
+        janela.adicionarTodas(List.of(
+                new MensagemBean("Chat", "um", agora.minusMinutes(3)),
+                new MensagemBean("Chat", "dois", agora.minusMinutes(2)),
+                new MensagemBean("Chat", "tres", agora.minusMinutes(1))));
+        boolean aceita = janela.adicionar(new MensagemBean("Chat", "antiga", agora.minusMinutes(10)));
+
+        assertFalse(aceita);
+        assertEquals(List.of("dois", "tres"), conteudos(janela.mensagens()));
+    }
+
+    @Test
+    void deveReaproveitarALeituraEnquantoAJanelaNaoMuda() {
+        JanelaMensagens janela = new JanelaMensagens(10);
+        janela.adicionar(new MensagemBean("Chat", "um", agora));
+
+        List<Mensagem> primeira = janela.mensagens();
+
+        assertSame(primeira, janela.mensagens());
+        janela.adicionar(new MensagemBean("Chat", "dois", agora.plusSeconds(1)));
+        assertNotSame(primeira, janela.mensagens());
+        assertEquals(1, primeira.size());
+    }
+
+    @Test
+    void deveManterLeiturasAnterioresIntactasAoCompactarAJanela() {
+        JanelaMensagens janela = new JanelaMensagens(3);
+        janela.adicionar(new MensagemBean("Chat", "0", agora));
+        List<Mensagem> inicial = janela.mensagens();
+
+        for (int i = 1; i < 50; i++) {
+            janela.adicionar(new MensagemBean("Chat", String.valueOf(i), agora.plusSeconds(i)));
+        }
+
+        assertEquals(List.of("0"), conteudos(inicial));
+        assertEquals(List.of("47", "48", "49"), conteudos(janela.mensagens()));
+    }
+
+    @Test
+    void deveSubstituirPelaCopiaArmazenadaNaMesmaPosicao() {
+        JanelaMensagens janela = new JanelaMensagens(10);
+        janela.adicionar(new MensagemBean("Chat", "um", agora));
+        janela.adicionar(new MensagemBean("Chat", "dois", agora.plusSeconds(1)));
+        MensagemBean armazenada = new MensagemBean("Chat", "um", agora);
+        armazenada.setId(7L);
+
+        assertFalse(janela.adicionar(armazenada));
+
+        assertEquals(List.of("um", "dois"), conteudos(janela.mensagens()));
+        assertSame(armazenada, janela.mensagens().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> janela.mensagens().remove(0));
+    }
+
+    private List<String> conteudos(List<Mensagem> mensagens) {
+        return mensagens.stream().map(Mensagem::getConteudo).toList();
+    }
+}
@@ -1,28 +1,46 @@
 package br.dev.andersonandrade.centauri.beans.model;
 
-import br.dev.andersonandrade.centauri.entity.Publicacao;
-import br.dev.andersonandrade.centauri.entity.Senha;
-import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
 import br.dev.andersonandrade.centauri.model.ImagemModel;
-import br.dev.andersonandrade.centauri.record.UsuarioRecord;
+import br.dev.andersonandrade.centauri.record.ImagemPublicacaoRecord;
+import br.dev.andersonandrade.centauri.service.CacheImagens;
+import br.dev.andersonandrade.centauri.service.GeradorDerivadasImagem;
+import br.dev.andersonandrade.centauri.uteis.ArmazenamentoImagemUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -35,20 +53,21 @@ import static org.mockito.Mockito.when;
 public class ImagemModelTest {
 
     @Mock
-    private ResourceLoader resourceLoader;
+    private MultipartFile multipartFile;
 
     @Mock
-    private MultipartFile multipartFile;
+    private GeradorDerivadasImagem geradorDerivadas;
 
-    @InjectMocks
     private ImagemModel imagemModel;
 
-    private UsuarioRecord record;
-    private Usuario usuario;
+    @TempDir
+    private Path pasta;
+
+    private CacheImagens cacheImagens;
 
     /**
      * Método de configuração inicial para os mocks utilizados nos testes.
-     * Inicializa a instância de {@link ImagemModel} com o mock do {@link ResourceLoader}.
+     * Inicializa a instância de {@link ImagemModel}.
      * <p>
      * Autor: Anderson Andrade Dev
      * Data: 29 de setembro de 2024
@@ -56,10 +75,8 @@ public class ImagemModelTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        imagemModel = new ImagemModel(resourceLoader);
-        record = new UsuarioRecord("Anderson", "Andrade", "anderson",
-                "1234", "andersonandradedev@outlook.com");
-        usuario = new Usuario(record, new Senha(new BCryptPasswordEncoder().encode(record.senha())));
+        cacheImagens = new CacheImagens(64 * 1024, 16 * 1024);
+        imagemModel = new ImagemModel(cacheImagens, geradorDerivadas, 20 * 1024);
     }
 
     /**
@@ -73,13 +90,70 @@ public class ImagemModelTest {
      */
     @Test
     public void testUploadImagemComSucesso() throws IOException {
+        byte[] conteudo = jpeg(12 * 1024);
         when(multipartFile.getOriginalFilename()).thenReturn("imagem.jpg");
-        when(multipartFile.getBytes()).thenReturn(new byte[]{1, 2, 3});
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(conteudo));
 
         String path = imagemModel.upload(multipartFile);
 
         assertNotNull(path);
         assertTrue(path.contains("centauri-imagens"));
+        String hash = sha256(conteudo);
+        assertEquals(ArmazenamentoImagemUtil.caminho(ImagemModel.getDefaultPath(), hash, "jpg"), Path.of(path));
+        assertEquals(path, imagemModel.upload(multipartFileCom("imagem.jpg", conteudo)));
+        assertArrayEquals(conteudo, Files.readAllBytes(Path.of(path)));
+        verify(geradorDerivadas, times(2)).gerar(Path.of(path));
+        assertTrue(temporarios().isEmpty());
+    }
+
+    /**
+     * Testa que imagens cujo cabeçalho declara mais pixels que o limite são recusadas antes
+     * de qualquer decodificação, e que nada fica gravado.
+     */
+    @Test
+    public void deveRecusarImagemComMaisPixelsQueOLimite() throws IOException {
+        when(geradorDerivadas.pixels(any())).thenReturn(2_500_000_000L);
+        when(geradorDerivadas.getMaximoPixels()).thenReturn(50_000_000L);
+        byte[] conteudo = jpeg(1024);
+
+        RuntimeException excecao = assertThrows(RuntimeException.class,
+                () -> imagemModel.upload(multipartFileCom("bomba.jpg", conteudo)));
+
+        assertTrue(excecao.getMessage().contains("pixels"));
+        assertFalse(Files.exists(ArmazenamentoImagemUtil.caminho(ImagemModel.getDefaultPath(), sha256(conteudo), "jpg")));
+        assertTrue(temporarios().isEmpty());
+        verify(geradorDerivadas, never()).gerar(any());
+    }
+
+    /**
+     * Testa que o conteúdo é conferido pelos primeiros bytes, e não só pela extensão.
+     */
+    @Test
+    public void deveRecusarConteudoQueNaoCorrespondeAExtensao() throws IOException {
+        when(multipartFile.getOriginalFilename()).thenReturn("imagem.png");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(jpeg(1024)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> imagemModel.upload(multipartFile));
+
+        assertEquals("O conteúdo do arquivo não é uma imagem png", exception.getMessage());
+        assertTrue(temporarios().isEmpty());
+        verifyNoInteractions(geradorDerivadas);
+    }
+
+    /**
+     * Testa que o limite de tamanho é aplicado durante a cópia, mesmo quando o tamanho
+     * informado pelo envio é menor que o real, sem deixar o arquivo temporário para trás.
+     */
+    @Test
+    public void deveRecusarImagemMaiorQueOLimiteDuranteACopia() throws IOException {
+        when(multipartFile.getOriginalFilename()).thenReturn("imagem.jpg");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(jpeg(30 * 1024)));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> imagemModel.upload(multipartFile));
+
+        assertEquals("A imagem ultrapassa o tamanho máximo de 20480 bytes.", exception.getMessage());
+        assertTrue(temporarios().isEmpty());
     }
 
     /**
@@ -102,30 +176,38 @@ public class ImagemModelTest {
 
     /**
      * Testa a recuperação de uma imagem associada a uma publicação existente.
-     * Verifica se a imagem é retornada corretamente quando o caminho é válido.
+     * Verifica se a imagem é retornada com o tipo gravado, o ETag e o cache de longa duração,
+     * e se a segunda leitura é atendida pela memória, sem consultar a publicação.
      * <p>
      * Autor: Anderson Andrade Dev
      * Data: 29 de setembro de 2024
      *
-     * @throws IOException Se houver erro ao carregar o arquivo.
+     * @throws IOException Se houver erro ao criar o arquivo.
      */
     @Test
     public void testImagemPublicacaoExistente() throws IOException {
-        Publicacao publicacao = new Publicacao(usuario, "path/to/image.jpg", "Texto de teste", LocalDateTime.now(), true);
+        Path imagem = imagemTemporaria(100);
 
-        Resource resource = mock(Resource.class);
-        when(resource.exists()).thenReturn(true);
-        when(resource.getFile()).thenReturn(new File("path/to/image.jpg")); // Caminho real ou mock
-        when(resource.contentLength()).thenReturn(100L);
-        when(resource.getInputStream()).thenReturn(new ByteArrayInputStream("Imagem".getBytes())); // Retorna um InputStream válido
+        ServletWebRequest requisicao = requisicao();
+        ResponseEntity<?> response = imagemModel.imagemPublicacao(1L, null,
+                () -> new ImagemPublicacaoRecord(imagem.toString(), MediaType.IMAGE_PNG_VALUE), requisicao);
 
-        when(resourceLoader.getResource("file://path/to/image.jpg")).thenReturn(resource);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertNotNull(requisicao.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals("max-age=31536000, public, immutable",
+                requisicao.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+
+        Files.delete(imagem);
+        ServletWebRequest segunda = requisicao();
+        response = imagemModel.imagemPublicacao(1L, null, () -> fail("A publicação não deveria ser consultada"), segunda);
 
-        ResponseEntity<?> response = imagemModel.imagemPublicacao(publicacao);
         assertEquals(200, response.getStatusCode().value());
+        assertEquals(100, ((Resource) response.getBody()).contentLength());
+        assertEquals(requisicao.getResponse().getHeader(HttpHeaders.ETAG), segunda.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(1, cacheImagens.estatisticas().acertos());
     }
 
-
     /**
      * Testa a recuperação de uma imagem associada a uma publicação inexistente.
      * Verifica se uma mensagem de erro é retornada quando a imagem não é encontrada.
@@ -135,13 +217,162 @@ public class ImagemModelTest {
      */
     @Test
     public void testImagemPublicacaoNaoExistente() {
-        Publicacao publicacao = new Publicacao(usuario, "path/to/nonexistent.jpg",
-                "Texto de teste", LocalDateTime.now(), true);
-
-        when(resourceLoader.getResource("file://path/to/nonexistent.jpg"))
-                .thenReturn(mock(Resource.class));
+        ResponseEntity<?> response = imagemModel.imagemPublicacao(1L, null,
+                () -> new ImagemPublicacaoRecord("path/to/nonexistent.jpg", MediaType.IMAGE_JPEG_VALUE), requisicao());
+        assertEquals(400, response.getStatusCode().value());
 
-        ResponseEntity<?> response = imagemModel.imagemPublicacao(publicacao);
+        response = imagemModel.imagemPublicacao(2L, null, () -> null, requisicao());
         assertEquals(400, response.getStatusCode().value());
     }
+
+    /**
+     * Testa que a requisição com o ETag já conhecido recebe 304 sem corpo.
+     */
+    @Test
+    public void deveResponderNaoModificadoQuandoOETagConfere() throws IOException {
+        ImagemPublicacaoRecord imagem = new ImagemPublicacaoRecord(imagemTemporaria(100).toString(), null);
+        ServletWebRequest primeira = requisicao();
+        imagemModel.imagemPublicacao(1L, null, () -> imagem, primeira);
+
+        ServletWebRequest segunda = requisicao();
+        ((MockHttpServletRequest) segunda.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH,
+                primeira.getResponse().getHeader(HttpHeaders.ETAG));
+
+        assertNull(imagemModel.imagemPublicacao(1L, null, () -> imagem, segunda));
+        assertEquals(304, segunda.getResponse().getStatus());
+    }
+
+    /**
+     * Testa que imagens grandes, que não cabem no cache, são entregues ao sendfile do Tomcat
+     * quando o conector oferece o recurso, e que as pequenas são respondidas da memória.
+     */
+    @Test
+    public void deveEntregarImagemGrandeAoSendfileDoConector() throws IOException {
+        Path grande = imagemTemporaria((int) ImagemModel.TAMANHO_MINIMO_SENDFILE);
+        ServletWebRequest requisicao = requisicao();
+        requisicao.getRequest().setAttribute(ImagemModel.SENDFILE_SUPORTADO, Boolean.TRUE);
+
+        ResponseEntity<?> response = imagemModel.imagemPublicacao(1L, null,
+                () -> new ImagemPublicacaoRecord(grande.toString(), null), requisicao);
+
+        assertNull(response.getBody());
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        assertEquals(ImagemModel.TAMANHO_MINIMO_SENDFILE, response.getHeaders().getContentLength());
+        assertEquals(grande.toAbsolutePath().toString(), requisicao.getRequest().getAttribute(ImagemModel.SENDFILE_ARQUIVO));
+        assertEquals(ImagemModel.TAMANHO_MINIMO_SENDFILE, requisicao.getRequest().getAttribute(ImagemModel.SENDFILE_FIM));
+
+        ServletWebRequest pequena = requisicao();
+        pequena.getRequest().setAttribute(ImagemModel.SENDFILE_SUPORTADO, Boolean.TRUE);
+        Path imagemPequena = imagemTemporaria(100);
+        response = imagemModel.imagemPublicacao(2L, null, () -> new ImagemPublicacaoRecord(imagemPequena.toString(), null),
+                pequena);
+
+        assertInstanceOf(ByteArrayResource.class, response.getBody());
+        assertNull(pequena.getRequest().getAttribute(ImagemModel.SENDFILE_ARQUIVO));
+    }
+
+    /**
+     * Testa que imagens grandes são lidas do arquivo, sem entrar no cache, quando o conector
+     * não oferece o sendfile.
+     */
+    @Test
+    public void deveLerDoArquivoImagemMaiorQueOLimiteDoCache() throws IOException {
+        Path grande = imagemTemporaria(32 * 1024);
+
+        ResponseEntity<?> response = imagemModel.imagemPublicacao(1L, null,
+                () -> new ImagemPublicacaoRecord(grande.toString(), null), requisicao());
+
+        assertInstanceOf(FileSystemResource.class, response.getBody());
+        assertEquals(0, cacheImagens.estatisticas().entradas());
+    }
+
+    /**
+     * Testa que a largura pedida é atendida pela cópia reduzida, quando ela existe, e que a
+     * original é servida com cache curto, pedindo a geração da cópia, quando ela não existe.
+     */
+    @Test
+    public void deveServirCopiaReduzidaDaLarguraPedida() throws IOException {
+        Path original = imagemTemporaria(1000);
+        Files.write(LarguraImagem.CARTAO.caminho(original), new byte[300]);
+
+        ResponseEntity<?> response = imagemModel.imagemPublicacao(1L, 400,
+                () -> new ImagemPublicacaoRecord(original.toString(), null), requisicao());
+
+        assertEquals(300, ((Resource) response.getBody()).contentLength());
+
+        ServletWebRequest requisicao = requisicao();
+        response = imagemModel.imagemPublicacao(1L, 200,
+                () -> new ImagemPublicacaoRecord(original.toString(), null), requisicao);
+
+        assertEquals(1000, ((Resource) response.getBody()).contentLength());
+        assertEquals("max-age=60, public", requisicao.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        verify(geradorDerivadas).gerar(original);
+    }
+
+    /**
+     * Testa que a ETag das imagens gravadas pelo conteúdo é o próprio hash.
+     */
+    @Test
+    public void deveUsarOHashDoNomeComoETag() throws IOException {
+        String hash = "ab".repeat(32);
+        Path imagem = Files.write(pasta.resolve(hash + ".png"), new byte[100]);
+        ServletWebRequest requisicao = requisicao();
+
+        imagemModel.imagemPublicacao(1L, null, () -> new ImagemPublicacaoRecord(imagem.toString(), null), requisicao);
+
+        assertEquals("\"" + hash + "\"", requisicao.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Testa que o tipo da imagem é definido pela extensão do arquivo.
+     */
+    @Test
+    public void deveDefinirTipoDaImagemPelaExtensao() {
+        assertEquals(MediaType.IMAGE_JPEG_VALUE, imagemModel.tipoDaImagem("/tmp/foto.JPEG"));
+        assertEquals(MediaType.IMAGE_PNG_VALUE, imagemModel.tipoDaImagem("/tmp/foto.png"));
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, imagemModel.tipoDaImagem("/tmp/foto"));
+    }
+
+    private static byte[] jpeg(int tamanho) {
+        byte[] conteudo = new byte[tamanho];
+        new Random().nextBytes(conteudo);
+        conteudo[0] = (byte) 0xFF;
+        conteudo[1] = (byte) 0xD8;
+        conteudo[2] = (byte) 0xFF;
+        return conteudo;
+    }
+
+    private static String sha256(byte[] conteudo) throws IOException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static List<Path> temporarios() throws IOException {
+        Path pasta = ImagemModel.getDefaultPath().resolve(ArmazenamentoImagemUtil.PASTA_TEMPORARIA);
+        if (Files.notExists(pasta)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            return arquivos.toList();
+        }
+    }
+
+    private static MultipartFile multipartFileCom(String nome, byte[] conteudo) throws IOException {
+        MultipartFile arquivo = mock(MultipartFile.class);
+        when(arquivo.getOriginalFilename()).thenReturn(nome);
+        when(arquivo.getInputStream()).thenReturn(new ByteArrayInputStream(conteudo));
+        return arquivo;
+    }
+
+    private Path imagemTemporaria(int tamanho) throws IOException {
+        return Files.write(pasta.resolve(UUID.randomUUID() + ".jpg"), new byte[tamanho]);
+    }
+
+    private static ServletWebRequest requisicao() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/imagens/publicacao/1"),
+                new MockHttpServletResponse());
+    }
 }
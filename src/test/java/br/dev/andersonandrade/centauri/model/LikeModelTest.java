@@ -0,0 +1,62 @@
+package br.dev.andersonandrade.centauri.model;
+
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
+import br.dev.andersonandrade.centauri.service.AgregadorLikes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link LikeModel}, garantindo que os likes e dislikes sejam
+ * entregues ao agregador, sem carregar nem gravar as publicações a cada clique, e que
+ * as listagens somem os cliques ainda não gravados.
+ */
+class LikeModelTest {
+
+    @Mock
+    private AgregadorLikes agregadorLikes;
+
+    private LikeModel likeModel;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        likeModel = new LikeModel(agregadorLikes);
+    }
+
+    @Test
+    void deveAcumularLikeSemAcessarABaseDeDados() {
+        likeModel.adicionarLike(10L);
+
+        verify(agregadorLikes).registrarLike(10L);
+        verifyNoMoreInteractions(agregadorLikes);
+    }
+
+    @Test
+    void deveAcumularDislikeSemAcessarABaseDeDados() {
+        likeModel.dislike(10L);
+
+        verify(agregadorLikes).registrarDislike(10L);
+        verifyNoMoreInteractions(agregadorLikes);
+    }
+
+    @Test
+    void deveSomarCliquesPendentesAsPublicacoesDoUsuario() {
+        when(agregadorLikes.pendente(10L)).thenReturn(new DeltaLikeRecord(10L, 2, 1));
+        when(agregadorLikes.pendente(11L)).thenReturn(new DeltaLikeRecord(11L, 0, 3));
+
+        List<PublicacaoUsuarioRecord> publicacoes = likeModel.somarPendentes(List.of(
+                new PublicacaoUsuarioRecord(10L, "Título", 4, 1),
+                new PublicacaoUsuarioRecord(11L, "Outro", 0, 0)));
+
+        assertEquals(List.of(new PublicacaoUsuarioRecord(10L, "Título", 5, 2),
+                new PublicacaoUsuarioRecord(11L, "Outro", 0, 3)), publicacoes);
+    }
+}
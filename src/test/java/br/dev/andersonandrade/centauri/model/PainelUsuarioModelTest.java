@@ -0,0 +1,124 @@
+package br.dev.andersonandrade.centauri.model;
+
+import br.dev.andersonandrade.centauri.entity.Login;
+import br.dev.andersonandrade.centauri.entity.MensagemUsuario;
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.entity.Senha;
+import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.record.PainelUsuarioRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
+import br.dev.andersonandrade.centauri.repository.MensagemUsuarioRepository;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import br.dev.andersonandrade.centauri.repository.UsuarioRepository;
+import br.dev.andersonandrade.centauri.service.AgregadorLikes;
+import br.dev.andersonandrade.centauri.service.RankingPublicacoes;
+import br.dev.andersonandrade.centauri.service.UsuarioService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da classe {@link PainelUsuarioModel}, garantindo com as estatísticas do Hibernate
+ * que a página do usuário seja carregada com quatro consultas, qualquer que seja a
+ * quantidade de publicações e mensagens, e que as publicações sejam paginadas pelo cursor.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PainelUsuarioModelTest {
+
+    private static final String EMAIL = "anderson@centauri.dev";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private MensagemUsuarioRepository mensagemUsuarioRepository;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    private PainelUsuarioModel painelUsuarioModel;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        AgregadorLikes agregadorLikes = mock(AgregadorLikes.class);
+        when(agregadorLikes.pendente(anyLong()))
+                .thenAnswer(invocacao -> new DeltaLikeRecord(invocacao.getArgument(0), 0, 0));
+        PublicacaoModel publicacaoModel = new PublicacaoModel(publicacaoRepository, mock(UsuarioService.class),
+                mock(ImagemModel.class), new LikeModel(agregadorLikes), mock(RankingPublicacoes.class),
+                entityManager.getEntityManager());
+        painelUsuarioModel = new PainelUsuarioModel(usuarioRepository,
+                new MensagemModel(mock(UsuarioService.class), mensagemUsuarioRepository), publicacaoModel, 3);
+        estatisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void deveCarregarPaginaDoUsuarioComQuatroConsultas() {
+        criarUsuarioComPublicacoesEMensagens(5);
+        estatisticas.clear();
+
+        PainelUsuarioRecord painel = painelUsuarioModel.carregar(EMAIL, null).orElseThrow();
+        painel.usuario().getLogin().getSenha().getChave();
+
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+        assertEquals(5, painel.caixaDeMensagem().getMensagens().size());
+        assertTrue(painel.caixaDeMensagem().getMensagens().stream().noneMatch(mensagem -> mensagem.isLida()));
+        assertEquals(List.of(5, 4, 3), likes(painel));
+        assertEquals(5, painel.quantidade());
+    }
+
+    @Test
+    void devePaginarPublicacoesDoUsuarioPeloCursor() {
+        criarUsuarioComPublicacoesEMensagens(5);
+
+        PainelUsuarioRecord primeira = painelUsuarioModel.carregar(EMAIL, null).orElseThrow();
+        PainelUsuarioRecord segunda = painelUsuarioModel.carregar(EMAIL, primeira.publicacoes().proxima())
+                .orElseThrow();
+
+        assertEquals(List.of(2, 1), likes(segunda));
+        assertNull(segunda.publicacoes().proxima());
+    }
+
+    @Test
+    void deveRetornarVazioParaUsuarioNaoEncontrado() {
+        assertTrue(painelUsuarioModel.carregar("ninguem@centauri.dev", null).isEmpty());
+    }
+
+    private void criarUsuarioComPublicacoesEMensagens(int quantidade) {
+        Usuario usuario = entityManager.persist(new Usuario("Anderson", "Andrade",
+                new Login(EMAIL, "anderson", true, new Senha("chave"))));
+        for (int i = 1; i <= quantidade; i++) {
+            Publicacao publicacao = new Publicacao(usuario, null, "Título " + i + "\nTexto", LocalDateTime.now(), true);
+            publicacao.setQtdPositivo(i);
+            entityManager.persist(publicacao);
+            entityManager.persist(new MensagemUsuario(usuario, "Mensagem " + i));
+        }
+        MensagemUsuario lida = new MensagemUsuario(usuario, "Lida");
+        lida.setLida(true);
+        entityManager.persist(lida);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static List<Integer> likes(PainelUsuarioRecord painel) {
+        return painel.publicacoes().publicacoes().stream().map(PublicacaoUsuarioRecord::likes).toList();
+    }
+}
@@ -0,0 +1,141 @@
+package br.dev.andersonandrade.centauri.model;
+
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.enumeradores.OrdemPublicacoes;
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PaginaPublicacoesRecord;
+import br.dev.andersonandrade.centauri.record.PaginaPublicacoesUsuarioRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoUsuarioRecord;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import br.dev.andersonandrade.centauri.service.RankingPublicacoes;
+import br.dev.andersonandrade.centauri.service.UsuarioService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link PublicacaoModel}, garantindo que as páginas do feed cobertas
+ * pelo ranking em memória não consultem a base de dados, que as demais sejam lidas a
+ * partir do cursor, que a página do autor continue do último registro gravado e que a
+ * leitura por período seja feita na base de dados.
+ */
+class PublicacaoModelTest {
+
+    @Mock
+    private PublicacaoRepository publicacaoRepository;
+
+    @Mock
+    private RankingPublicacoes rankingPublicacoes;
+
+    @Mock
+    private LikeModel likeModel;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private PublicacaoModel publicacaoModel;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        publicacaoModel = new PublicacaoModel(publicacaoRepository, mock(UsuarioService.class),
+                mock(ImagemModel.class), likeModel, rankingPublicacoes, entityManager);
+    }
+
+    @Test
+    void deveLerPaginaDasMaisCurtidasDoRankingEmMemoria() {
+        when(rankingPublicacoes.apos(null, 3)).thenReturn(List.of(publicacao(5L, 9), publicacao(4L, 7),
+                publicacao(3L, 2)));
+
+        PaginaPublicacoesRecord pagina = publicacaoModel.pagina(OrdemPublicacoes.CURTIDAS, null, 2);
+
+        assertEquals(List.of(5L, 4L), pagina.publicacoes().stream().map(PublicacaoResumoRecord::id).toList());
+        assertEquals(new CursorPublicacaoRecord(null, 7, 4L), pagina.proxima());
+        verifyNoInteractions(publicacaoRepository);
+    }
+
+    @Test
+    void deveCompletarPaginaDasMaisCurtidasComABaseDeDadosAposORanking() {
+        CursorPublicacaoRecord cursor = new CursorPublicacaoRecord(null, 9, 5L);
+        when(rankingPublicacoes.apos(cursor, 3)).thenReturn(List.of(publicacao(4L, 7)));
+        when(publicacaoRepository.findMaisCurtidasAbaixoDe(7, 4L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(publicacao(3L, 2)), PageRequest.of(0, 1), true));
+
+        PaginaPublicacoesRecord pagina = publicacaoModel.pagina(OrdemPublicacoes.CURTIDAS, cursor, 2);
+
+        assertEquals(List.of(4L, 3L), pagina.publicacoes().stream().map(PublicacaoResumoRecord::id).toList());
+        assertEquals(new CursorPublicacaoRecord(null, 2, 3L), pagina.proxima());
+    }
+
+    @Test
+    void deveEncerrarFeedDasRecentesNaUltimaPagina() {
+        LocalDateTime data = LocalDateTime.of(2024, 9, 28, 10, 0);
+        when(publicacaoRepository.findRecentesAntesDe(data, 8L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(publicacao(7L, 0)), PageRequest.of(0, 2), false));
+
+        PaginaPublicacoesRecord pagina = publicacaoModel.pagina(OrdemPublicacoes.RECENTES,
+                new CursorPublicacaoRecord(data, 0, 8L), 2);
+
+        assertEquals(1, pagina.publicacoes().size());
+        assertNull(pagina.proxima());
+        verify(rankingPublicacoes, never()).apos(any(), anyInt());
+    }
+
+    @Test
+    void deveRejeitarPeriodoComDataInicialPosteriorAFinal() {
+        LocalDateTime agora = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> publicacaoModel.buscarPorData(agora, agora.minusDays(1), PageRequest.of(0, 10)));
+        verifyNoInteractions(publicacaoRepository);
+    }
+
+    @Test
+    void deveLimparContextoDePersistenciaACadaLoteLidoEmFluxo() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2024, 12, 31, 23, 59);
+        int quantidade = PublicacaoRepository.TAMANHO_LOTE_LEITURA * 2 + 1;
+        when(publicacaoRepository.streamAtivasEntre(inicio, fim))
+                .thenReturn(Stream.generate(() -> mock(Publicacao.class)).limit(quantidade));
+        List<Publicacao> lidas = new ArrayList<>();
+
+        assertEquals(quantidade, publicacaoModel.percorrerPorData(inicio, fim, lidas::add));
+
+        assertEquals(quantidade, lidas.size());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void deveMontarCursorDaPaginaDoAutorComOsLikesGravados() {
+        CursorPublicacaoRecord cursor = new CursorPublicacaoRecord(null, 9, 20L);
+        List<PublicacaoUsuarioRecord> gravadas = List.of(new PublicacaoUsuarioRecord(12L, "Título", 7, 0),
+                new PublicacaoUsuarioRecord(11L, "Outro", 3, 1));
+        when(publicacaoRepository.findDoAutorAbaixoDe(3L, 9, 20L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(gravadas, PageRequest.of(0, 2), true));
+        when(likeModel.somarPendentes(gravadas)).thenReturn(List.of(new PublicacaoUsuarioRecord(12L, "Título", 7, 0),
+                new PublicacaoUsuarioRecord(11L, "Outro", 5, 1)));
+
+        PaginaPublicacoesUsuarioRecord pagina = publicacaoModel.paginaDoAutor(3L, cursor, 2);
+
+        assertEquals(5, pagina.publicacoes().get(1).likes());
+        assertEquals(new CursorPublicacaoRecord(null, 3, 11L), pagina.proxima());
+    }
+
+    private static PublicacaoResumoRecord publicacao(Long id, int likes) {
+        return new PublicacaoResumoRecord(id, "Título", "Texto", "Anderson", null, likes);
+    }
+}
@@ -0,0 +1,113 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.service.AgregadorLikes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a vazão e a quantidade de escritas na base de dados do like gravado clique a clique,
+ * com um UPDATE atômico por clique, e do like acumulado pelo {@link AgregadorLikes}.
+ * <p>
+ * Os cliques são distribuídos entre poucas publicações, simulando publicações populares.
+ * O teste só roda quando a URL JDBC é informada, por exemplo:
+ * <pre>
+ * ./mvnw test -Dtest=LikeLoteRepositoryBenchmarkTest \
+ *   -Dcentauri.benchmark.url="jdbc:mysql://localhost:3306/centauri?rewriteBatchedStatements=true" \
+ *   -Dcentauri.benchmark.usuario=user -Dcentauri.benchmark.senha=senha
+ * </pre>
+ * Os registros são gravados em uma tabela temporária, removida ao final.
+ */
+@EnabledIfSystemProperty(named = "centauri.benchmark.url", matches = ".+")
+class LikeLoteRepositoryBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeLoteRepositoryBenchmarkTest.class);
+    private static final String TABELA = "likes_benchmark";
+    private static final List<String> COLUNAS = List.of("qtd_positivo", "qtd_negativo", "publicacao_id");
+    private static final int CLIQUES = Integer.getInteger("centauri.benchmark.quantidade", 20000);
+    private static final int PUBLICACOES = Integer.getInteger("centauri.benchmark.publicacoes", 20);
+    private static final int THREADS = Integer.getInteger("centauri.benchmark.threads", 16);
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("centauri.benchmark.url"),
+                System.getProperty("centauri.benchmark.usuario", ""), System.getProperty("centauri.benchmark.senha", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABELA);
+        jdbcTemplate.execute("CREATE TABLE " + TABELA + " (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "publicacao_id BIGINT UNIQUE, " +
+                "qtd_positivo INT NOT NULL, " +
+                "qtd_negativo INT NOT NULL)");
+        for (long publicacao = 1; publicacao <= PUBLICACOES; publicacao++) {
+            jdbcTemplate.update("INSERT INTO " + TABELA + " (publicacao_id, qtd_positivo, qtd_negativo) VALUES (?, 0, 0)",
+                    publicacao);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABELA);
+    }
+
+    @Test
+    void compararLikeCliqueACliqueComLikeAgregado() throws InterruptedException {
+        String sqlClique = "UPDATE " + TABELA + " SET qtd_positivo = qtd_positivo + 1 WHERE publicacao_id = ?";
+        long duracaoClique = clicar(publicacao -> jdbcTemplate.update(sqlClique, publicacao));
+        assertEquals(CLIQUES, totalLikes());
+
+        jdbcTemplate.update("UPDATE " + TABELA + " SET qtd_positivo = 0");
+        AgregadorLikes agregador = new AgregadorLikes(new LikeLoteRepository(jdbcTemplate, TABELA, COLUNAS), 100, 1000);
+        long duracaoAgregado;
+        try {
+            duracaoAgregado = clicar(agregador::registrarLike);
+            agregador.descarregar();
+        } finally {
+            agregador.encerrar();
+        }
+        assertEquals(CLIQUES, totalLikes());
+        long escritas = agregador.estatisticas().linhasAtualizadas();
+        assertTrue(escritas < CLIQUES);
+
+        logger.info("{} likes em {} publicações com {} threads: clique a clique {} likes/s e {} updates, " +
+                        "agregado {} likes/s e {} updates em {} gravações",
+                CLIQUES, PUBLICACOES, THREADS, vazao(duracaoClique), CLIQUES, vazao(duracaoAgregado), escritas,
+                agregador.estatisticas().descarregamentos());
+    }
+
+    private long clicar(LongConsumer like) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CLIQUES; i++) {
+            executor.execute(() -> like.accept(ThreadLocalRandom.current().nextLong(1, PUBLICACOES + 1)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        return System.nanoTime() - inicio;
+    }
+
+    private long totalLikes() {
+        return jdbcTemplate.queryForObject("SELECT SUM(qtd_positivo) FROM " + TABELA, Long.class);
+    }
+
+    private long vazao(long duracaoNanos) {
+        return Math.round(CLIQUES / (duracaoNanos / 1_000_000_000.0));
+    }
+}
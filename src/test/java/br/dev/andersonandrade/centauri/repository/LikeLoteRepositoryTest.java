@@ -0,0 +1,95 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.entity.Login;
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.entity.Senha;
+import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.model.ImagemModel;
+import br.dev.andersonandrade.centauri.model.LikeModel;
+import br.dev.andersonandrade.centauri.model.PublicacaoModel;
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.service.RankingPublicacoes;
+import br.dev.andersonandrade.centauri.service.UsuarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link LikeLoteRepository}, garantindo que os saldos sejam gravados
+ * nas colunas da própria publicação, descobertas pelo mapeamento do Hibernate, e que a
+ * gravação de uma publicação carregada antes não desfaça esses saldos.
+ */
+@DataJpaTest
+class LikeLoteRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Test
+    void deveGravarSaldosNaPublicacaoSemDeixarLikesNegativos() {
+        Usuario usuario = entityManager.persist(new Usuario("Anderson", "Andrade",
+                new Login("anderson@centauri.dev", "anderson", true, new Senha("chave"))));
+        Publicacao curtida = new Publicacao(usuario, null, "Título\nTexto", LocalDateTime.now(), true);
+        curtida.setQtdPositivo(1);
+        entityManager.persist(curtida);
+        Publicacao outra = entityManager.persist(new Publicacao(usuario, null, "Outra\nTexto", LocalDateTime.now(), true));
+        entityManager.flush();
+        entityManager.clear();
+        LikeLoteRepository repositorio = new LikeLoteRepository(jdbcTemplate, entityManagerFactory);
+
+        int linhas = repositorio.atualizar(List.of(new DeltaLikeRecord(curtida.getId(), 3, 5),
+                new DeltaLikeRecord(outra.getId(), 2, 0)));
+
+        assertEquals(2, linhas);
+        Publicacao curtidaAtualizada = entityManager.find(Publicacao.class, curtida.getId());
+        assertEquals(0, curtidaAtualizada.getQtdPositivo());
+        assertEquals(5, curtidaAtualizada.getQtdNegativo());
+        assertEquals(2, entityManager.find(Publicacao.class, outra.getId()).getQtdPositivo());
+        assertTrue(repositorio.existe(outra.getId()));
+        assertFalse(repositorio.existe(outra.getId() + 100));
+    }
+
+    @Test
+    void deveManterSaldosGravadosEntreACargaEAGravacaoDaPublicacao() {
+        Usuario usuario = entityManager.persist(new Usuario("Anderson", "Andrade",
+                new Login("anderson@centauri.dev", "anderson", true, new Senha("chave"))));
+        Publicacao publicacao = new Publicacao(usuario, null, "Título\nTexto", LocalDateTime.now(), true);
+        publicacao.setQtdPositivo(1);
+        entityManager.persist(publicacao);
+        entityManager.flush();
+        entityManager.clear();
+        LikeLoteRepository repositorio = new LikeLoteRepository(jdbcTemplate, entityManagerFactory);
+        RankingPublicacoes ranking = mock(RankingPublicacoes.class);
+        doAnswer(invocacao -> repositorio.atualizar(List.of(new DeltaLikeRecord(publicacao.getId(), 4, 2))))
+                .when(ranking).remover(publicacao.getId());
+        PublicacaoModel publicacaoModel = new PublicacaoModel(publicacaoRepository, mock(UsuarioService.class),
+                mock(ImagemModel.class), mock(LikeModel.class), ranking, entityManager.getEntityManager());
+
+        publicacaoModel.desativa(publicacao.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Publicacao desativada = entityManager.find(Publicacao.class, publicacao.getId());
+        assertFalse(desativada.isAtiva());
+        assertEquals(3, desativada.getQtdPositivo());
+        assertEquals(2, desativada.getQtdNegativo());
+    }
+}
@@ -0,0 +1,127 @@
+package br.dev.andersonandrade.centauri.repository;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara a vazão da gravação uma a uma, equivalente ao {@code save} com
+ * {@code GenerationType.IDENTITY}, com a gravação em lote do {@link TransportadorLoteRepository}.
+ * <p>
+ * O teste só roda quando a URL JDBC é informada, por exemplo:
+ * <pre>
+ * ./mvnw test -Dtest=TransportadorLoteRepositoryBenchmarkTest \
+ *   -Dcentauri.benchmark.url="jdbc:mysql://localhost:3306/centauri?rewriteBatchedStatements=true" \
+ *   -Dcentauri.benchmark.usuario=user -Dcentauri.benchmark.senha=senha
+ * </pre>
+ * As linhas são gravadas em uma tabela temporária, removida ao final.
+ */
+@EnabledIfSystemProperty(named = "centauri.benchmark.url", matches = ".+")
+class TransportadorLoteRepositoryBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransportadorLoteRepositoryBenchmarkTest.class);
+    private static final String TABELA = "transportador_benchmark";
+    private static final int QUANTIDADE = Integer.getInteger("centauri.benchmark.quantidade", 5000);
+    private static final int TAMANHO_LOTE = Integer.getInteger("centauri.benchmark.lote", 500);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("centauri.benchmark.url"),
+                System.getProperty("centauri.benchmark.usuario", ""), System.getProperty("centauri.benchmark.senha", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABELA);
+        jdbcTemplate.execute("CREATE TABLE " + TABELA + " (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "enderecoRemetente VARCHAR(150) NOT NULL, " +
+                "enderecoDestinatario VARCHAR(150) NOT NULL, " +
+                "titulo VARCHAR(200) NOT NULL, " +
+                "conteudo VARCHAR(3000) NOT NULL, " +
+                "dataEnvio TIMESTAMP(6), " +
+                "dataRecebimento TIMESTAMP(6), " +
+                "avisoRecebimento BOOLEAN NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABELA);
+    }
+
+    @Test
+    void compararGravacaoUmaAUmComGravacaoEmLote() {
+        List<Transportador> transportadores = criarTransportadores();
+        TransportadorLoteRepository loteRepository = new TransportadorLoteRepository(jdbcTemplate, TABELA,
+                TransportadorLoteRepository.ATRIBUTOS, TAMANHO_LOTE);
+
+        long inicioUmaAUm = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> transportadores.forEach(this::inserirUmaAUm));
+        long duracaoUmaAUm = System.nanoTime() - inicioUmaAUm;
+
+        long inicioLote = System.nanoTime();
+        Integer gravadas = transactionTemplate.execute(status -> loteRepository.inserir(transportadores));
+        long duracaoLote = System.nanoTime() - inicioLote;
+
+        assertEquals(QUANTIDADE, gravadas);
+        assertEquals(2L * QUANTIDADE, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABELA, Long.class));
+
+        logger.info("Gravação de {} mensagens: uma a uma {} msg/s, em lotes de {} {} msg/s",
+                QUANTIDADE, vazao(duracaoUmaAUm), TAMANHO_LOTE, vazao(duracaoLote));
+    }
+
+    private void inserirUmaAUm(Transportador transportador) {
+        String sql = "INSERT INTO " + TABELA + " (" + String.join(", ", TransportadorLoteRepository.ATRIBUTOS) +
+                ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement ps = conexao.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, transportador.remetente().endereco());
+            ps.setString(2, transportador.destinatario().endereco());
+            ps.setString(3, transportador.mensagem().getTitulo());
+            ps.setString(4, transportador.mensagem().getConteudo());
+            ps.setTimestamp(5, Timestamp.valueOf(transportador.mensagem().getDataEnvio()));
+            ps.setTimestamp(6, null);
+            ps.setBoolean(7, false);
+            return ps;
+        }, new GeneratedKeyHolder());
+    }
+
+    private List<Transportador> criarTransportadores() {
+        RemetenteRecord remetente = new RemetenteRecord("Anderson", "anderson@dominio.com");
+        DestinatarioRecord destinatario = new DestinatarioRecord("Andreza", "andreza@dominio.com");
+        LocalDateTime agora = LocalDateTime.now();
+        List<Transportador> transportadores = new ArrayList<>(QUANTIDADE);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            transportadores.add(new TransportadorRecord(destinatario, remetente,
+                    new MensagemBean("Chat", "Mensagem " + i, agora)));
+        }
+        return transportadores;
+    }
+
+    private long vazao(long duracaoNanos) {
+        return Math.round(QUANTIDADE / (duracaoNanos / 1_000_000_000.0));
+    }
+}
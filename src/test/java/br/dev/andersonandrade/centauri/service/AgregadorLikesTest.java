@@ -0,0 +1,143 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.repository.LikeLoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link AgregadorLikes}, cobrindo a gravação dos cliques acumulados
+ * em um único update por publicação e a soma dos cliques pendentes nas leituras.
+ */
+class AgregadorLikesTest {
+
+    @Mock
+    private LikeLoteRepository likeLoteRepository;
+
+    private AgregadorLikes agregador;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(likeLoteRepository.existe(anyLong())).thenReturn(true);
+        when(likeLoteRepository.atualizar(anyList())).thenAnswer(invocacao -> invocacao.<List<?>>getArgument(0).size());
+        agregador = new AgregadorLikes(likeLoteRepository, 60_000, 1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        agregador.encerrar();
+    }
+
+    @Test
+    void deveGravarOsCliquesDeCadaPublicacaoEmUmUnicoUpdate() {
+        for (int i = 0; i < 5; i++) {
+            agregador.registrarLike(1L);
+        }
+        agregador.registrarDislike(1L);
+        agregador.registrarLike(2L);
+
+        assertEquals(2, agregador.descarregar());
+
+        verify(likeLoteRepository).atualizar(argThat(deltas -> deltas.size() == 2
+                && deltas.contains(new DeltaLikeRecord(1L, 5, 1))
+                && deltas.contains(new DeltaLikeRecord(2L, 1, 0))));
+        assertEquals(0, agregador.estatisticas().pendentes());
+        assertEquals(7, agregador.estatisticas().eventos());
+    }
+
+    @Test
+    void deveManterCliquesPendentesQuandoAGravacaoFalha() {
+        agregador.registrarLike(1L);
+        when(likeLoteRepository.atualizar(anyList())).thenThrow(new IllegalStateException("Base indisponível"));
+
+        assertThrows(IllegalStateException.class, () -> agregador.descarregar());
+
+        reset(likeLoteRepository);
+        when(likeLoteRepository.atualizar(anyList())).thenReturn(1);
+        assertEquals(1, agregador.descarregar());
+        verify(likeLoteRepository).atualizar(List.of(new DeltaLikeRecord(1L, 1, 0)));
+        assertEquals(0, agregador.descarregar());
+    }
+
+    @Test
+    void deveInformarCliquesPendentesNaLeitura() {
+        agregador.registrarLike(1L);
+        agregador.registrarLike(1L);
+        agregador.registrarDislike(1L);
+
+        assertEquals(new DeltaLikeRecord(1L, 2, 1), agregador.pendente(1L));
+        assertEquals(new DeltaLikeRecord(2L, 0, 0), agregador.pendente(2L));
+    }
+
+    @Test
+    void deveRecusarLikeDePublicacaoSemRegistro() {
+        when(likeLoteRepository.existe(99L)).thenReturn(false);
+
+        assertThrows(RuntimeException.class, () -> agregador.registrarLike(99L));
+        agregador.registrarDislike(99L);
+
+        assertEquals(0, agregador.estatisticas().eventos());
+    }
+
+    @Test
+    void deveLembrarPublicacaoInexistenteSemConsultarABaseDeNovo() {
+        when(likeLoteRepository.existe(99L)).thenReturn(false);
+
+        for (int i = 0; i < 5; i++) {
+            agregador.registrarDislike(99L);
+        }
+
+        verify(likeLoteRepository, times(1)).existe(99L);
+    }
+
+    @Test
+    void deveConsultarPublicacaoInexistenteDeNovoDepoisDaValidade() throws InterruptedException {
+        agregador.encerrar();
+        agregador = new AgregadorLikes(likeLoteRepository, 60_000, 1_000_000, 10, 1, 60_000);
+        when(likeLoteRepository.existe(99L)).thenReturn(false);
+
+        agregador.registrarDislike(99L);
+        Thread.sleep(5);
+        agregador.registrarDislike(99L);
+
+        verify(likeLoteRepository, times(2)).existe(99L);
+    }
+
+    @Test
+    void deveManterContadoresComCliquesRecentesEntreAsGravacoes() {
+        for (int i = 0; i < 3; i++) {
+            agregador.registrarLike(1L);
+            assertEquals(1, agregador.descarregar());
+            assertEquals(0, agregador.descarregar());
+        }
+
+        verify(likeLoteRepository, times(1)).existe(1L);
+    }
+
+    @Test
+    void deveRemoverContadoresOciososDepoisDaGravacao() throws InterruptedException {
+        agregador.encerrar();
+        agregador = new AgregadorLikes(likeLoteRepository, 60_000, 1_000_000, 10, 60_000, 1);
+        agregador.registrarLike(1L);
+        assertEquals(1, agregador.descarregar());
+        Thread.sleep(5);
+        assertEquals(0, agregador.descarregar());
+
+        agregador.registrarLike(1L);
+
+        verify(likeLoteRepository, times(2)).existe(1L);
+        assertEquals(new DeltaLikeRecord(1L, 1, 0), agregador.pendente(1L));
+        assertEquals(1, agregador.descarregar());
+        verify(likeLoteRepository, times(2)).atualizar(List.of(new DeltaLikeRecord(1L, 1, 0)));
+    }
+}
@@ -0,0 +1,119 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.entity.TransportadorEntity;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import br.dev.andersonandrade.centauri.repository.TransportadorLoteRepository;
+import br.dev.andersonandrade.centauri.repository.TransportadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link ArmazemMensagens}, garantindo que os filtros
+ * sejam delegados à base de dados em vez de carregar a tabela inteira.
+ */
+class ArmazemMensagensTest {
+
+    @Mock
+    private TransportadorRepository transportadorRepository;
+
+    @Mock
+    private TransportadorLoteRepository transportadorLoteRepository;
+
+    private ArmazemMensagens armazem;
+
+    private final RemetenteRecord remetente = new RemetenteRecord("Anderson", "anderson@dominio.com");
+    private final DestinatarioRecord destinatario = new DestinatarioRecord("Andreza", "andreza@dominio.com");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        armazem = new ArmazemMensagens(transportadorRepository, transportadorLoteRepository);
+    }
+
+    @Test
+    void deveFiltrarConversaNaBaseDeDados() {
+        LocalDateTime agora = LocalDateTime.now();
+        when(transportadorRepository.findByEnderecoRemetenteAndEnderecoDestinatarioOrderByDataEnvioAscIdAsc(
+                remetente.endereco(), destinatario.endereco()))
+                .thenReturn(List.of(entidade(1L, "Olá", agora)));
+
+        List<Mensagem> mensagens = armazem.mensagens(remetente, destinatario);
+
+        assertEquals(1, mensagens.size());
+        assertEquals("Olá", mensagens.get(0).getConteudo());
+        assertEquals(1L, ((MensagemBean) mensagens.get(0)).getId());
+        verify(transportadorRepository, never()).findAll();
+    }
+
+    @Test
+    void deveDevolverPaginaAnteriorEmOrdemCronologica() {
+        LocalDateTime agora = LocalDateTime.now();
+        CursorMensagemRecord cursor = new CursorMensagemRecord(agora, 10L);
+        when(transportadorRepository.findAnterioresDaConversa(remetente.endereco(), destinatario.endereco(),
+                agora, 10L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(entidade(9L, "segunda", agora.minusMinutes(1)),
+                        entidade(8L, "primeira", agora.minusMinutes(2))));
+
+        List<Mensagem> mensagens = armazem.mensagensAnteriores(remetente, destinatario, cursor, 2);
+
+        assertEquals(List.of("primeira", "segunda"), mensagens.stream().map(Mensagem::getConteudo).toList());
+        verify(transportadorRepository, never()).findUltimasDaConversa(any(), any(), any());
+    }
+
+    @Test
+    void deveBuscarSomenteMensagensPosterioresAoCursor() {
+        LocalDateTime agora = LocalDateTime.now();
+        when(transportadorRepository.findPosterioresDaConversa(remetente.endereco(), destinatario.endereco(),
+                agora, Long.MAX_VALUE, PageRequest.of(0, 50)))
+                .thenReturn(List.of(entidade(11L, "nova", agora.plusSeconds(1))));
+
+        List<Mensagem> mensagens = armazem.mensagensPosteriores(remetente, destinatario,
+                new CursorMensagemRecord(agora, null), 50);
+
+        assertEquals(List.of("nova"), mensagens.stream().map(Mensagem::getConteudo).toList());
+        verify(transportadorRepository, never())
+                .findByEnderecoRemetenteAndEnderecoDestinatarioOrderByDataEnvioAscIdAsc(any(), any());
+    }
+
+    @Test
+    void deveArmazenarEmLoteSemSalvarUmaAUm() {
+        List<Transportador> transportadores = List.of(
+                new TransportadorRecord(destinatario, remetente, new MensagemBean("Chat", "um", LocalDateTime.now())),
+                new TransportadorRecord(destinatario, remetente, new MensagemBean("Chat", "dois", LocalDateTime.now())));
+        when(transportadorLoteRepository.inserir(transportadores)).thenReturn(2);
+
+        armazem.armazenar(transportadores);
+
+        verify(transportadorLoteRepository).inserir(transportadores);
+        verify(transportadorRepository, never()).save(any());
+    }
+
+    @Test
+    void deveRecusarLimiteInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> armazem.mensagensAnteriores(remetente, destinatario, null, 0));
+    }
+
+    private TransportadorEntity entidade(Long id, String conteudo, LocalDateTime dataEnvio) {
+        TransportadorEntity entity = new TransportadorEntity(new TransportadorRecord(destinatario, remetente,
+                new MensagemBean("Chat", conteudo, dataEnvio)));
+        entity.setId(id);
+        return entity;
+    }
+}
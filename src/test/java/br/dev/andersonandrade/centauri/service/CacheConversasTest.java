@@ -0,0 +1,130 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link CacheConversas}, cobrindo a leitura com e sem acerto,
+ * a escrita direta das mensagens recebidas e a remoção de conversas.
+ */
+class CacheConversasTest {
+
+    private final RemetenteRecord remetente = new RemetenteRecord("Anderson", "anderson@dominio.com");
+    private final DestinatarioRecord destinatario = new DestinatarioRecord("Andreza", "andreza@dominio.com");
+    private final ChaveConversaRecord chave = ChaveConversaRecord.de(remetente, destinatario);
+
+    private CacheConversas cache;
+
+    @AfterEach
+    void tearDown() {
+        cache.encerrar();
+    }
+
+    @Test
+    void deveConsultarBaseDeDadosSomenteNaPrimeiraLeitura() {
+        cache = new CacheConversas(10, 10, 60_000);
+        AtomicInteger consultas = new AtomicInteger();
+
+        cache.mensagens(chave, () -> {
+            consultas.incrementAndGet();
+            return List.of(mensagem("antiga", LocalDateTime.now().minusMinutes(1)));
+        });
+        List<Mensagem> mensagens = cache.mensagens(chave, () -> {
+            consultas.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(1, consultas.get());
+        assertEquals(List.of("antiga"), conteudos(mensagens));
+        assertEquals(1, cache.estatisticas().acertos());
+        assertEquals(1, cache.estatisticas().faltas());
+    }
+
+    @Test
+    void deveMesclarMensagemRecebidaComACopiaDaBaseSemDuplicar() {
+        cache = new CacheConversas(10, 10, 60_000);
+        LocalDateTime dataEnvio = LocalDateTime.now().minusSeconds(5);
+        cache.adicionar(chave, mensagem("olá", dataEnvio));
+
+        MensagemBean daBase = mensagem("olá", dataEnvio.truncatedTo(ChronoUnit.MICROS));
+        daBase.setId(42L);
+        List<Mensagem> mensagens = cache.mensagens(chave,
+                () -> List.of(mensagem("anterior", dataEnvio.minusMinutes(1)), daBase));
+
+        assertEquals(List.of("anterior", "olá"), conteudos(mensagens));
+        assertEquals(42L, ((MensagemBean) mensagens.get(1)).getId());
+    }
+
+    @Test
+    void deveAcrescentarMensagensArmazenadasSomenteEmConversasEmCache() {
+        cache = new CacheConversas(10, 10, 60_000);
+        cache.mensagens(chave, List::of);
+        ChaveConversaRecord outra = new ChaveConversaRecord("outro@dominio.com", destinatario.endereco());
+
+        cache.armazenadas(List.of(
+                new TransportadorRecord(destinatario, remetente, mensagem("gravada", LocalDateTime.now())),
+                new TransportadorRecord(destinatario, new RemetenteRecord("Outro", outra.remetente()),
+                        mensagem("fora do cache", LocalDateTime.now()))));
+
+        assertEquals(List.of("gravada"), conteudos(cache.mensagens(chave, List::of)));
+        assertEquals(1, cache.estatisticas().entradas());
+    }
+
+    @Test
+    void deveRemoverConversasInativas() throws InterruptedException {
+        cache = new CacheConversas(10, 10, 1);
+        cache.mensagens(chave, List::of);
+        Thread.sleep(5);
+
+        cache.removerInativas();
+
+        assertEquals(0, cache.estatisticas().entradas());
+        assertEquals(1, cache.estatisticas().remocoes());
+    }
+
+    @Test
+    void deveManterConversaQueRecebeuMensagemDepoisDeFicarInativa() throws InterruptedException {
+        cache = new CacheConversas(10, 10, 50);
+        cache.mensagens(chave, List::of);
+        Thread.sleep(80);
+
+        cache.adicionar(chave, mensagem("nova", LocalDateTime.now()));
+        cache.removerInativas();
+
+        assertEquals(List.of("nova"), conteudos(cache.mensagens(chave, () -> fail("A conversa foi removida"))));
+        assertEquals(0, cache.estatisticas().remocoes());
+    }
+
+    @Test
+    void deveRemoverConversasMenosAcessadasAoUltrapassarOLimite() {
+        cache = new CacheConversas(2, 10, 60_000);
+        for (int i = 0; i < 3; i++) {
+            cache.mensagens(new ChaveConversaRecord("remetente" + i + "@dominio.com", destinatario.endereco()),
+                    List::of);
+        }
+
+        assertTrue(cache.estatisticas().entradas() <= 2);
+        assertTrue(cache.estatisticas().remocoes() >= 1);
+    }
+
+    private MensagemBean mensagem(String conteudo, LocalDateTime dataEnvio) {
+        return new MensagemBean("Chat", conteudo, dataEnvio);
+    }
+
+    private List<String> conteudos(List<Mensagem> mensagens) {
+        return mensagens.stream().map(Mensagem::getConteudo).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import br.dev.andersonandrade.centauri.record.EstatisticaCacheImagensRecord;
+import br.dev.andersonandrade.centauri.record.ImagemEmCacheRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link CacheImagens}, garantindo que o cache respeite o limite de bytes,
+ * removendo as imagens acessadas há mais tempo, e que informe os acertos e os bytes guardados.
+ */
+class CacheImagensTest {
+
+    private CacheImagens cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheImagens(1000, 400);
+    }
+
+    @Test
+    void deveRemoverAsImagensAcessadasHaMaisTempoAoPassarDoLimiteDeBytes() throws InterruptedException {
+        cache.guardar(1L, null, imagem(400));
+        cache.guardar(2L, null, imagem(400));
+        Thread.sleep(1);
+        assertNotNull(cache.buscar(1L, null));
+
+        cache.guardar(3L, null, imagem(400));
+
+        assertNotNull(cache.buscar(1L, null));
+        assertNull(cache.buscar(2L, null));
+        assertNotNull(cache.buscar(3L, null));
+        assertEquals(800, cache.estatisticas().bytes());
+        assertEquals(1, cache.estatisticas().remocoes());
+    }
+
+    @Test
+    void deveIgnorarImagemMaiorQueOTamanhoMaximo() {
+        assertFalse(cache.admite(401));
+
+        cache.guardar(1L, null, imagem(401));
+
+        assertNull(cache.buscar(1L, null));
+        assertEquals(0, cache.estatisticas().bytes());
+    }
+
+    @Test
+    void deveGuardarCadaLarguraSeparadaEDescartarTodasJuntas() {
+        cache.guardar(1L, null, imagem(300));
+        cache.guardar(1L, LarguraImagem.CARTAO, imagem(100));
+
+        assertEquals(100, cache.buscar(1L, LarguraImagem.CARTAO).bytes().length);
+        assertNull(cache.buscar(1L, LarguraImagem.MINIATURA));
+
+        cache.invalidar(1L);
+
+        assertNull(cache.buscar(1L, null));
+        assertNull(cache.buscar(1L, LarguraImagem.CARTAO));
+        assertEquals(0, cache.estatisticas().bytes());
+    }
+
+    @Test
+    void deveInformarTaxaDeAcertosEBytesGuardados() {
+        cache.guardar(1L, null, imagem(100));
+        cache.buscar(1L, null);
+        cache.buscar(1L, null);
+        cache.buscar(1L, null);
+        cache.buscar(2L, null);
+        cache.invalidar(1L);
+
+        EstatisticaCacheImagensRecord estatisticas = cache.estatisticas();
+        assertEquals(3, estatisticas.acertos());
+        assertEquals(1, estatisticas.faltas());
+        assertEquals(0.75, estatisticas.taxaAcertos());
+        assertEquals(0, estatisticas.bytes());
+        assertEquals(0, estatisticas.entradas());
+    }
+
+    private static ImagemEmCacheRecord imagem(int tamanho) {
+        return new ImagemEmCacheRecord(new byte[tamanho], "image/jpeg", "\"1-" + tamanho + "\"", 0);
+    }
+}
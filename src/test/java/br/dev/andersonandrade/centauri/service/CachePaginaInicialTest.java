@@ -0,0 +1,70 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.record.CursorPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.FragmentoRenderizadoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link CachePaginaInicial}, garantindo que os cartões sejam renderizados
+ * com o template real somente uma vez por versão do ranking.
+ */
+class CachePaginaInicialTest {
+
+    private final AtomicInteger consultas = new AtomicInteger();
+    private CachePaginaInicial cache;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolvedor = new ClassLoaderTemplateResolver();
+        resolvedor.setPrefix("templates/");
+        resolvedor.setSuffix(".html");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolvedor);
+        cache = new CachePaginaInicial(templateEngine);
+    }
+
+    @Test
+    void deveRenderizarUmaVezPorVersao() {
+        FragmentoRenderizadoRecord primeira = cache.cartoes(1, variaveis("Primeira publicação"));
+        FragmentoRenderizadoRecord repetida = cache.cartoes(1, variaveis("Não deve ser renderizada"));
+
+        assertSame(primeira, repetida);
+        assertEquals(1, consultas.get());
+        assertTrue(primeira.html().contains("Primeira publicação"));
+        assertTrue(primeira.html().contains("data-id=\"7\""));
+        assertTrue(primeira.html().contains("imagens/publicacao/7?w=480"));
+        assertTrue(primeira.html().contains("imagens/publicacao/7?w=1080 1080w"));
+        assertEquals(1, cache.estatisticas().acertos());
+    }
+
+    @Test
+    void deveRenderizarNovamenteComNovaEtagQuandoAVersaoMuda() {
+        FragmentoRenderizadoRecord primeira = cache.cartoes(1, variaveis("Antes"));
+        FragmentoRenderizadoRecord segunda = cache.cartoes(2, variaveis("Depois"));
+
+        assertNotEquals(primeira.etag(), segunda.etag());
+        assertTrue(segunda.html().contains("Depois"));
+        assertEquals(2, consultas.get());
+        assertEquals(1, cache.estatisticas().remocoes());
+    }
+
+    private Supplier<Map<String, Object>> variaveis(String titulo) {
+        return () -> {
+            consultas.incrementAndGet();
+            PublicacaoResumoRecord publicacao = new PublicacaoResumoRecord(7L, titulo, " texto", "Anderson", null, 3);
+            return Map.of("listaPublicacao", List.of(publicacao),
+                    "proximaPagina", CursorPublicacaoRecord.de(publicacao));
+        };
+    }
+}
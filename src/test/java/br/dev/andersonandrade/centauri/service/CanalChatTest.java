@@ -0,0 +1,86 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.record.ChaveConversaRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link CanalChat}, garantindo que cada mensagem chegue somente às
+ * assinaturas do seu sentido de conversa e que assinaturas desconectadas sejam removidas.
+ */
+class CanalChatTest {
+
+    private final CanalChat canal = new CanalChat(60_000, 60_000);
+    private final ChaveConversaRecord andersonParaAndreza =
+            new ChaveConversaRecord("anderson@dominio.com", "andreza@dominio.com");
+    private final ChaveConversaRecord andrezaParaAnderson =
+            new ChaveConversaRecord("andreza@dominio.com", "anderson@dominio.com");
+
+    @AfterEach
+    void tearDown() {
+        canal.encerrar();
+    }
+
+    @Test
+    void devePublicarSomenteParaAssinantesDaConversa() {
+        EmissorRegistrador andreza = new EmissorRegistrador(false);
+        EmissorRegistrador anderson = new EmissorRegistrador(false);
+        canal.assinar(andersonParaAndreza, andreza);
+        canal.assinar(andrezaParaAnderson, anderson);
+
+        canal.publicar(andersonParaAndreza, new MensagemBean("Chat", "Olá", LocalDateTime.now()));
+
+        assertEquals(1, andreza.eventos.size());
+        assertTrue(anderson.eventos.isEmpty());
+    }
+
+    @Test
+    void deveRemoverAssinaturaQueFalhaAoReceber() {
+        canal.assinar(andersonParaAndreza, new EmissorRegistrador(true));
+        EmissorRegistrador ativa = new EmissorRegistrador(false);
+        canal.assinar(andersonParaAndreza, ativa);
+
+        canal.publicar(andersonParaAndreza, new MensagemBean("Chat", "Olá", LocalDateTime.now()));
+
+        assertEquals(1, canal.assinantes(andersonParaAndreza));
+        assertEquals(1, ativa.eventos.size());
+    }
+
+    @Test
+    void deveRemoverAssinaturaDesconectadaAoPulsar() {
+        canal.assinar(andersonParaAndreza, new EmissorRegistrador(true));
+
+        canal.pulsar();
+
+        assertEquals(0, canal.assinantes(andersonParaAndreza));
+    }
+
+    /**
+     * Emissor que registra os eventos enviados ou simula um navegador desconectado.
+     */
+    private static final class EmissorRegistrador extends SseEmitter {
+        private final boolean desconectado;
+        private final List<SseEventBuilder> eventos = new ArrayList<>();
+
+        private EmissorRegistrador(boolean desconectado) {
+            this.desconectado = desconectado;
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            if (desconectado) {
+                throw new IOException("Conexão encerrada pelo navegador");
+            }
+            eventos.add(evento);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import br.dev.andersonandrade.centauri.record.ImagemSemHashRecord;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import br.dev.andersonandrade.centauri.uteis.ArmazenamentoImagemUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da classe {@link ColetorImagensOrfas}, garantindo que somente as imagens sem
+ * publicação ativa e fora da carência sejam removidas, junto com as suas cópias, que as
+ * referências sejam comparadas pelo hash e que nada seja removido quando nenhuma imagem
+ * da pasta é referenciada.
+ */
+class ColetorImagensOrfasTest {
+
+    @TempDir
+    private Path raiz;
+
+    private PublicacaoRepository publicacaoRepository;
+    private ColetorImagensOrfas coletor;
+
+    @BeforeEach
+    void setUp() {
+        publicacaoRepository = mock(PublicacaoRepository.class);
+        coletor = new ColetorImagensOrfas(publicacaoRepository, raiz, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coletor.encerrar();
+    }
+
+    @Test
+    void deveRemoverSomenteImagensSemPublicacaoAtivaForaDaCarencia() throws IOException {
+        Path referenciada = imagem("a".repeat(64), true);
+        Path orfa = imagem("b".repeat(64), true);
+        Path copiaDaOrfa = Files.write(LarguraImagem.CARTAO.caminho(orfa), new byte[1]);
+        Path recente = imagem("c".repeat(64), false);
+        Files.createDirectories(raiz.resolve("2024"));
+        Files.createDirectories(raiz.resolve(ArmazenamentoImagemUtil.PASTA_TEMPORARIA));
+        Path antiga = antigo(Files.write(raiz.resolve("2024").resolve("codigo.jpg"), new byte[1]));
+        Path temporario = antigo(Files.write(raiz.resolve(ArmazenamentoImagemUtil.PASTA_TEMPORARIA)
+                .resolve("upload-1.tmp"), new byte[1]));
+        when(publicacaoRepository.findHashesReferenciados(anyCollection())).thenReturn(Set.of("a".repeat(64)));
+
+        assertEquals(1, coletor.coletar());
+
+        assertTrue(Files.exists(referenciada));
+        assertFalse(Files.exists(orfa));
+        assertFalse(Files.exists(copiaDaOrfa));
+        assertTrue(Files.exists(recente));
+        assertTrue(Files.exists(antiga));
+        assertFalse(Files.exists(temporario));
+    }
+
+    @Test
+    void deveReconhecerImagensReferenciadasPeloHashMesmoComOutroCaminhoDaPasta() throws IOException {
+        Path referenciada = imagem("a".repeat(64), true);
+        Path link = Files.createSymbolicLink(raiz.resolveSibling(raiz.getFileName() + "-link"), raiz);
+        ColetorImagensOrfas porLink = new ColetorImagensOrfas(publicacaoRepository, link, 60_000);
+        when(publicacaoRepository.findHashesReferenciados(anyCollection())).thenReturn(Set.of("a".repeat(64)));
+
+        try {
+            assertEquals(0, porLink.coletar());
+        } finally {
+            porLink.encerrar();
+            Files.delete(link);
+        }
+
+        assertTrue(Files.exists(referenciada));
+    }
+
+    @Test
+    void naoDeveRemoverNadaQuandoNenhumaImagemEhReferenciadaMasHaPublicacoesComImagem() throws IOException {
+        Path imagem = imagem("a".repeat(64), true);
+        when(publicacaoRepository.findHashesReferenciados(anyCollection())).thenReturn(Set.of());
+        when(publicacaoRepository.existsByAtivaTrueAndHashImagemIsNotNull()).thenReturn(true);
+
+        assertEquals(0, coletor.coletar());
+
+        assertTrue(Files.exists(imagem));
+    }
+
+    @Test
+    void devePreencherOHashDasPublicacoesGravadasAntesDoHash() throws IOException {
+        String hash = "d".repeat(64);
+        when(publicacaoRepository.findImagensSemHash()).thenReturn(List.of(
+                new ImagemSemHashRecord(1L, ArmazenamentoImagemUtil.caminho(raiz, hash, "png").toString()),
+                new ImagemSemHashRecord(2L, raiz.resolve("2024").resolve("codigo.jpg").toString())));
+
+        coletor.coletar();
+
+        verify(publicacaoRepository).atualizarHashImagem(1L, hash);
+        verify(publicacaoRepository, never()).atualizarHashImagem(eq(2L), any());
+    }
+
+    @Test
+    void deveDevolverAImagemReferenciadaDuranteAColeta() throws IOException {
+        String hash = "b".repeat(64);
+        Path imagem = imagem(hash, true);
+        when(publicacaoRepository.findHashesReferenciados(anyCollection()))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of(hash));
+
+        assertEquals(0, coletor.coletar());
+
+        assertTrue(Files.exists(imagem));
+        assertTrue(vazia(raiz.resolve(ArmazenamentoImagemUtil.PASTA_QUARENTENA)));
+    }
+
+    @Test
+    void deveDevolverAsImagensDeixadasNaQuarentena() throws IOException {
+        String hash = "e".repeat(64);
+        Path quarentena = Files.createDirectories(raiz.resolve(ArmazenamentoImagemUtil.PASTA_QUARENTENA));
+        Files.write(quarentena.resolve(hash + ".jpg"), new byte[1]);
+        when(publicacaoRepository.findHashesReferenciados(anyCollection())).thenReturn(Set.of(hash));
+
+        coletor.coletar();
+
+        assertTrue(Files.exists(ArmazenamentoImagemUtil.caminho(raiz, hash, "jpg")));
+        assertTrue(vazia(quarentena));
+    }
+
+    private static boolean vazia(Path pasta) throws IOException {
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            return arquivos.findAny().isEmpty();
+        }
+    }
+
+    private Path imagem(String hash, boolean antiga) throws IOException {
+        Path arquivo = ArmazenamentoImagemUtil.caminho(raiz, hash, "jpg");
+        Files.createDirectories(arquivo.getParent());
+        Files.write(arquivo, new byte[1]);
+        return antiga ? antigo(arquivo) : arquivo;
+    }
+
+    private Path antigo(Path arquivo) throws IOException {
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+        return arquivo;
+    }
+}
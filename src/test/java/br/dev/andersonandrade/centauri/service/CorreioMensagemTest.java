@@ -0,0 +1,253 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.enumeradores.PoliticaSaturacao;
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+import br.dev.andersonandrade.centauri.exceptions.MensagemException;
+import br.dev.andersonandrade.centauri.interfaces.Armazem;
+import br.dev.andersonandrade.centauri.interfaces.Mensagem;
+import br.dev.andersonandrade.centauri.interfaces.Transportador;
+import br.dev.andersonandrade.centauri.record.ConfiguracaoFilaRecord;
+import br.dev.andersonandrade.centauri.record.CursorMensagemRecord;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.EntradaDiarioRecord;
+import br.dev.andersonandrade.centauri.record.EstatisticaFilaRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link CorreioMensagem}, cobrindo o escoamento das filas
+ * em lotes, os gatilhos de lote e latência dos consumidores e as políticas
+ * aplicadas quando uma fila está cheia.
+ */
+class CorreioMensagemTest {
+
+    @Mock
+    private Armazem armazem;
+
+    @Mock
+    private DiarioMensagens diario;
+
+    private CacheConversas cache;
+
+    private CorreioMensagem correio;
+
+    private final RemetenteRecord remetente = new RemetenteRecord("Anderson", "anderson@dominio.com");
+    private final DestinatarioRecord destinatario = new DestinatarioRecord("Andreza", "andreza@dominio.com");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new CacheConversas(100, 10, 60_000);
+        AtomicLong sequencia = new AtomicLong();
+        when(diario.registrar(any(), any())).thenAnswer(invocacao -> new EntradaDiarioRecord(
+                sequencia.getAndIncrement(), invocacao.getArgument(0), invocacao.getArgument(1)));
+        when(diario.recuperar()).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        correio.encerrar();
+        cache.encerrar();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveEscoarTodasAsMensagensEmLotesLimitados() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(2, 0));
+        for (int i = 0; i < 5; i++) {
+            enviar("mensagem " + i, Prioridade.URGENTE);
+        }
+
+        assertEquals(5, correio.escoar(Prioridade.URGENTE));
+
+        ArgumentCaptor<List<Transportador>> lotes = ArgumentCaptor.forClass(List.class);
+        verify(armazem, times(3)).armazenar(lotes.capture());
+        assertEquals(List.of(2, 2, 1), lotes.getAllValues().stream().map(List::size).toList());
+        assertEquals(new EstatisticaFilaRecord(Prioridade.URGENTE, 5, 5, 0, 0, 10), estatistica(Prioridade.URGENTE));
+    }
+
+    @Test
+    void deveRecusarMensagemQuandoFilaCheia() {
+        correio = new CorreioMensagem(armazem, diario, cache, 1, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        enviar("primeira", Prioridade.NORMAL);
+
+        assertThrows(MensagemException.class, () -> enviar("segunda", Prioridade.NORMAL));
+
+        assertEquals(new EstatisticaFilaRecord(Prioridade.NORMAL, 1, 0, 1, 1, 1), estatistica(Prioridade.NORMAL));
+    }
+
+    @Test
+    void deveRecusarMensagemAposEsperaQuandoFilaContinuaCheia() {
+        correio = new CorreioMensagem(armazem, diario, cache, 1, PoliticaSaturacao.BLOQUEAR, 10, configuracoes(10, 0));
+        enviar("primeira", Prioridade.BAIXA);
+
+        assertThrows(MensagemException.class, () -> enviar("segunda", Prioridade.BAIXA));
+        assertEquals(1, estatistica(Prioridade.BAIXA).descartadas());
+    }
+
+    @Test
+    void deveEscoarNoRemetenteQuandoFilaCheia() {
+        correio = new CorreioMensagem(armazem, diario, cache, 1, PoliticaSaturacao.ESCOAR, 0, configuracoes(10, 0));
+        enviar("primeira", Prioridade.NORMAL);
+        enviar("segunda", Prioridade.NORMAL);
+
+        verify(armazem).armazenar(anyList());
+        assertEquals(new EstatisticaFilaRecord(Prioridade.NORMAL, 2, 1, 0, 1, 1), estatistica(Prioridade.NORMAL));
+    }
+
+    @Test
+    void deveManterLoteNaFilaQuandoArmazemFalha() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        doThrow(new RuntimeException("base indisponível")).doNothing().when(armazem).armazenar(anyList());
+        enviar("primeira", Prioridade.URGENTE);
+        enviar("segunda", Prioridade.URGENTE);
+
+        assertEquals(0, correio.escoar(Prioridade.URGENTE));
+        assertEquals(2, estatistica(Prioridade.URGENTE).pendentes());
+
+        assertEquals(2, correio.escoar(Prioridade.URGENTE));
+        assertEquals(new EstatisticaFilaRecord(Prioridade.URGENTE, 2, 2, 0, 0, 10), estatistica(Prioridade.URGENTE));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarAssimQueOLoteFicarCompleto() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(3, 60_000));
+        correio.gerenciarMensagens();
+        for (int i = 0; i < 3; i++) {
+            enviar("mensagem " + i, Prioridade.NORMAL);
+        }
+
+        ArgumentCaptor<List<Transportador>> lote = ArgumentCaptor.forClass(List.class);
+        verify(armazem, timeout(2_000)).armazenar(lote.capture());
+        assertEquals(3, lote.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarLoteIncompletoAoAtingirLatenciaMaxima() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(100, 50));
+        correio.gerenciarMensagens();
+        enviar("sozinha", Prioridade.URGENTE);
+
+        ArgumentCaptor<List<Transportador>> lote = ArgumentCaptor.forClass(List.class);
+        verify(armazem, timeout(2_000)).armazenar(lote.capture());
+        assertEquals(1, lote.getValue().size());
+    }
+
+    @Test
+    void deveConfirmarNoDiarioSomenteAposArmazenar() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        doThrow(new RuntimeException("base indisponível")).doNothing().when(armazem).armazenar(anyList());
+        enviar("primeira", Prioridade.NORMAL);
+        enviar("segunda", Prioridade.NORMAL);
+
+        correio.escoar(Prioridade.NORMAL);
+        verify(diario, never()).confirmar(anyList());
+
+        correio.escoar(Prioridade.NORMAL);
+        verify(diario).confirmar(List.of(0L, 1L));
+    }
+
+    @Test
+    void deveDescartarEntradaDoDiarioQuandoMensagemRecusada() {
+        correio = new CorreioMensagem(armazem, diario, cache, 1, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        enviar("primeira", Prioridade.BAIXA);
+
+        assertThrows(MensagemException.class, () -> enviar("segunda", Prioridade.BAIXA));
+        verify(diario).confirmar(List.of(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveReprocessarDiarioAntesDeIniciarOsConsumidores() {
+        EntradaDiarioRecord armazenada = entrada(7L, "já armazenada");
+        EntradaDiarioRecord pendente = entrada(8L, "pendente");
+        when(diario.recuperar()).thenReturn(List.of(armazenada, pendente));
+        when(armazem.contem(armazenada)).thenReturn(true);
+
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, new MockEnvironment());
+
+        verify(diario).confirmar(List.of(7L));
+        ArgumentCaptor<List<Transportador>> lote = ArgumentCaptor.forClass(List.class);
+        verify(armazem, timeout(2_000)).armazenar(lote.capture());
+        assertEquals(List.of(pendente), lote.getValue());
+        verify(diario, timeout(2_000)).confirmar(List.of(8L));
+    }
+
+    @Test
+    void deveServirConversaDoCacheIncluindoMensagensAindaNaoArmazenadas() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        when(armazem.mensagensAnteriores(remetente, destinatario, null, 10)).thenReturn(List.of());
+        enviar("ainda na fila", Prioridade.BAIXA);
+
+        List<Mensagem> primeira = correio.mensagens(remetente, destinatario);
+        List<Mensagem> segunda = correio.mensagens(remetente, destinatario);
+
+        assertEquals(List.of("ainda na fila"), primeira.stream().map(Mensagem::getConteudo).toList());
+        assertSame(primeira, segunda);
+        verify(armazem, times(1)).mensagensAnteriores(remetente, destinatario, null, 10);
+        verify(armazem, never()).mensagens(remetente, destinatario);
+        assertEquals(1, cache.estatisticas().acertos());
+        assertEquals(1, cache.estatisticas().faltas());
+    }
+
+    @Test
+    void deveJuntarMensagensArmazenadasEPendentesPosterioresAoCursor() {
+        correio = new CorreioMensagem(armazem, diario, cache, 10, PoliticaSaturacao.REJEITAR, 0, configuracoes(10, 0));
+        LocalDateTime agora = LocalDateTime.now();
+        CursorMensagemRecord cursor = new CursorMensagemRecord(agora.minusSeconds(5), 1L);
+        MensagemBean armazenada = new MensagemBean("Chat", "armazenada", agora.minusSeconds(3));
+        armazenada.setId(2L);
+        when(armazem.mensagensAnteriores(remetente, destinatario, null, 10)).thenReturn(List.of());
+        when(armazem.mensagensPosteriores(remetente, destinatario, cursor, 10)).thenReturn(List.of(armazenada));
+        enviar("pendente", Prioridade.BAIXA);
+
+        List<Mensagem> mensagens = correio.mensagensPosteriores(remetente, destinatario, cursor, 10);
+
+        assertEquals(List.of("armazenada", "pendente"), mensagens.stream().map(Mensagem::getConteudo).toList());
+    }
+
+    private EntradaDiarioRecord entrada(long sequencia, String conteudo) {
+        return new EntradaDiarioRecord(sequencia, Prioridade.URGENTE, new TransportadorRecord(
+                destinatario, remetente, new MensagemBean("Chat", conteudo, LocalDateTime.now().minusSeconds(1))));
+    }
+
+    private Map<Prioridade, ConfiguracaoFilaRecord> configuracoes(int lote, long latenciaMaximaMs) {
+        Map<Prioridade, ConfiguracaoFilaRecord> configuracoes = new EnumMap<>(Prioridade.class);
+        for (Prioridade prioridade : Prioridade.values()) {
+            configuracoes.put(prioridade, new ConfiguracaoFilaRecord(lote, latenciaMaximaMs));
+        }
+        return configuracoes;
+    }
+
+    private void enviar(String conteudo, Prioridade prioridade) {
+        correio.recebeMensagem(destinatario, remetente,
+                new MensagemBean("Chat", conteudo, LocalDateTime.now().minusSeconds(1)), prioridade);
+    }
+
+    private EstatisticaFilaRecord estatistica(Prioridade prioridade) {
+        return correio.estatisticas().stream()
+                .filter(estatistica -> estatistica.prioridade() == prioridade)
+                .findFirst().orElseThrow();
+    }
+}
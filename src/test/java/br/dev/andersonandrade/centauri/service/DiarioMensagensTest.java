@@ -0,0 +1,115 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.beans.MensagemBean;
+import br.dev.andersonandrade.centauri.enumeradores.Prioridade;
+import br.dev.andersonandrade.centauri.record.DestinatarioRecord;
+import br.dev.andersonandrade.centauri.record.EntradaDiarioRecord;
+import br.dev.andersonandrade.centauri.record.RemetenteRecord;
+import br.dev.andersonandrade.centauri.record.TransportadorRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da classe {@link DiarioMensagens}, cobrindo a recuperação das entradas
+ * não confirmadas e a liberação do espaço após as confirmações.
+ */
+class DiarioMensagensTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final RemetenteRecord remetente = new RemetenteRecord("Anderson", "anderson@dominio.com");
+    private final DestinatarioRecord destinatario = new DestinatarioRecord("Andreza", "andreza@dominio.com");
+
+    @Test
+    void deveRecuperarSomenteEntradasNaoConfirmadas() {
+        DiarioMensagens diario = abrir(1024 * 1024);
+        EntradaDiarioRecord primeira = diario.registrar(Prioridade.URGENTE, transportador("primeira"));
+        EntradaDiarioRecord segunda = diario.registrar(Prioridade.NORMAL, transportador("segunda"));
+        EntradaDiarioRecord terceira = diario.registrar(Prioridade.BAIXA, transportador("terceira"));
+        diario.confirmar(List.of(segunda.sequencia()));
+        diario.fechar();
+
+        List<EntradaDiarioRecord> recuperadas = abrir(1024 * 1024).recuperar();
+
+        assertEquals(List.of(primeira.sequencia(), terceira.sequencia()),
+                recuperadas.stream().map(EntradaDiarioRecord::sequencia).toList());
+        assertEquals(Prioridade.BAIXA, recuperadas.get(1).prioridade());
+        assertEquals("terceira", recuperadas.get(1).mensagem().getConteudo());
+        assertEquals(terceira.mensagem().getDataEnvio(), recuperadas.get(1).mensagem().getDataEnvio());
+        assertEquals(destinatario.endereco(), recuperadas.get(1).destinatario().endereco());
+    }
+
+    @Test
+    void deveTruncarDiarioQuandoTodasAsEntradasForemConfirmadas() throws IOException {
+        DiarioMensagens diario = abrir(1024 * 1024);
+        EntradaDiarioRecord primeira = diario.registrar(Prioridade.URGENTE, transportador("primeira"));
+        EntradaDiarioRecord segunda = diario.registrar(Prioridade.URGENTE, transportador("segunda"));
+
+        diario.confirmar(List.of(primeira.sequencia(), segunda.sequencia()));
+
+        assertEquals(0, diario.pendentes());
+        assertEquals(0, tamanhoTotal());
+    }
+
+    @Test
+    void deveApagarSegmentosCujasEntradasForamConfirmadas() throws IOException {
+        DiarioMensagens diario = abrir(64);
+        EntradaDiarioRecord primeira = diario.registrar(Prioridade.URGENTE, transportador("primeira"));
+        EntradaDiarioRecord segunda = diario.registrar(Prioridade.URGENTE, transportador("segunda"));
+        diario.registrar(Prioridade.URGENTE, transportador("terceira"));
+        long segmentosAntes = segmentos();
+
+        diario.confirmar(List.of(primeira.sequencia(), segunda.sequencia()));
+
+        assertTrue(segmentosAntes >= 3);
+        assertTrue(segmentos() < segmentosAntes);
+        diario.fechar();
+        assertEquals(List.of("terceira"), abrir(64).recuperar().stream()
+                .map(entrada -> entrada.mensagem().getConteudo()).toList());
+    }
+
+    @Test
+    void deveIgnorarRegistroIncompletoNoFinalDoSegmento() throws IOException {
+        DiarioMensagens diario = abrir(1024 * 1024);
+        diario.registrar(Prioridade.URGENTE, transportador("primeira"));
+        diario.registrar(Prioridade.URGENTE, transportador("segunda"));
+        diario.fechar();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            Path ultimo = arquivos.sorted().reduce((anterior, proximo) -> proximo).orElseThrow();
+            Files.write(ultimo, new byte[]{0, 0, 1, 0, 7, 7}, StandardOpenOption.APPEND);
+        }
+
+        assertEquals(2, abrir(1024 * 1024).recuperar().size());
+    }
+
+    private DiarioMensagens abrir(long tamanhoSegmento) {
+        return new DiarioMensagens(diretorio.toString(), tamanhoSegmento);
+    }
+
+    private TransportadorRecord transportador(String conteudo) {
+        return new TransportadorRecord(destinatario, remetente, new MensagemBean("Chat", conteudo, LocalDateTime.now()));
+    }
+
+    private long segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.count();
+        }
+    }
+
+    private long tamanhoTotal() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.mapToLong(arquivo -> arquivo.toFile().length()).sum();
+        }
+    }
+}
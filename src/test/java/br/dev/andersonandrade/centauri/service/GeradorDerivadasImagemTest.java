@@ -0,0 +1,138 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.enumeradores.LarguraImagem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Testes da classe {@link GeradorDerivadasImagem}, garantindo que as cópias sejam gravadas
+ * ao lado da original, na largura de cada tamanho e com a proporção da original, e que
+ * imagens menores não sejam ampliadas. Imagens que não podem ser decodificadas ficam
+ * registradas com a original em todas as larguras.
+ */
+class GeradorDerivadasImagemTest {
+
+    @TempDir
+    private Path pasta;
+
+    private GeradorDerivadasImagem gerador;
+
+    @BeforeEach
+    void setUp() {
+        gerador = new GeradorDerivadasImagem(1, 10, 3_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gerador.encerrar();
+    }
+
+    @Test
+    void deveGerarCopiasReduzidasMantendoAProporcao() throws IOException {
+        Path original = pasta.resolve("codigo.jpg");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "jpg", original.toFile());
+
+        gerador.criarDerivadas(original);
+
+        for (LarguraImagem tamanho : LarguraImagem.values()) {
+            BufferedImage copia = ImageIO.read(pasta.resolve("codigo-" + tamanho.getLargura() + ".jpg").toFile());
+            assertEquals(tamanho.getLargura(), copia.getWidth());
+            assertEquals(tamanho.getLargura() / 2, copia.getHeight());
+        }
+    }
+
+    @Test
+    void naoDeveAmpliarImagemMenorQueACopia() throws IOException {
+        Path original = pasta.resolve("codigo.png");
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        gerador.criarDerivadas(original);
+
+        assertEquals(240, ImageIO.read(LarguraImagem.MINIATURA.caminho(original).toFile()).getWidth());
+        assertEquals(300, ImageIO.read(LarguraImagem.CARTAO.caminho(original).toFile()).getWidth());
+        assertEquals(Files.size(original), Files.size(LarguraImagem.COMPLETA.caminho(original)));
+    }
+
+    @Test
+    void deveReduzirImagemLidaPorAmostragem() throws IOException {
+        Path original = pasta.resolve("larga.jpg");
+        ImageIO.write(new BufferedImage(2500, 500, BufferedImage.TYPE_INT_RGB), "jpg", original.toFile());
+
+        gerador.criarDerivadas(original);
+
+        BufferedImage completa = ImageIO.read(LarguraImagem.COMPLETA.caminho(original).toFile());
+        assertEquals(1080, completa.getWidth());
+        assertEquals(216, completa.getHeight());
+    }
+
+    @Test
+    void naoDeveAmpliarImagemMuitoAltaLidaMaisEstreitaQueACopia() throws IOException {
+        GeradorDerivadasImagem semLimite = new GeradorDerivadasImagem(1, 10, 50_000_000);
+        Path original = pasta.resolve("alta.png");
+        ImageIO.write(new BufferedImage(1200, 10_000, BufferedImage.TYPE_BYTE_GRAY), "png", original.toFile());
+
+        try {
+            semLimite.criarDerivadas(original);
+        } finally {
+            semLimite.encerrar();
+        }
+
+        BufferedImage cartao = ImageIO.read(LarguraImagem.CARTAO.caminho(original).toFile());
+        assertEquals(480, cartao.getWidth());
+        assertEquals(4000, cartao.getHeight());
+        assertArrayEquals(Files.readAllBytes(original), Files.readAllBytes(LarguraImagem.COMPLETA.caminho(original)));
+    }
+
+    @Test
+    void deveLerOsPixelsPeloCabecalho() throws IOException {
+        Path original = pasta.resolve("codigo.png");
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        assertEquals(60_000, gerador.pixels(original));
+        assertEquals(-1, gerador.pixels(Files.write(pasta.resolve("texto.jpg"), "texto".getBytes())));
+    }
+
+    @Test
+    void deveUsarAOriginalEmTodasAsLargurasQuandoPassaDoLimiteDePixels() throws IOException {
+        Path original = pasta.resolve("enorme.png");
+        ImageIO.write(new BufferedImage(2000, 2000, BufferedImage.TYPE_BYTE_BINARY), "png", original.toFile());
+
+        gerador.criarDerivadas(original);
+
+        for (LarguraImagem tamanho : LarguraImagem.values()) {
+            assertArrayEquals(Files.readAllBytes(original), Files.readAllBytes(tamanho.caminho(original)));
+        }
+    }
+
+    @Test
+    void deveUsarAOriginalEmTodasAsLargurasQuandoNaoDecodifica() throws IOException {
+        byte[] truncada = new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10};
+        Path original = Files.write(pasta.resolve("truncada.jpg"), truncada);
+
+        gerador.criarDerivadas(original);
+
+        for (LarguraImagem tamanho : LarguraImagem.values()) {
+            assertArrayEquals(truncada, Files.readAllBytes(tamanho.caminho(original)));
+        }
+    }
+
+    @Test
+    void deveEscolherAMenorCopiaQueAtendeALargura() {
+        assertNull(LarguraImagem.para(null));
+        assertEquals(LarguraImagem.MINIATURA, LarguraImagem.para(100));
+        assertEquals(LarguraImagem.CARTAO, LarguraImagem.para(480));
+        assertEquals(LarguraImagem.COMPLETA, LarguraImagem.para(4000));
+    }
+}
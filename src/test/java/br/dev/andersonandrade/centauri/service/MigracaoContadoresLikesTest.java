@@ -0,0 +1,65 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.entity.Likes;
+import br.dev.andersonandrade.centauri.entity.Login;
+import br.dev.andersonandrade.centauri.entity.Publicacao;
+import br.dev.andersonandrade.centauri.entity.Senha;
+import br.dev.andersonandrade.centauri.entity.Usuario;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes da classe {@link MigracaoContadoresLikes}, garantindo que os contadores da
+ * tabela de likes sejam copiados para as publicações sem sobrescrever os já gravados
+ * na publicação, de modo que a migração possa rodar a cada inicialização.
+ */
+@DataJpaTest
+class MigracaoContadoresLikesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PublicacaoRepository publicacaoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deveCopiarContadoresSomenteParaPublicacoesSemCliques() {
+        Usuario usuario = entityManager.persist(new Usuario("Anderson", "Andrade",
+                new Login("anderson@centauri.dev", "anderson", true, new Senha("chave"))));
+        Publicacao antiga = publicacao(usuario, 0, 5, 2);
+        Publicacao migrada = publicacao(usuario, 3, 9, 0);
+        entityManager.flush();
+        entityManager.clear();
+
+        new MigracaoContadoresLikes(publicacaoRepository, transactionManager, true).migrar();
+        entityManager.clear();
+
+        Publicacao antigaMigrada = entityManager.find(Publicacao.class, antiga.getId());
+        assertEquals(5, antigaMigrada.getQtdPositivo());
+        assertEquals(2, antigaMigrada.getQtdNegativo());
+        assertEquals(3, entityManager.find(Publicacao.class, migrada.getId()).getQtdPositivo());
+        assertEquals(0, publicacaoRepository.copiarContadoresDosLikes());
+    }
+
+    private Publicacao publicacao(Usuario usuario, int likesNaPublicacao, int likesNaTabela, int dislikesNaTabela) {
+        Publicacao publicacao = new Publicacao(usuario, null, "Título\nTexto", LocalDateTime.now(), true);
+        publicacao.setQtdPositivo(likesNaPublicacao);
+        entityManager.persist(publicacao);
+        Likes likes = new Likes(publicacao);
+        likes.setQtdPositivo(likesNaTabela);
+        likes.setQtdNegativo(dislikesNaTabela);
+        entityManager.persist(likes);
+        return publicacao;
+    }
+}
@@ -0,0 +1,113 @@
+package br.dev.andersonandrade.centauri.service;
+
+import br.dev.andersonandrade.centauri.record.DeltaLikeRecord;
+import br.dev.andersonandrade.centauri.record.PontuacaoPublicacaoRecord;
+import br.dev.andersonandrade.centauri.record.PublicacaoResumoRecord;
+import br.dev.andersonandrade.centauri.repository.PublicacaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes da classe {@link RankingPublicacoes}, garantindo que o ranking seja montado pela
+ * base de dados e depois atualizado em memória, buscando somente as publicações que
+ * entram entre as primeiras.
+ */
+class RankingPublicacoesTest {
+
+    @Mock
+    private PublicacaoRepository publicacaoRepository;
+
+    @Mock
+    private AgregadorLikes agregadorLikes;
+
+    private RankingPublicacoes ranking;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(publicacaoRepository.findPontuacoesAtivas()).thenReturn(List.of(
+                new PontuacaoPublicacaoRecord(1L, 5),
+                new PontuacaoPublicacaoRecord(2L, 9),
+                new PontuacaoPublicacaoRecord(3L, 1)));
+        when(publicacaoRepository.findResumos(anyCollection())).thenAnswer(invocacao ->
+                invocacao.<Collection<Long>>getArgument(0).stream()
+                        .map(id -> new PublicacaoResumoRecord(id, "Título " + id, "Texto", "Anderson", null, 0))
+                        .toList());
+        doAnswer(invocacao -> {
+            invocacao.<Runnable>getArgument(0).run();
+            return null;
+        }).when(agregadorLikes).semGravar(any());
+        ranking = new RankingPublicacoes(publicacaoRepository, agregadorLikes, 2);
+        ranking.reconstruir();
+    }
+
+    @Test
+    void deveMontarRankingComAsPublicacoesMaisCurtidas() {
+        assertEquals(List.of(2L, 1L), ids());
+        assertEquals(9, ranking.primeiras().get(0).likes());
+        verify(publicacaoRepository).findResumos(List.of(2L, 1L));
+        verify(agregadorLikes).aoGravar(any());
+    }
+
+    @Test
+    void deveReordenarComOsLikesGravadosSemConsultarAsPublicacoesJaCarregadas() {
+        ranking.aplicar(List.of(new DeltaLikeRecord(3L, 10, 0), new DeltaLikeRecord(2L, 0, 20)));
+
+        assertEquals(List.of(3L, 1L), ids());
+        assertEquals(11, ranking.primeiras().get(0).likes());
+        verify(publicacaoRepository).findResumos(List.of(3L));
+    }
+
+    @Test
+    void deveRetirarPublicacaoDesativada() {
+        ranking.remover(2L);
+
+        assertEquals(List.of(1L, 3L), ids());
+
+        ranking.aplicar(List.of(new DeltaLikeRecord(2L, 50, 0)));
+        assertEquals(List.of(1L, 3L), ids());
+    }
+
+    @Test
+    void deveAlterarVersaoSomenteQuandoAOrdemExibidaMuda() {
+        long versao = ranking.versao();
+
+        ranking.aplicar(List.of(new DeltaLikeRecord(1L, 2, 0)));
+        assertEquals(versao, ranking.versao());
+        assertEquals(7, ranking.primeiras().get(1).likes());
+
+        ranking.aplicar(List.of(new DeltaLikeRecord(1L, 5, 0)));
+        assertEquals(List.of(1L, 2L), ids());
+        assertEquals(versao + 1, ranking.versao());
+    }
+
+    @Test
+    void deveSerIncompletoAteSerMontadoEntreAsGravacoes() {
+        RankingPublicacoes novo = new RankingPublicacoes(publicacaoRepository, agregadorLikes, 10);
+
+        assertFalse(novo.completo());
+        assertTrue(novo.primeiras().isEmpty());
+
+        novo.reconstruir();
+
+        assertTrue(novo.completo());
+        assertEquals(3, novo.primeiras().size());
+        verify(agregadorLikes, times(2)).semGravar(any());
+    }
+
+    private List<Long> ids() {
+        return ranking.primeiras().stream().map(PublicacaoResumoRecord::id).toList();
+    }
+}